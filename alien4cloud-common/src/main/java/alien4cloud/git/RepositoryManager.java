@@ -13,6 +13,8 @@ import org.eclipse.jgit.api.*;
 import org.eclipse.jgit.api.errors.GitAPIException;
 import org.eclipse.jgit.api.errors.NoHeadException;
 import org.eclipse.jgit.errors.RepositoryNotFoundException;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.ObjectId;
 import org.eclipse.jgit.lib.Ref;
 import org.eclipse.jgit.lib.Repository;
 import org.eclipse.jgit.lib.RepositoryState;
@@ -269,6 +271,27 @@ public class RepositoryManager {
         return null;
     }
 
+    /**
+     * Get the hash of the commit referenced by the HEAD of the given repository.
+     *
+     * @param repositoryDirectory The directory in which the git repo exists.
+     * @return The hash of the HEAD commit or null if the directory is not a git repository or if the repository has no commit.
+     */
+    public static String getHeadHash(Path repositoryDirectory) {
+        Git repository = null;
+        try {
+            repository = Git.open(repositoryDirectory.toFile());
+            ObjectId head = repository.getRepository().resolve(Constants.HEAD);
+            return head == null ? null : head.getName();
+        } catch (RepositoryNotFoundException e) {
+            return null;
+        } catch (IOException e) {
+            throw new GitException("Unable to open the git repository", e);
+        } finally {
+            close(repository);
+        }
+    }
+
     private static void setCredentials(TransportCommand<?, ?> command, String username, String password) {
         if (StringUtils.isNotBlank(username)) {
             if (password == null) {
@@ -5,11 +5,11 @@ import java.nio.charset.Charset;
 import java.nio.file.*;
 import java.nio.file.FileSystem;
 import java.nio.file.attribute.BasicFileAttributes;
-import java.security.DigestInputStream;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.util.List;
 import java.util.regex.Pattern;
+import java.util.stream.Stream;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipOutputStream;
 
@@ -29,6 +29,8 @@ import javax.xml.bind.DatatypeConverter;
 
 @Slf4j
 public final class FileUtil {
+    private static final int DIGEST_BUFFER_SIZE = 64 * 1024;
+
     /**
      * Utility class should have private constructor.
      */
@@ -383,15 +385,19 @@ public final class FileUtil {
     @SneakyThrows({ IOException.class, NoSuchAlgorithmException.class })
     private static String computeDirectoryHash(Path rootPath) {
         MessageDigest digest = MessageDigest.getInstance("SHA1");
-        Files.walk(rootPath).filter(FileUtil::isNotHidden).filter(Files::isRegularFile).forEach(path -> addFileToDigest(digest, path));
+        try (Stream<Path> paths = Files.walk(rootPath)) {
+            paths.filter(FileUtil::isNotHidden).filter(Files::isRegularFile).forEach(path -> addFileToDigest(digest, path));
+        }
         return DatatypeConverter.printHexBinary(digest.digest());
-
     }
 
     @SneakyThrows({ IOException.class })
     private static void addFileToDigest(MessageDigest digest, Path path) {
-        try (InputStream digestInputStream = new DigestInputStream(new BufferedInputStream(Files.newInputStream(path)), digest)) {
-            while (digestInputStream.read() != -1) {
+        byte[] buffer = new byte[DIGEST_BUFFER_SIZE];
+        try (InputStream inputStream = Files.newInputStream(path)) {
+            int read;
+            while ((read = inputStream.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
             }
         }
     }
@@ -0,0 +1,113 @@
+package alien4cloud.application;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.Resource;
+
+import org.springframework.stereotype.Service;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+
+import alien4cloud.dao.IGenericSearchDAO;
+import alien4cloud.exception.NotFoundException;
+import alien4cloud.model.application.Application;
+import alien4cloud.model.application.ApplicationEnvironment;
+import alien4cloud.model.deployment.Deployment;
+import alien4cloud.security.AuthorizationUtil;
+import alien4cloud.security.UserAuthorizations;
+import alien4cloud.security.model.ApplicationEnvironmentRole;
+import alien4cloud.security.model.ApplicationRole;
+import alien4cloud.utils.MapUtil;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Load the environments of many applications at once (for dashboards and application lists).
+ *
+ * The applications, their environments and the active deployments of the environments are loaded with a single request each whatever the number of
+ * applications, and the authorizations of the current user are checked in memory.
+ */
+@Service
+public class ApplicationDashboardService {
+    @Resource(name = "alien-es-dao")
+    private IGenericSearchDAO alienDAO;
+
+    /**
+     * An environment with its active deployment.
+     */
+    @Getter
+    @AllArgsConstructor(suppressConstructorProperties = true)
+    public static class EnvironmentDeployment {
+        private final ApplicationEnvironment environment;
+        /** The active deployment of the environment or null if the environment is not deployed. */
+        private final Deployment deployment;
+    }
+
+    /**
+     * Get the environments the current user is allowed to see for the given applications with their active deployment.
+     *
+     * @param applicationIds The ids of the applications for which to get environments.
+     * @return The environments of every application by application id.
+     * @throws NotFoundException If one of the application does not exist.
+     * @throws org.springframework.security.access.AccessDeniedException If the current user has no role on one of the applications.
+     */
+    public Map<String, List<EnvironmentDeployment>> getEnvironments(Collection<String> applicationIds) {
+        Map<String, List<EnvironmentDeployment>> environmentsByApplicationId = Maps.newLinkedHashMap();
+        if (applicationIds.isEmpty()) {
+            return environmentsByApplicationId;
+        }
+        String[] ids = Sets.newLinkedHashSet(applicationIds).toArray(new String[0]);
+        UserAuthorizations authorizations = AuthorizationUtil.getCurrentUserAuthorizations();
+
+        Map<String, Application> applications = Maps.newHashMap();
+        for (Application application : alienDAO.findByIds(Application.class, ids)) {
+            applications.put(application.getId(), application);
+        }
+        for (String applicationId : ids) {
+            Application application = applications.get(applicationId);
+            if (application == null) {
+                throw new NotFoundException("Application [" + applicationId + "] cannot be found");
+            }
+            authorizations.checkAuthorizationForApplication(application, ApplicationRole.values());
+            environmentsByApplicationId.put(applicationId, Lists.newArrayList());
+        }
+
+        List<ApplicationEnvironment> environments = Lists.newArrayList();
+        for (ApplicationEnvironment environment : alienDAO
+                .find(ApplicationEnvironment.class, MapUtil.newHashMap(new String[] { "applicationId" }, new String[][] { ids }), Integer.MAX_VALUE)
+                .getData()) {
+            if (authorizations.hasAuthorizationForEnvironment(applications.get(environment.getApplicationId()), environment,
+                    ApplicationEnvironmentRole.values())) {
+                environments.add(environment);
+            }
+        }
+        Map<String, Deployment> deploymentsByEnvironmentId = getActiveDeployments(environments);
+        for (ApplicationEnvironment environment : environments) {
+            environmentsByApplicationId.get(environment.getApplicationId())
+                    .add(new EnvironmentDeployment(environment, deploymentsByEnvironmentId.get(environment.getId())));
+        }
+        return environmentsByApplicationId;
+    }
+
+    private Map<String, Deployment> getActiveDeployments(List<ApplicationEnvironment> environments) {
+        Map<String, Deployment> deploymentsByEnvironmentId = Maps.newHashMap();
+        if (environments.isEmpty()) {
+            return deploymentsByEnvironmentId;
+        }
+        Set<String> environmentIds = Sets.newHashSet();
+        for (ApplicationEnvironment environment : environments) {
+            environmentIds.add(environment.getId());
+        }
+        Deployment[] deployments = alienDAO.find(Deployment.class, MapUtil.newHashMap(new String[] { "environmentId", "endDate" },
+                new String[][] { environmentIds.toArray(new String[environmentIds.size()]), new String[] { null } }), Integer.MAX_VALUE).getData();
+        for (Deployment deployment : deployments) {
+            deploymentsByEnvironmentId.put(deployment.getEnvironmentId(), deployment);
+        }
+        return deploymentsByEnvironmentId;
+    }
+}
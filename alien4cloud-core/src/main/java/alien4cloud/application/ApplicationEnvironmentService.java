@@ -24,8 +24,8 @@ import com.google.common.collect.Sets;
 import alien4cloud.dao.IGenericSearchDAO;
 import alien4cloud.dao.model.GetMultipleDataResult;
 import alien4cloud.deployment.DeploymentLockService;
-import alien4cloud.deployment.DeploymentRuntimeStateService;
 import alien4cloud.deployment.DeploymentService;
+import alien4cloud.deployment.DeploymentStatusCache;
 import alien4cloud.deployment.DeploymentTopologyService;
 import alien4cloud.exception.AlreadyExistException;
 import alien4cloud.exception.DeleteDeployedException;
@@ -55,8 +55,6 @@ public class ApplicationEnvironmentService {
     @Inject
     private ApplicationVersionService applicationVersionService;
     @Inject
-    private DeploymentRuntimeStateService deploymentRuntimeStateService;
-    @Inject
     private DeploymentTopologyService deploymentTopologyService;
     @Inject
     private ApplicationEventPublisher publisher;
@@ -64,6 +62,8 @@ public class ApplicationEnvironmentService {
     private DeploymentService deploymentService;
     @Inject
     private DeploymentLockService deploymentLockService;
+    @Inject
+    private DeploymentStatusCache deploymentStatusCache;
 
     /**
      * Method used to create a default environment
@@ -274,7 +274,7 @@ public class ApplicationEnvironmentService {
             return DeploymentStatus.UNDEPLOYED;
         }
         return deploymentLockService.doWithDeploymentReadLock(deployment.getOrchestratorDeploymentId(), () -> {
-            DeploymentStatus currentStatus = deploymentRuntimeStateService.getDeploymentStatus(deployment);
+            DeploymentStatus currentStatus = deploymentStatusCache.getStatus(deployment);
             if (DeploymentStatus.UNDEPLOYED.equals(currentStatus)) {
                 deploymentService.markUndeployed(deployment);
             }
@@ -149,18 +149,19 @@ public class CsarGitService {
         List<ParsingResult<Csar>> parsingResult = Lists.newArrayList();
         try {
             Map<CSARDependency, CsarDependenciesBean> csarDependenciesBeans = uploadService.preParsing(archivePaths, parsingResult);
-            List<CsarDependenciesBean> sorted = sort(csarDependenciesBeans);
-            for (CsarDependenciesBean csarBean : sorted) {
+            List<CsarDependenciesBean> archives = Lists.newArrayList();
+            for (CsarDependenciesBean csarBean : csarDependenciesBeans.values()) {
                 if (csarGitCheckoutLocation.getLastImportedHash() != null && csarGitCheckoutLocation.getLastImportedHash().equals(gitHash)
-                    && csarService.get(csarBean.getSelf().getName(), csarBean.getSelf().getVersion()) != null) {
-                        // no commit since last import and the archive still exist in the repo, so do not import
-                        // TODO notify the user that the archive has already been imported
-                        continue;
+                        && csarService.get(csarBean.getSelf().getName(), csarBean.getSelf().getVersion()) != null) {
+                    // no commit since last import and the archive still exist in the repo, so do not import
+                    // TODO notify the user that the archive has already been imported
+                    continue;
                 }
-                // FIXME Add possibility to choose an workspace
-                ParsingResult<Csar> result = uploadService.upload(csarBean.getPath(), CSARSource.GIT, AlienConstants.GLOBAL_WORKSPACE_ID);
-                parsingResult.add(result);
+                archives.add(csarBean);
             }
+            // FIXME Add possibility to choose an workspace
+            // archives are imported after the archives they depend on.
+            uploadService.uploadAll(archives, CSARSource.GIT, AlienConstants.GLOBAL_WORKSPACE_ID, parsingResult);
             return parsingResult;
         } catch (ParsingException e) {
             // TODO Actually add a parsing result with error.
@@ -170,53 +171,4 @@ public class CsarGitService {
             return parsingResult;
         }
     }
-
-    private List<CsarDependenciesBean> sort(Map<CSARDependency, CsarDependenciesBean> elements) {
-        List<CsarDependenciesBean> sortedCsars = Lists.newArrayList();
-
-        List<CsarDependenciesBean> independents = Lists.newArrayList();
-        for (Map.Entry<CSARDependency, CsarDependenciesBean> entry : elements.entrySet()) {
-            CsarDependenciesBean csar = entry.getValue();
-            if (csar.getDependencies() == null) {
-                // the element has no dependencies
-                independents.add(csar);
-            } else {
-                // complete the list of dependent elements
-                List<CSARDependency> toClears = Lists.newArrayList();
-                for (CSARDependency dependency : csar.getDependencies()) {
-                    CsarDependenciesBean providedDependency = elements.get(dependency);
-                    if (providedDependency == null) {
-                        // remove the dependency as it may be in the alien repo
-                        toClears.add(dependency);
-                    } else {
-                        providedDependency.getDependents().add(csar);
-                    }
-                }
-                for (CSARDependency toClear : toClears) {
-                    csar.getDependencies().remove(toClear);
-                }
-                if (csar.getDependencies().isEmpty()) {
-                    independents.add(csar);
-                }
-            }
-        }
-
-        while (!independents.isEmpty()) {
-            CsarDependenciesBean independent = independents.remove(0);
-            elements.remove(independent.getSelf()); // remove from the elements
-            sortedCsars.add(independent); // element has no more dependencies
-            for (CsarDependenciesBean dependent : independent.getDependents()) {
-                dependent.getDependencies().remove(independent.getSelf());
-                if (dependent.getDependencies().isEmpty()) {
-                    independents.add(dependent);
-                }
-            }
-        }
-
-        if (elements.size() > 0) {
-            // TODO there is looping dependencies throw exception or ignore ?
-        }
-
-        return sortedCsars;
-    }
 }
\ No newline at end of file
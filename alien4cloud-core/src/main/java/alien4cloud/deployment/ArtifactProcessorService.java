@@ -8,10 +8,22 @@ import java.net.MalformedURLException;
 import java.net.URL;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.stream.Stream;
 
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.annotation.Resource;
 
 import org.alien4cloud.tosca.catalog.repository.CsarFileRepository;
@@ -19,10 +31,13 @@ import org.alien4cloud.tosca.editor.EditorRepositoryService;
 import org.alien4cloud.tosca.model.definitions.AbstractArtifact;
 import org.alien4cloud.tosca.model.definitions.DeploymentArtifact;
 import org.alien4cloud.tosca.model.definitions.Interface;
-import org.apache.commons.io.FilenameUtils;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.stereotype.Component;
 
+import com.google.common.base.Throwables;
+import com.google.common.collect.Lists;
+
 import alien4cloud.component.repository.ArtifactRepositoryConstants;
 import alien4cloud.component.repository.IFileRepository;
 import alien4cloud.deployment.exceptions.UnresolvableArtifactException;
@@ -31,7 +46,6 @@ import alien4cloud.paas.model.PaaSNodeTemplate;
 import alien4cloud.paas.model.PaaSRelationshipTemplate;
 import alien4cloud.paas.model.PaaSTopologyDeploymentContext;
 import alien4cloud.repository.services.RepositoryService;
-import alien4cloud.utils.FileUtil;
 import lombok.extern.slf4j.Slf4j;
 
 /**
@@ -53,11 +67,41 @@ public class ArtifactProcessorService {
     @Resource
     private IFileRepository artifactRepository;
 
-    private Path tempDir;
+    @Resource
+    private ResolvedArtifactCache resolvedArtifactCache;
+
+    @Value("${deployment.artifacts.resolution_parallelism:8}")
+    private int resolutionParallelism;
+
+    private ExecutorService resolutionExecutor;
 
-    private String resolveArtifact(AbstractArtifact artifact) {
-        return repositoryService.resolveArtifact(artifact.getArtifactRef(), artifact.getRepositoryURL(), artifact.getArtifactRepository(),
-                artifact.getRepositoryCredential());
+    @PostConstruct
+    public void init() {
+        resolutionExecutor = Executors.newFixedThreadPool(resolutionParallelism, new CustomizableThreadFactory("artifact-resolver-"));
+    }
+
+    @PreDestroy
+    public void destroy() {
+        resolutionExecutor.shutdownNow();
+    }
+
+    private Path resolveArtifact(String deploymentId, AbstractArtifact artifact, URL artifactURL) throws IOException {
+        return resolvedArtifactCache.get(deploymentId, artifact.getArtifactRef(), artifact.getRepositoryURL(), artifact.getArtifactRepository(),
+                artifact.getRepositoryCredential(), cachePath -> {
+                    String resolvedArtifact = repositoryService.resolveArtifact(artifact.getArtifactRef(), artifact.getRepositoryURL(),
+                            artifact.getArtifactRepository(), artifact.getRepositoryCredential());
+                    if (resolvedArtifact != null) {
+                        return Paths.get(resolvedArtifact);
+                    }
+                    if (artifactURL == null) {
+                        throw new UnresolvableArtifactException("Artifact could not be found " + artifact);
+                    }
+                    // In a best effort try in a generic manner to obtain the artifact
+                    try (InputStream artifactStream = artifactURL.openStream()) {
+                        Files.copy(artifactStream, cachePath, StandardCopyOption.REPLACE_EXISTING);
+                    }
+                    return cachePath;
+                });
     }
 
     private void processLocalArtifact(AbstractArtifact artifact) {
@@ -73,7 +117,7 @@ public class ArtifactProcessorService {
         }
     }
 
-    private void processArtifact(AbstractArtifact artifact) {
+    private void processArtifact(String deploymentId, AbstractArtifact artifact) {
         if (ArtifactRepositoryConstants.ALIEN_ARTIFACT_REPOSITORY.equals(artifact.getArtifactRepository())) {
             artifact.setArtifactPath(artifactRepository.resolveFile(artifact.getArtifactRef()).toString());
             return;
@@ -96,20 +140,11 @@ public class ArtifactProcessorService {
         if (log.isDebugEnabled()) {
             log.debug("Processing remote artifact {}", artifact);
         }
-        String artifactPath = resolveArtifact(artifact);
-        if (artifactPath == null) {
-            if (artifactURL != null) {
-                try (InputStream artifactStream = artifactURL.openStream()) {
-                    // In a best effort try in a generic manner to obtain the artifact
-                    Path tempPath = Files.createTempFile(tempDir, "url-artifact", FilenameUtils.getExtension(artifact.getArtifactRef()));
-                    artifactPath = tempPath.toString();
-                    Files.copy(artifactStream, tempPath, StandardCopyOption.REPLACE_EXISTING);
-                } catch (IOException e) {
-                    throw new UnresolvableArtifactException("Artifact could not be found " + artifact, e);
-                }
-            } else {
-                throw new UnresolvableArtifactException("Artifact could not be found " + artifact);
-            }
+        String artifactPath;
+        try {
+            artifactPath = resolveArtifact(deploymentId, artifact, artifactURL).toString();
+        } catch (IOException e) {
+            throw new UnresolvableArtifactException("Artifact could not be found " + artifact, e);
         }
         if (log.isDebugEnabled()) {
             log.debug("Remote artifact from {} resolved to {}", artifact.getArtifactRef(), artifactPath);
@@ -117,23 +152,45 @@ public class ArtifactProcessorService {
         artifact.setArtifactPath(artifactPath);
     }
 
-    private void processInterfaces(Map<String, Interface> interfaceMap) {
+    /**
+     * Process the given artifacts concurrently on the resolution pool.
+     */
+    private void processArtifacts(String deploymentId, Collection<? extends AbstractArtifact> artifacts) {
+        List<Future<?>> futures = Lists.newArrayList();
+        for (AbstractArtifact artifact : artifacts) {
+            futures.add(resolutionExecutor.submit(() -> processArtifact(deploymentId, artifact)));
+        }
+        try {
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (ExecutionException e) {
+            throw Throwables.propagate(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new UnresolvableArtifactException("Interrupted while resolving artifacts", e);
+        } finally {
+            futures.forEach(future -> future.cancel(true));
+        }
+    }
+
+    private void collectInterfacesArtifacts(Map<String, Interface> interfaceMap, Set<AbstractArtifact> artifacts) {
         if (interfaceMap != null) {
             interfaceMap.values().stream().filter(interfazz -> interfazz.getOperations() != null).forEach(interfazz -> interfazz.getOperations().values()
                     .stream().filter(operation -> operation.getImplementationArtifact() != null).forEach(operation -> {
-                        processArtifact(operation.getImplementationArtifact());
-                        safe(operation.getDependencies()).forEach(this::processArtifact);
+                        artifacts.add(operation.getImplementationArtifact());
+                        artifacts.addAll(safe(operation.getDependencies()));
                     }));
         }
     }
 
-    private void processImplementationArtifacts(PaaSTopologyDeploymentContext deploymentContext) {
+    private void collectImplementationArtifacts(PaaSTopologyDeploymentContext deploymentContext, Set<AbstractArtifact> artifacts) {
         if (deploymentContext.getPaaSTopology().getAllNodes() != null) {
             for (PaaSNodeTemplate paaSNodeTemplate : deploymentContext.getPaaSTopology().getAllNodes().values()) {
-                processInterfaces(paaSNodeTemplate.getInterfaces());
+                collectInterfacesArtifacts(paaSNodeTemplate.getInterfaces(), artifacts);
                 if (paaSNodeTemplate.getRelationshipTemplates() != null) {
                     for (PaaSRelationshipTemplate relationshipTemplate : paaSNodeTemplate.getRelationshipTemplates()) {
-                        processInterfaces(relationshipTemplate.getInterfaces());
+                        collectInterfacesArtifacts(relationshipTemplate.getInterfaces(), artifacts);
                     }
                 }
             }
@@ -153,11 +210,11 @@ public class ArtifactProcessorService {
         return ArtifactRepositoryConstants.ALIEN_TOPOLOGY_REPOSITORY.equals(artifact.getArtifactRepository());
     }
 
-    private void processDeploymentArtifacts(PaaSTopologyDeploymentContext deploymentContext) {
+    private void processDeploymentArtifacts(PaaSTopologyDeploymentContext deploymentContext, Set<AbstractArtifact> artifacts) {
         if (deploymentContext.getDeploymentTopology().getNodeTemplates() != null) {
             // Artifact which comes from the archive or from internal repository
             getDeploymentArtifactStream(deploymentContext).filter(deploymentArtifact -> !isArtifactFromTopologyEditor(deploymentArtifact))
-                    .forEach(this::processArtifact);
+                    .forEach(artifacts::add);
             // Artifact which does not come from the archive, which comes from topology's edition
             getDeploymentArtifactStream(deploymentContext).filter(this::isArtifactFromTopologyEditor).forEach(deploymentArtifact -> {
                 Path artifactPath = editorRepositoryService.resolveArtifact(deploymentContext.getDeploymentTopology().getInitialTopologyId(),
@@ -167,13 +224,17 @@ public class ArtifactProcessorService {
         }
     }
 
+    /**
+     * Resolve the implementation and deployment artifacts of a deployment. Artifacts are resolved concurrently and remote artifacts may be cached so they
+     * are not downloaded again on the next deployments (see {@link ResolvedArtifactCache}).
+     *
+     * @param deploymentContext The context of the deployment.
+     */
     public void processArtifacts(PaaSTopologyDeploymentContext deploymentContext) {
-        processImplementationArtifacts(deploymentContext);
-        processDeploymentArtifacts(deploymentContext);
-    }
-
-    @Value("${directories.alien}/${directories.upload_temp}")
-    public void setTempDir(String tempDir) throws IOException {
-        this.tempDir = FileUtil.createDirectoryIfNotExists(tempDir);
+        // the same artifact instance may be referenced by several operations
+        Set<AbstractArtifact> artifacts = Collections.newSetFromMap(new IdentityHashMap<>());
+        collectImplementationArtifacts(deploymentContext, artifacts);
+        processDeploymentArtifacts(deploymentContext, artifacts);
+        processArtifacts(deploymentContext.getDeploymentId(), artifacts);
     }
 }
@@ -44,6 +44,8 @@ public class DeploymentService {
     private DeploymentContextService deploymentContextService;
     @Inject
     private DeploymentTopologyService deploymentTopologyService;
+    @Inject
+    private ResolvedArtifactCache resolvedArtifactCache;
 
     /**
      * Get an array of all active deployments.
@@ -256,6 +258,8 @@ public class DeploymentService {
             DeploymentTopology deploymentTopology = alienMonitorDao.findById(DeploymentTopology.class, deployment.getId());
             deploymentTopology.setDeployed(false);
             alienMonitorDao.save(deploymentTopology);
+            // the orchestrator may not have sent any undeployed event
+            resolvedArtifactCache.release(deployment.getId());
         } else {
             log.info("Deployment <" + deployment.getId() + "> is already marked as undeployed.");
         }
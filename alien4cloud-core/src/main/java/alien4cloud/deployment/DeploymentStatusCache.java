@@ -0,0 +1,210 @@
+package alien4cloud.deployment;
+
+import java.util.Date;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.annotation.Resource;
+import javax.inject.Inject;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import com.google.common.base.Throwables;
+import com.google.common.collect.Sets;
+import com.google.common.util.concurrent.SettableFuture;
+
+import alien4cloud.model.deployment.Deployment;
+import alien4cloud.paas.IPaaSCallback;
+import alien4cloud.paas.IPaasEventListener;
+import alien4cloud.paas.IPaasEventService;
+import alien4cloud.paas.model.AbstractMonitorEvent;
+import alien4cloud.paas.model.DeploymentStatus;
+import alien4cloud.paas.model.PaaSDeploymentStatusMonitorEvent;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * In-memory table of the status of the active deployments.
+ *
+ * The table is fed by the deployment status events of the orchestrators and periodically reconciled with the status of every active deployment as reported
+ * by its orchestrator so the status of a deployment can be read without calling the orchestrator. The orchestrator is called (with a timeout) only for a
+ * deployment not known yet.
+ *
+ * The orchestrators are always called from a dedicated bounded pool so neither the request threads nor the monitoring scheduler can be blocked by a slow or
+ * hung orchestrator plugin. Statuses are dated with the local clock when they are received (events) or requested (orchestrator calls).
+ */
+@Slf4j
+@Service
+public class DeploymentStatusCache implements IPaasEventListener<AbstractMonitorEvent> {
+    @Inject
+    private DeploymentRuntimeStateService deploymentRuntimeStateService;
+    @Inject
+    private DeploymentService deploymentService;
+    @Resource
+    private IPaasEventService paasEventService;
+    @Resource(name = "paas-monitor-scheduler")
+    private TaskScheduler scheduler;
+
+    @Value("${deployment.status.reconciliation_interval_ms:30000}")
+    private long reconciliationIntervalMs;
+    @Value("${deployment.status.timeout_ms:5000}")
+    private long statusTimeoutMs;
+    @Value("${deployment.status.request_threads:4}")
+    private int requestThreads;
+    @Value("${deployment.status.request_queue_size:1000}")
+    private int requestQueueSize;
+
+    /** Pool in which the status requests to the orchestrators are sent. */
+    private ExecutorService requestExecutor;
+
+    /** Last known status by deployment id. */
+    private final Map<String, StatusEntry> statuses = new ConcurrentHashMap<>();
+    /** Status requests sent to the orchestrators and not answered yet by deployment id. */
+    private final Map<String, SettableFuture<DeploymentStatus>> pendingRequests = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        requestExecutor = new ThreadPoolExecutor(requestThreads, requestThreads, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(requestQueueSize),
+                new CustomizableThreadFactory("deployment-status-"));
+        paasEventService.addListener(this);
+        scheduler.scheduleWithFixedDelay(this::reconcile, new Date(System.currentTimeMillis() + reconciliationIntervalMs), reconciliationIntervalMs);
+    }
+
+    @PreDestroy
+    public void destroy() {
+        requestExecutor.shutdownNow();
+    }
+
+    /**
+     * Get the status of a deployment from the table, the orchestrator is requested only if the deployment status is not known yet.
+     *
+     * @param deployment The deployment for which to get the status.
+     * @return The status of the deployment, {@link DeploymentStatus#UNKNOWN} if the orchestrator did not answer in time.
+     */
+    public DeploymentStatus getStatus(Deployment deployment) {
+        StatusEntry entry = statuses.get(deployment.getId());
+        if (entry != null) {
+            return entry.status;
+        }
+        SettableFuture<DeploymentStatus> statusFuture = requestStatus(deployment);
+        try {
+            return statusFuture.get(statusTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            // next access will request the orchestrator again
+            pendingRequests.remove(deployment.getId(), statusFuture);
+            log.warn("Orchestrator did not return the status of deployment <{}> within {} ms, status is UNKNOWN.", deployment.getId(), statusTimeoutMs);
+            return DeploymentStatus.UNKNOWN;
+        } catch (ExecutionException e) {
+            throw Throwables.propagate(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw Throwables.propagate(e);
+        }
+    }
+
+    /**
+     * Request the status of a deployment to its orchestrator (in the request pool) and update the table once received.
+     */
+    private SettableFuture<DeploymentStatus> requestStatus(Deployment deployment) {
+        SettableFuture<DeploymentStatus> statusFuture = SettableFuture.create();
+        SettableFuture<DeploymentStatus> pending = pendingRequests.putIfAbsent(deployment.getId(), statusFuture);
+        if (pending != null) {
+            return pending;
+        }
+        long requestDate = System.currentTimeMillis();
+        try {
+            requestExecutor.execute(() -> sendRequest(deployment, requestDate, statusFuture));
+        } catch (RejectedExecutionException e) {
+            // too many requests are waiting for the orchestrators, do not wait for this one
+            pendingRequests.remove(deployment.getId(), statusFuture);
+            log.warn("Too many pending status requests, status of deployment <{}> is UNKNOWN.", deployment.getId());
+            statusFuture.set(DeploymentStatus.UNKNOWN);
+        }
+        return statusFuture;
+    }
+
+    private void sendRequest(Deployment deployment, long requestDate, SettableFuture<DeploymentStatus> statusFuture) {
+        try {
+            deploymentRuntimeStateService.getDeploymentStatus(deployment, new IPaaSCallback<DeploymentStatus>() {
+                @Override
+                public void onSuccess(DeploymentStatus status) {
+                    update(deployment.getId(), status, requestDate);
+                    pendingRequests.remove(deployment.getId(), statusFuture);
+                    statusFuture.set(status);
+                }
+
+                @Override
+                public void onFailure(Throwable throwable) {
+                    pendingRequests.remove(deployment.getId(), statusFuture);
+                    statusFuture.setException(throwable);
+                }
+            });
+        } catch (RuntimeException e) {
+            pendingRequests.remove(deployment.getId(), statusFuture);
+            statusFuture.setException(e);
+        }
+    }
+
+    /**
+     * Remove the status of a deployment from the table so the next access requests it to the orchestrator.
+     *
+     * @param deploymentId The id of the deployment.
+     */
+    public void invalidate(String deploymentId) {
+        statuses.remove(deploymentId);
+    }
+
+    private void update(String deploymentId, DeploymentStatus status, long date) {
+        // do not override a status with an older one (events may be processed while the orchestrator answers a request)
+        statuses.merge(deploymentId, new StatusEntry(status, date), (current, received) -> received.date >= current.date ? received : current);
+    }
+
+    /**
+     * Request the status of all active deployments and remove the deployments that are not active anymore from the table.
+     */
+    private void reconcile() {
+        try {
+            // requests still not answered since the last reconciliation are not waited for anymore
+            pendingRequests.clear();
+            Set<String> activeDeploymentIds = Sets.newHashSet();
+            for (Deployment deployment : deploymentService.getActiveDeployments()) {
+                activeDeploymentIds.add(deployment.getId());
+                requestStatus(deployment);
+            }
+            statuses.keySet().retainAll(activeDeploymentIds);
+        } catch (Exception e) {
+            log.error("Failed to reconcile deployment statuses with the orchestrators.", e);
+        }
+    }
+
+    @Override
+    public void eventHappened(AbstractMonitorEvent event) {
+        // the date of the event is set by the orchestrator clock, use the local clock as for the requests
+        update(event.getDeploymentId(), ((PaaSDeploymentStatusMonitorEvent) event).getDeploymentStatus(), System.currentTimeMillis());
+    }
+
+    @Override
+    public boolean canHandle(AbstractMonitorEvent event) {
+        return event instanceof PaaSDeploymentStatusMonitorEvent && event.getDeploymentId() != null;
+    }
+
+    @AllArgsConstructor
+    private static class StatusEntry {
+        private final DeploymentStatus status;
+        /** Local date at which the status event has been received or at which the status request has been sent. */
+        private final long date;
+    }
+}
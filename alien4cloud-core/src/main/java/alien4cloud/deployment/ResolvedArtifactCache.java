@@ -0,0 +1,278 @@
+package alien4cloud.deployment;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.Resource;
+
+import org.apache.commons.io.FilenameUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.google.common.util.concurrent.Striped;
+
+import alien4cloud.paas.IPaasEventListener;
+import alien4cloud.paas.IPaasEventService;
+import alien4cloud.paas.model.AbstractMonitorEvent;
+import alien4cloud.paas.model.DeploymentStatus;
+import alien4cloud.paas.model.PaaSDeploymentStatusMonitorEvent;
+import alien4cloud.rest.utils.JsonUtil;
+import alien4cloud.utils.FileUtil;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Local cache of the artifacts downloaded from remote repositories at deployment time so they are not downloaded again on every deployment.
+ *
+ * Artifacts are stored in the cache directory under a name prefixed by the digest of the repository, the artifact reference and the credentials used to
+ * get them. The cache is bounded by the size of the stored artifacts, the least recently used artifacts being evicted (and deleted) first, and an artifact
+ * is downloaded again once its time to live is reached.
+ *
+ * Every deployment gets its own hard link (or copy) of the cached artifacts so that evicting an artifact never removes a file still used by a deployment,
+ * the files of a deployment are removed once it is undeployed, has failed or is marked as undeployed.
+ *
+ * The cache is disabled by default, artifacts are then downloaded for every deployment as when there was no cache.
+ */
+@Slf4j
+@Component
+public class ResolvedArtifactCache implements IPaasEventListener<AbstractMonitorEvent> {
+    private static final String DEPLOYMENTS_DIRECTORY = "deployments";
+
+    @Resource
+    private IPaasEventService paasEventService;
+
+    @Value("${deployment.artifacts.cache.max_size_mb:0}")
+    private long maxSizeMb;
+    @Value("${deployment.artifacts.cache.ttl_ms:86400000}")
+    private long ttlMs;
+    @Value("${directories.alien}/${directories.artifact_cache:artifact_cache}")
+    private String cacheDirectory;
+    @Value("${directories.alien}/${directories.upload_temp}")
+    private String tempDirectory;
+
+    private Path cacheDir;
+    /** Directory in which every deployment gets links to the cached artifacts it uses. */
+    private Path deploymentsDir;
+    private Path tempDir;
+    private Cache<String, Path> cache;
+    /** Locks so the same artifact is not downloaded concurrently. */
+    private final Striped<Lock> loadLocks = Striped.lazyWeakLock(64);
+
+    /**
+     * Load an artifact that is not in the cache.
+     */
+    public interface ArtifactLoader {
+        /**
+         * Get an artifact.
+         *
+         * @param cachePath The path of the cache file in which the artifact may be written.
+         * @return The path of the artifact, either the given cache path or the path of the artifact if downloaded somewhere else by the loader.
+         * @throws IOException In case the artifact cannot be downloaded.
+         */
+        Path load(Path cachePath) throws IOException;
+    }
+
+    @PostConstruct
+    public void init() throws IOException {
+        tempDir = FileUtil.createDirectoryIfNotExists(tempDirectory);
+        cacheDir = FileUtil.createDirectoryIfNotExists(cacheDirectory);
+        deploymentsDir = Files.createDirectories(cacheDir.resolve(DEPLOYMENTS_DIRECTORY));
+        // artifacts cached by a previous run are not indexed, just remove them (deployments keep their own links).
+        try (DirectoryStream<Path> cachedFiles = Files.newDirectoryStream(cacheDir)) {
+            for (Path cachedFile : cachedFiles) {
+                if (!cachedFile.equals(deploymentsDir)) {
+                    FileUtil.delete(cachedFile);
+                }
+            }
+        }
+        cache = CacheBuilder.newBuilder().concurrencyLevel(1).maximumWeight(Math.max(0, maxSizeMb) * 1024).weigher((String key, Path path) -> weight(path))
+                .expireAfterWrite(ttlMs, TimeUnit.MILLISECONDS).removalListener(notification -> {
+                    Path path = notification.getValue();
+                    if (path != null) {
+                        try {
+                            Files.deleteIfExists(path);
+                        } catch (IOException e) {
+                            log.warn("Failed to delete evicted artifact " + path, e);
+                        }
+                    }
+                }).build();
+        paasEventService.addListener(this);
+    }
+
+    /**
+     * Get an artifact for a deployment from the cache or load it if it is not cached yet (or if the cached file does not exist anymore).
+     *
+     * @param deploymentId The id of the deployment that uses the artifact.
+     * @param artifactReference reference of the artifact inside the repository
+     * @param repositoryURL the repository's URL
+     * @param repositoryType the type of the repository
+     * @param credentials the credentials to retrieve the artifact
+     * @param loader The loader to get the artifact if not in the cache.
+     * @return The local path of the artifact for the deployment.
+     * @throws IOException In case the artifact cannot be loaded.
+     */
+    public Path get(String deploymentId, String artifactReference, String repositoryURL, String repositoryType, Map<String, Object> credentials,
+            ArtifactLoader loader) throws IOException {
+        String extension = FilenameUtils.getExtension(artifactReference);
+        String suffix = StringUtils.isEmpty(extension) ? null : "." + extension;
+        if (maxSizeMb <= 0) {
+            return load(loader, Files.createTempFile(tempDir, "url-artifact", suffix));
+        }
+        String key = digest(artifactReference, repositoryURL, repositoryType, credentials);
+        Path deploymentPath = deploymentsDir.resolve(deploymentId).resolve(suffix == null ? key : key + suffix);
+        Path cached = cache.getIfPresent(key);
+        if (cached != null && link(cached, deploymentPath)) {
+            return deploymentPath;
+        }
+        Lock lock = loadLocks.get(key);
+        lock.lock();
+        try {
+            // the artifact may have been loaded while waiting for the lock
+            cached = cache.getIfPresent(key);
+            if (cached != null && link(cached, deploymentPath)) {
+                return deploymentPath;
+            }
+            // every load gets its own file so that the deletion of an evicted entry never removes the file of a newer entry with the same key
+            Path cachePath = Files.createTempFile(cacheDir, key + "-", suffix);
+            Path artifactPath = load(loader, cachePath);
+            if (!artifactPath.equals(cachePath)) {
+                if (!Files.isRegularFile(artifactPath)) {
+                    // not a file (directory managed by the resolver), cannot be cached
+                    Files.deleteIfExists(cachePath);
+                    return artifactPath;
+                }
+                // keep a copy of the artifact as the file resolved by the loader may be removed
+                Files.copy(artifactPath, cachePath, StandardCopyOption.REPLACE_EXISTING);
+            }
+            // the deployment gets its link before the file can be evicted
+            if (!link(cachePath, deploymentPath)) {
+                throw new NoSuchFileException(cachePath.toString());
+            }
+            if (weight(cachePath) > maxSizeMb * 1024) {
+                // the entry would be evicted as soon as added
+                Files.delete(cachePath);
+            } else {
+                cache.put(key, cachePath);
+            }
+            return deploymentPath;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Path load(ArtifactLoader loader, Path cachePath) throws IOException {
+        try {
+            Path artifactPath = loader.load(cachePath);
+            if (!artifactPath.equals(cachePath)) {
+                Files.deleteIfExists(cachePath);
+            }
+            return artifactPath;
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(cachePath);
+            throw e;
+        }
+    }
+
+    /**
+     * Give a deployment its own link to a cached artifact, replacing the file of a previous version of the artifact the deployment may have.
+     *
+     * @return false if the cached artifact does not exist anymore.
+     */
+    private boolean link(Path cachedPath, Path deploymentPath) throws IOException {
+        Files.createDirectories(deploymentPath.getParent());
+        try {
+            if (Files.exists(deploymentPath) && Files.isSameFile(cachedPath, deploymentPath)) {
+                // same artifact referenced several times in the deployment
+                return true;
+            }
+            // the link is created aside and moved so that the deployment never gets a partially copied artifact
+            Path linkPath = deploymentPath.resolveSibling(deploymentPath.getFileName() + "-" + UUID.randomUUID());
+            try {
+                try {
+                    Files.createLink(linkPath, cachedPath);
+                } catch (UnsupportedOperationException e) {
+                    Files.copy(cachedPath, linkPath);
+                }
+                Files.move(linkPath, deploymentPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(linkPath);
+            }
+            return true;
+        } catch (NoSuchFileException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Remove the artifacts of a deployment.
+     *
+     * @param deploymentId The id of the deployment.
+     */
+    public void release(String deploymentId) {
+        if (deploymentsDir == null || deploymentId == null) {
+            return;
+        }
+        try {
+            FileUtil.delete(deploymentsDir.resolve(deploymentId));
+        } catch (IOException e) {
+            log.warn("Failed to delete the artifacts of deployment " + deploymentId, e);
+        }
+    }
+
+    @Override
+    public void eventHappened(AbstractMonitorEvent event) {
+        release(event.getDeploymentId());
+    }
+
+    @Override
+    public boolean canHandle(AbstractMonitorEvent event) {
+        if (event instanceof PaaSDeploymentStatusMonitorEvent) {
+            DeploymentStatus status = ((PaaSDeploymentStatusMonitorEvent) event).getDeploymentStatus();
+            // a failed deployment gets its artifacts again when deployed or updated
+            return DeploymentStatus.UNDEPLOYED.equals(status) || DeploymentStatus.FAILURE.equals(status);
+        }
+        return false;
+    }
+
+    private int weight(Path path) {
+        try {
+            if (Files.isRegularFile(path)) {
+                return (int) Math.min(Integer.MAX_VALUE, Files.size(path) / 1024 + 1);
+            }
+        } catch (IOException e) {
+            log.debug("Unable to get the size of artifact " + path, e);
+        }
+        return 1;
+    }
+
+    private String digest(String artifactReference, String repositoryURL, String repositoryType, Map<String, Object> credentials) {
+        Hasher hasher = Hashing.sha256().newHasher();
+        for (String value : new String[] { repositoryType, repositoryURL, artifactReference }) {
+            hasher.putString(String.valueOf(value), StandardCharsets.UTF_8).putByte((byte) 0);
+        }
+        if (credentials != null) {
+            try {
+                hasher.putString(JsonUtil.toString(new TreeMap<>(credentials)), StandardCharsets.UTF_8);
+            } catch (JsonProcessingException e) {
+                hasher.putString(credentials.toString(), StandardCharsets.UTF_8);
+            }
+        }
+        return hasher.hash().toString();
+    }
+}
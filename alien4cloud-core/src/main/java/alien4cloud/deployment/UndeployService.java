@@ -27,6 +27,8 @@ public class UndeployService {
     private DeploymentRuntimeStateService deploymentRuntimeStateService;
     @Inject
     private DeploymentLockService deploymentLockService;
+    @Inject
+    private DeploymentStatusCache deploymentStatusCache;
 
     /**
      * Un-deploy a deployment object
@@ -63,6 +65,8 @@ public class UndeployService {
             IOrchestratorPlugin orchestratorPlugin = orchestratorPluginService.getOrFail(deployment.getOrchestratorId());
             DeploymentTopology deployedTopology = deploymentRuntimeStateService.getRuntimeTopology(deployment.getId());
             PaaSDeploymentContext deploymentContext = new PaaSDeploymentContext(deployment, deployedTopology);
+            // the status of the deployment is about to change
+            deploymentStatusCache.invalidate(deployment.getId());
             orchestratorPlugin.undeploy(deploymentContext, new IPaaSCallback<ResponseEntity>() {
                 @Override
                 public void onSuccess(ResponseEntity data) {
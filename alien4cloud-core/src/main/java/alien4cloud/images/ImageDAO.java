@@ -23,6 +23,7 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import alien4cloud.dao.ESGenericIdDAO;
+import alien4cloud.dao.WritePolicy;
 import alien4cloud.exception.IndexingServiceException;
 import alien4cloud.exception.NotFoundException;
 import alien4cloud.images.exception.ImageUploadException;
@@ -58,6 +59,8 @@ public class ImageDAO extends ESGenericIdDAO implements IImageDAO {
         }
         // init indexes and mapped classes
         initIndices(ImageData.class.getSimpleName().toLowerCase(), null, ImageData.class);
+        // images are only read by id (realtime) so there is no need to refresh the index on every write.
+        setWritePolicy(ImageData.class, WritePolicy.NEXT_REFRESH);
         initCompleted();
     }
 
@@ -0,0 +1,21 @@
+package alien4cloud.orchestrators.plugin;
+
+import alien4cloud.paas.IPaaSEventSink;
+
+/**
+ * Implemented by the orchestrator plugins that push their monitoring events to alien rather than letting alien poll them (using
+ * {@link alien4cloud.paas.IPaaSProvider#getEventsSince}). Alien does not poll the orchestrators that implement this interface.
+ */
+public interface IOrchestratorEventPublisher {
+    /**
+     * Start to publish the events of the orchestrator, called once the orchestrator is connected.
+     *
+     * @param sink The sink to which to publish the events.
+     */
+    void startPublishing(IPaaSEventSink sink);
+
+    /**
+     * Stop to publish events, called when the orchestrator is disabled. Events must not be published to the sink anymore once this method returns.
+     */
+    void stopPublishing();
+}
@@ -0,0 +1,18 @@
+package alien4cloud.paas;
+
+import alien4cloud.paas.model.AbstractMonitorEvent;
+
+/**
+ * Receive the monitoring events pushed by an orchestrator plugin.
+ */
+public interface IPaaSEventSink {
+    /**
+     * Publish an event. The events of a deployment must be published in the order they occurred.
+     *
+     * This method blocks when alien cannot keep up with the events of the orchestrator until there is room for the event.
+     *
+     * @param event The event to publish.
+     * @throws InterruptedException If the thread is interrupted while waiting for room for the event.
+     */
+    void publish(AbstractMonitorEvent event) throws InterruptedException;
+}
@@ -1,23 +1,25 @@
 package alien4cloud.paas;
 
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.annotation.Resource;
 import javax.inject.Inject;
 
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.stereotype.Component;
 
 import com.google.common.collect.Maps;
 
 import alien4cloud.dao.IGenericSearchDAO;
 import alien4cloud.exception.AlreadyExistException;
+import alien4cloud.orchestrators.plugin.IOrchestratorEventPublisher;
 import alien4cloud.orchestrators.plugin.IOrchestratorPlugin;
 import alien4cloud.paas.exception.OrchestratorDisabledException;
 import lombok.AllArgsConstructor;
@@ -38,13 +40,19 @@ public class OrchestratorPluginService implements IPaasEventService {
     /** Interval in milliseconds on which to retrieve monitoring events from a PaaS provider. */
     @Value("${paas_monitor.monitor_interval_ms}")
     private long monitorIntervalMs = 1000 * 30;
+    /** Maximum number of events pushed by an orchestrator waiting to be saved. */
+    @Value("${paas_monitor.push.buffer_capacity:10000}")
+    private int pushBufferCapacity;
+    /** Maximum number of events pushed by an orchestrator saved in a single request. */
+    @Value("${paas_monitor.push.batch_size:500}")
+    private int pushBatchSize;
     @Inject
     private DeploymentStatusEventHandler deploymentStatusEventHandler;
+    @Inject
+    private PaaSEventDispatcher paaSEventDispatcher;
 
     private Map<String, Registration> monitorRegistrations = Maps.newHashMap();
-
-    @SuppressWarnings("rawtypes")
-    private List<IPaasEventListener> listeners = Collections.synchronizedList(new ArrayList<IPaasEventListener>());
+    private ExecutorService ingestionExecutor;
 
     public OrchestratorPluginService() {
         log.info("Create new PaaSProvider instance.");
@@ -52,18 +60,26 @@ public class OrchestratorPluginService implements IPaasEventService {
 
     @Override
     public void addListener(IPaasEventListener<?> listener) {
-        listeners.add(listener);
+        paaSEventDispatcher.addListener(listener);
     }
 
     @PostConstruct
     public void init() {
-        // Deployment status event handler should be the first handler has quite important.
-        listeners.add(0, deploymentStatusEventHandler);
+        // Deployment status event handler marks deployments as undeployed, it must process the events before the other listeners.
+        paaSEventDispatcher.addSynchronousListener(deploymentStatusEventHandler);
+        ingestionExecutor = Executors.newCachedThreadPool(new CustomizableThreadFactory("paas-event-ingestion-"));
+    }
+
+    @PreDestroy
+    public void destroy() {
+        ingestionExecutor.shutdownNow();
     }
 
     /**
      * Register an {@link IOrchestratorPlugin} for a given cloud.
      *
+     * The events of the orchestrator are polled unless the plugin publishes them (see {@link IOrchestratorEventPublisher}).
+     *
      * @param orchestratorId Id of the cloud.
      * @param instance Instance of the IOrchestratorPlugin for the given cloud.
      */
@@ -72,10 +88,19 @@ public class OrchestratorPluginService implements IPaasEventService {
         if (monitorRegistrations.containsKey(orchestratorId)) {
             throw new AlreadyExistException("Cloud [" + orchestratorId + "] has already been registered");
         }
-        // create the polling monitor responsible to monitor this instance.
-        PaaSProviderPollingMonitor monitor = new PaaSProviderPollingMonitor(alienDao, alienMonitorDao, instance, listeners, orchestratorId);
-        ScheduledFuture<?> monitorFuture = scheduler.scheduleAtFixedRate(monitor, monitorIntervalMs);
-        Registration registration = new Registration(instance, monitorFuture);
+        Registration registration;
+        if (instance instanceof IOrchestratorEventPublisher) {
+            // the orchestrator pushes its events, just ingest them.
+            PaaSEventIngestionBuffer ingestionBuffer = new PaaSEventIngestionBuffer(alienMonitorDao, paaSEventDispatcher, orchestratorId, pushBufferCapacity,
+                    pushBatchSize);
+            Future<?> ingestionFuture = ingestionExecutor.submit(ingestionBuffer);
+            ((IOrchestratorEventPublisher) instance).startPublishing(ingestionBuffer);
+            registration = new Registration(instance, ingestionFuture, ingestionBuffer);
+        } else {
+            // create the polling monitor responsible to monitor this instance.
+            PaaSProviderPollingMonitor monitor = new PaaSProviderPollingMonitor(alienDao, alienMonitorDao, instance, paaSEventDispatcher, orchestratorId);
+            registration = new Registration(instance, scheduler.scheduleAtFixedRate(monitor, monitorIntervalMs), null);
+        }
         monitorRegistrations.put(orchestratorId, registration);
     }
 
@@ -88,6 +113,11 @@ public class OrchestratorPluginService implements IPaasEventService {
         log.info("Unregister provider with id {}", orchestratorId);
         Registration registration = monitorRegistrations.remove(orchestratorId);
         if (registration != null) {
+            if (registration.ingestionBuffer != null) {
+                ((IOrchestratorEventPublisher) registration.instance).stopPublishing();
+                // events already published are still ingested before the ingestion thread ends.
+                registration.ingestionBuffer.close();
+            }
             registration.registration.cancel(false);
             return registration.instance;
         } else {
@@ -126,6 +156,8 @@ public class OrchestratorPluginService implements IPaasEventService {
     @AllArgsConstructor(suppressConstructorProperties = true)
     private class Registration {
         private IOrchestratorPlugin instance;
-        private ScheduledFuture<?> registration;
+        private Future<?> registration;
+        /** Buffer of the events pushed by the orchestrator, null if the events are polled. */
+        private PaaSEventIngestionBuffer ingestionBuffer;
     }
 }
@@ -0,0 +1,245 @@
+package alien4cloud.paas;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.PreDestroy;
+
+import org.springframework.aop.framework.Advised;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.endpoint.PublicMetrics;
+import org.springframework.boot.actuate.metrics.Metric;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.ApplicationContextAware;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+
+import com.google.common.collect.Lists;
+
+import alien4cloud.paas.model.AbstractMonitorEvent;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Dispatch the monitoring events of the orchestrators to the registered {@link IPaasEventListener}s.
+ *
+ * Every listener has its own bounded queues and threads so a slow listener does not delay the other listeners nor the polling of the orchestrators. Events
+ * of a deployment are always processed by the same thread of a listener so a listener receives the events of a deployment in order. When the queue of a
+ * listener is full the polling thread waits for the listener to catch up. The wait is not bounded so that no event is lost: as polling threads are taken from
+ * the shared paas-monitor-scheduler pool, a listener that stops processing its events eventually stops the monitoring of the orchestrators.
+ *
+ * Synchronous listeners (see {@link #addSynchronousListener(IPaasEventListener)}) are called by the dispatching thread, in registration order, before the
+ * event is queued for the other listeners.
+ */
+@Slf4j
+@Component
+@SuppressWarnings({ "rawtypes", "unchecked" })
+public class PaaSEventDispatcher implements PublicMetrics, ApplicationContextAware {
+    private static final int MAX_LISTENER_RETRY = 3;
+    private static final long LISTENER_FAIL_RETRY_SLEEP_MS = 10;
+
+    @Value("${paas_monitor.dispatch.queue_capacity:10000}")
+    private int queueCapacity;
+    @Value("${paas_monitor.dispatch.threads_per_listener:2}")
+    private int threadsPerListener;
+
+    private ApplicationContext applicationContext;
+    private final List<ListenerStats> synchronousListeners = new CopyOnWriteArrayList<>();
+    private final List<ListenerPipeline> pipelines = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void setApplicationContext(ApplicationContext applicationContext) {
+        this.applicationContext = applicationContext;
+    }
+
+    /**
+     * Register a listener to which to dispatch events asynchronously.
+     *
+     * @param listener The listener to register.
+     */
+    public void addListener(IPaasEventListener<?> listener) {
+        pipelines.add(new ListenerPipeline(listener));
+    }
+
+    /**
+     * Register a listener called by the dispatching thread before the event is queued for the asynchronous listeners.
+     *
+     * @param listener The listener to register.
+     */
+    public void addSynchronousListener(IPaasEventListener<?> listener) {
+        synchronousListeners.add(new ListenerStats(listener));
+    }
+
+    /**
+     * Call the synchronous listeners and queue the event for every other listener that can handle it.
+     *
+     * @param event The event to dispatch.
+     */
+    public void dispatch(AbstractMonitorEvent event) {
+        for (ListenerStats synchronousListener : synchronousListeners) {
+            if (synchronousListener.listener.canHandle(event)) {
+                synchronousListener.dispatch(event);
+            }
+        }
+        for (ListenerPipeline pipeline : pipelines) {
+            if (pipeline.listener.canHandle(event)) {
+                pipeline.submit(event);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void destroy() {
+        for (ListenerPipeline pipeline : pipelines) {
+            for (ThreadPoolExecutor lane : pipeline.lanes) {
+                lane.shutdownNow();
+            }
+        }
+    }
+
+    @Override
+    public Collection<Metric<?>> metrics() {
+        List<Metric<?>> metrics = Lists.newArrayList();
+        for (ListenerStats synchronousListener : synchronousListeners) {
+            String prefix = "paas.events." + synchronousListener.getName() + ".";
+            metrics.add(new Metric<Long>(prefix + "processed", synchronousListener.processed.get()));
+            metrics.add(new Metric<Long>(prefix + "failed", synchronousListener.failed.get()));
+        }
+        for (ListenerPipeline pipeline : pipelines) {
+            String prefix = "paas.events." + pipeline.getName() + ".";
+            metrics.add(new Metric<Long>(prefix + "queued", pipeline.queued.get()));
+            metrics.add(new Metric<Long>(prefix + "lag", pipeline.lastLagMs));
+            metrics.add(new Metric<Long>(prefix + "processed", pipeline.processed.get()));
+            metrics.add(new Metric<Long>(prefix + "failed", pipeline.failed.get()));
+        }
+        return metrics;
+    }
+
+    /**
+     * Get the name of the bean of a listener, or a name unique to the listener instance if the listener is not a bean.
+     */
+    private String getListenerName(IPaasEventListener listener) {
+        if (applicationContext != null) {
+            for (Map.Entry<String, IPaasEventListener> entry : applicationContext.getBeansOfType(IPaasEventListener.class, false, false).entrySet()) {
+                if (isSameInstance(entry.getValue(), listener)) {
+                    return entry.getKey();
+                }
+            }
+        }
+        return ClassUtils.getUserClass(listener).getName() + "@" + Integer.toHexString(System.identityHashCode(listener));
+    }
+
+    private boolean isSameInstance(Object bean, IPaasEventListener listener) {
+        if (bean == listener) {
+            return true;
+        }
+        if (bean instanceof Advised) {
+            // listeners register themselves (the target) while the context holds the proxy
+            try {
+                return ((Advised) bean).getTargetSource().getTarget() == listener;
+            } catch (Exception e) {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Call a listener and keep its statistics.
+     */
+    private class ListenerStats {
+        protected final IPaasEventListener listener;
+        private volatile String name;
+
+        protected final AtomicLong processed = new AtomicLong();
+        protected final AtomicLong failed = new AtomicLong();
+
+        private ListenerStats(IPaasEventListener listener) {
+            this.listener = listener;
+        }
+
+        /** Name of the listener in metrics, resolved once the listener beans are all created. */
+        protected String getName() {
+            if (name == null) {
+                name = getListenerName(listener);
+            }
+            return name;
+        }
+
+        protected void dispatch(AbstractMonitorEvent event) {
+            for (int retry = 0; retry <= MAX_LISTENER_RETRY; retry++) {
+                try {
+                    listener.eventHappened(event);
+                    processed.incrementAndGet();
+                    return;
+                } catch (Exception e) {
+                    log.error("Failed to dispatch event {} to listener {} retry {} on {}.", event.toString(), listener.toString(), retry, MAX_LISTENER_RETRY,
+                            e);
+                }
+                if (retry < MAX_LISTENER_RETRY) {
+                    try {
+                        Thread.sleep(LISTENER_FAIL_RETRY_SLEEP_MS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        break;
+                    }
+                }
+            }
+            failed.incrementAndGet();
+        }
+    }
+
+    /**
+     * The queues and threads of a listener.
+     */
+    private class ListenerPipeline extends ListenerStats {
+        private final ThreadPoolExecutor[] lanes;
+
+        private final AtomicLong queued = new AtomicLong();
+        /** Time in milliseconds the last processed event waited in the queue. */
+        private volatile long lastLagMs;
+
+        private ListenerPipeline(IPaasEventListener listener) {
+            super(listener);
+            Class<?> listenerClass = ClassUtils.getUserClass(listener);
+            // anonymous listeners have no simple name
+            String name = listenerClass.getSimpleName().isEmpty() ? listenerClass.getName() : listenerClass.getSimpleName();
+            this.lanes = new ThreadPoolExecutor[threadsPerListener];
+            int laneCapacity = Math.max(1, queueCapacity / threadsPerListener);
+            for (int i = 0; i < threadsPerListener; i++) {
+                lanes[i] = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(laneCapacity),
+                        new CustomizableThreadFactory("paas-events-" + name + "-" + i + "-"), (task, executor) -> {
+                            // back-pressure: the dispatching (polling) thread waits for the listener to catch up rather than dropping events
+                            try {
+                                if (!executor.isShutdown()) {
+                                    executor.getQueue().put(task);
+                                }
+                            } catch (InterruptedException e) {
+                                Thread.currentThread().interrupt();
+                                throw new RejectedExecutionException("Interrupted while queuing event for listener " + name, e);
+                            }
+                        });
+            }
+        }
+
+        private void submit(AbstractMonitorEvent event) {
+            // events of the same deployment always go to the same lane to preserve their order
+            String deploymentId = event.getDeploymentId();
+            int lane = deploymentId == null ? 0 : (deploymentId.hashCode() & Integer.MAX_VALUE) % lanes.length;
+            long queueDate = System.currentTimeMillis();
+            queued.incrementAndGet();
+            lanes[lane].execute(() -> {
+                queued.decrementAndGet();
+                lastLagMs = System.currentTimeMillis() - queueDate;
+                dispatch(event);
+            });
+        }
+    }
+}
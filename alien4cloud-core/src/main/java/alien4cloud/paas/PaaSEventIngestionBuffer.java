@@ -0,0 +1,135 @@
+package alien4cloud.paas;
+
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.google.common.collect.Lists;
+
+import alien4cloud.dao.IGenericSearchDAO;
+import alien4cloud.dao.WritePolicy;
+import alien4cloud.paas.model.AbstractMonitorEvent;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Bounded buffer for the events pushed by an orchestrator (see {@link alien4cloud.orchestrators.plugin.IOrchestratorEventPublisher}).
+ *
+ * Events are drained by batches, saved with a single bulk request and then dispatched to the listeners. The orchestrator waits when the buffer is full.
+ * A batch that cannot be saved is retried a few times and then dispatched anyway so that the listeners do not miss the events.
+ */
+@Slf4j
+public class PaaSEventIngestionBuffer implements IPaaSEventSink, Runnable {
+    /** Time to wait for an event before checking if the buffer has been closed. */
+    private static final long POLL_TIMEOUT_MS = 500;
+    /** Number of attempts to save a batch of events. */
+    private static final int SAVE_ATTEMPTS = 3;
+    /** Delay before retrying to save a batch, multiplied by the number of failed attempts. */
+    private static final long SAVE_RETRY_DELAY_MS = 1000;
+
+    private final IGenericSearchDAO monitorDAO;
+    private final PaaSEventDispatcher eventDispatcher;
+    private final String orchestratorId;
+    private final int batchSize;
+    private final BlockingQueue<AbstractMonitorEvent> queue;
+    private volatile boolean closed = false;
+    /** Number of threads currently publishing, the buffer is drained until no thread may still add an event. */
+    private final AtomicInteger publishing = new AtomicInteger();
+
+    /**
+     * Create a new buffer for the events of an orchestrator.
+     *
+     * @param monitorDAO The dao in which to save the events.
+     * @param eventDispatcher The dispatcher to which to send the events once saved.
+     * @param orchestratorId The id of the orchestrator that publishes the events.
+     * @param capacity The maximum number of events waiting to be saved.
+     * @param batchSize The maximum number of events to save in a single request.
+     */
+    public PaaSEventIngestionBuffer(IGenericSearchDAO monitorDAO, PaaSEventDispatcher eventDispatcher, String orchestratorId, int capacity, int batchSize) {
+        this.monitorDAO = monitorDAO;
+        this.eventDispatcher = eventDispatcher;
+        this.orchestratorId = orchestratorId;
+        this.batchSize = Math.max(1, batchSize);
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, capacity));
+    }
+
+    @Override
+    public void publish(AbstractMonitorEvent event) throws InterruptedException {
+        // register as publishing before checking closed so that the ingestion thread cannot end before the event is in the queue.
+        publishing.incrementAndGet();
+        try {
+            if (closed) {
+                throw new IllegalStateException("Events of orchestrator <" + orchestratorId + "> are not ingested anymore.");
+            }
+            queue.put(event);
+        } finally {
+            publishing.decrementAndGet();
+        }
+    }
+
+    /**
+     * Stop to ingest events, the events already published are still saved and dispatched.
+     */
+    public void close() {
+        closed = true;
+    }
+
+    @Override
+    public void run() {
+        List<AbstractMonitorEvent> batch = Lists.newArrayListWithCapacity(batchSize);
+        while (!closed || publishing.get() > 0 || !queue.isEmpty()) {
+            try {
+                AbstractMonitorEvent event = queue.poll(POLL_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+                if (event == null) {
+                    continue;
+                }
+                batch.add(event);
+                // take what is already there, batches grow with the load while a single event is ingested right away.
+                queue.drainTo(batch, batchSize - 1);
+                ingest(batch.toArray(new AbstractMonitorEvent[batch.size()]));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                log.warn("Ingestion of the events of orchestrator <{}> interrupted, {} events are not ingested.", orchestratorId, queue.size());
+                return;
+            } catch (Exception e) {
+                log.error("Failed to ingest events of orchestrator <" + orchestratorId + ">", e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void ingest(AbstractMonitorEvent[] events) throws InterruptedException {
+        if (log.isDebugEnabled()) {
+            log.debug("Saving {} events for orchestrator {}", events.length, orchestratorId);
+        }
+        for (AbstractMonitorEvent event : events) {
+            // Enrich event with cloud id before saving them
+            event.setOrchestratorId(orchestratorId);
+            if (event.getDate() <= 0) {
+                event.setDate(System.currentTimeMillis());
+            }
+        }
+        save(events);
+        for (AbstractMonitorEvent event : events) {
+            eventDispatcher.dispatch(event);
+        }
+    }
+
+    private void save(AbstractMonitorEvent[] events) throws InterruptedException {
+        for (int attempt = 1;; attempt++) {
+            try {
+                monitorDAO.save(events, WritePolicy.NEXT_REFRESH);
+                return;
+            } catch (RuntimeException e) {
+                if (attempt >= SAVE_ATTEMPTS) {
+                    log.error("Failed to save " + events.length + " events of orchestrator <" + orchestratorId + ">, dispatching them anyway.", e);
+                    return;
+                }
+                log.warn("Failed to save {} events of orchestrator <{}>, retrying: {}", events.length, orchestratorId, e.getMessage());
+                Thread.sleep(SAVE_RETRY_DELAY_MS * attempt);
+            }
+        }
+    }
+}
@@ -1,7 +1,6 @@
 package alien4cloud.paas;
 
 import java.util.Date;
-import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -11,13 +10,13 @@ import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
 
 import alien4cloud.dao.IGenericSearchDAO;
+import alien4cloud.dao.WritePolicy;
 import alien4cloud.dao.model.GetMultipleDataResult;
 import alien4cloud.model.deployment.Deployment;
 import alien4cloud.paas.model.AbstractMonitorEvent;
 import alien4cloud.paas.model.PaaSDeploymentStatusMonitorEvent;
 import alien4cloud.utils.MapUtil;
 import alien4cloud.utils.TypeScanner;
-import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
 
 /**
@@ -27,15 +26,12 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class PaaSProviderPollingMonitor implements Runnable {
     private static final int MAX_POLLED_EVENTS = 500;
-    private static final int MAX_LISTENER_RETRY = 3;
-    private static final long LISTENER_FAIL_RETRY_SLEEP_MS = 10;
 
     private final IGenericSearchDAO dao;
     private final IGenericSearchDAO monitorDAO;
     private final IPaaSProvider paaSProvider;
     private Date lastPollingDate;
-    @SuppressWarnings("rawtypes")
-    private List<IPaasEventListener> listeners;
+    private PaaSEventDispatcher eventDispatcher;
     private PaaSEventsCallback paaSEventsCallback;
     private String orchestratorId;
     private boolean hasDeployments = false;
@@ -46,14 +42,13 @@ public class PaaSProviderPollingMonitor implements Runnable {
      *
      * @param paaSProvider The paas provider to monitor.
      */
-    @SuppressWarnings("rawtypes")
-    public PaaSProviderPollingMonitor(IGenericSearchDAO dao, IGenericSearchDAO monitorDAO, IPaaSProvider paaSProvider, List<IPaasEventListener> listeners,
+    public PaaSProviderPollingMonitor(IGenericSearchDAO dao, IGenericSearchDAO monitorDAO, IPaaSProvider paaSProvider, PaaSEventDispatcher eventDispatcher,
             String orchestratorId) {
         this.orchestratorId = orchestratorId;
         this.dao = dao;
         this.monitorDAO = monitorDAO;
         this.paaSProvider = paaSProvider;
-        this.listeners = listeners;
+        this.eventDispatcher = eventDispatcher;
         Set<Class<?>> eventClasses = Sets.newHashSet();
         try {
             eventClasses = TypeScanner.scanTypes("alien4cloud.paas.model", AbstractMonitorEvent.class);
@@ -91,40 +86,48 @@ public class PaaSProviderPollingMonitor implements Runnable {
     private class PaaSEventsCallback implements IPaaSCallback<AbstractMonitorEvent[]> {
         @Override
         public void onSuccess(AbstractMonitorEvent[] auditEvents) {
-            synchronized (PaaSProviderPollingMonitor.this) {
-                if (log.isDebugEnabled()) {
-                    log.debug("Polled from date {}", lastPollingDate);
-                }
-                if (log.isDebugEnabled() && auditEvents != null && auditEvents.length > 0) {
-                    log.debug("Saving {} events for orchestrator {}", auditEvents.length, orchestratorId);
-                    for (AbstractMonitorEvent event : auditEvents) {
-                        log.debug(event.toString());
+            try {
+                synchronized (PaaSProviderPollingMonitor.this) {
+                    if (log.isDebugEnabled()) {
+                        log.debug("Polled from date {}", lastPollingDate);
                     }
-                }
-                if (auditEvents != null && auditEvents.length > 0) {
-                    Date lastEventDate = lastPollingDate;
-                    for (AbstractMonitorEvent event : auditEvents) {
-                        // Enrich event with cloud id before saving them
-                        event.setOrchestratorId(orchestratorId);
-                        // If not set initialize a date for event or update the last event date (last polling)
-                        if (event.getDate() > 0) {
-                            Date eventDate = new Date(event.getDate());
-                            lastEventDate = eventDate.after(lastEventDate) ? eventDate : lastEventDate;
-                        } else {
-                            event.setDate(System.currentTimeMillis());
+                    if (log.isDebugEnabled() && auditEvents != null && auditEvents.length > 0) {
+                        log.debug("Saving {} events for orchestrator {}", auditEvents.length, orchestratorId);
+                        for (AbstractMonitorEvent event : auditEvents) {
+                            log.debug(event.toString());
                         }
-
-                        // dispatch the event to all listeners
-                        for (IPaasEventListener listener : listeners) {
-                            dispatchEvent(listener, event);
+                    }
+                    if (auditEvents != null && auditEvents.length > 0) {
+                        Date lastEventDate = lastPollingDate;
+                        for (AbstractMonitorEvent event : auditEvents) {
+                            // Enrich event with cloud id before saving them
+                            event.setOrchestratorId(orchestratorId);
+                            // If not set initialize a date for event or update the last event date (last polling)
+                            if (event.getDate() > 0) {
+                                Date eventDate = new Date(event.getDate());
+                                lastEventDate = eventDate.after(lastEventDate) ? eventDate : lastEventDate;
+                            } else {
+                                event.setDate(System.currentTimeMillis());
+                            }
+                        }
+                        // events are not searched right after being saved, do not force a refresh for every poll
+                        monitorDAO.save(auditEvents, WritePolicy.NEXT_REFRESH);
+                        if (lastEventDate != null) {
+                            lastPollingDate = lastEventDate;
                         }
                     }
-                    monitorDAO.save(auditEvents);
-                    if (lastEventDate != null) {
-                        lastPollingDate = lastEventDate;
+                }
+                // dispatch the events out of the monitor lock, listeners process them asynchronously.
+                if (auditEvents != null) {
+                    for (AbstractMonitorEvent event : auditEvents) {
+                        eventDispatcher.dispatch(event);
                     }
                 }
-                getEventsInProgress = false;
+            } finally {
+                // next poll must not start before all the events of this one are dispatched so the events order is kept.
+                synchronized (PaaSProviderPollingMonitor.this) {
+                    getEventsInProgress = false;
+                }
             }
         }
 
@@ -140,39 +143,6 @@ public class PaaSProviderPollingMonitor implements Runnable {
         }
     }
 
-    /**
-     * Dispatch an event to the registered listener.
-     *
-     * @param listener The listener to which to send the event.
-     * @param event The event to dispatch.
-     */
-    private void dispatchEvent(IPaasEventListener listener, AbstractMonitorEvent event) {
-        dispatchEvent(listener, event, 0);
-    }
-
-    /**
-     * Dispatch an event to the registered listener.
-     * 
-     * @param listener The listener to which to send the event.
-     * @param event The event to dispatch.
-     * @param retry The current retry index (0 for first dispatch)
-     */
-    @SneakyThrows
-    private void dispatchEvent(IPaasEventListener listener, AbstractMonitorEvent event, int retry) {
-        try {
-            if (listener.canHandle(event)) {
-                listener.eventHappened(event);
-            }
-        } catch (Exception e) {
-            log.error("Failed to dispatch event {} to listener {} retry {} on {}.", event.toString(), listener.toString(), retry, MAX_LISTENER_RETRY, e);
-            // Even if that fails
-            if (retry < MAX_LISTENER_RETRY) {
-                Thread.sleep(LISTENER_FAIL_RETRY_SLEEP_MS);
-                dispatchEvent(listener, event, retry + 1);
-            }
-        }
-    }
-
     @Override
     public synchronized void run() {
         if (log.isTraceEnabled()) {
@@ -7,6 +7,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 import javax.annotation.Resource;
 
@@ -94,6 +95,7 @@ public class TopologyTreeBuilderService {
 
         // Fill in PaaSNodeTemplate by fetching node types and CSAR path from the repositories.
         if (topology.getNodeTemplates() != null) {
+            preloadTypes(topology, cache);
             for (Entry<String, NodeTemplate> templateEntry : topology.getNodeTemplates().entrySet()) {
                 NodeTemplate template = templateEntry.getValue();
 
@@ -146,6 +148,8 @@ public class TopologyTreeBuilderService {
         Map<String, NodeTemplate> nonNativesNode = new HashMap<>();
 
         if (topology.getNodeTemplates() != null) {
+            preloadTypes(NodeType.class, topology.getNodeTemplates().values().stream().map(NodeTemplate::getType).collect(Collectors.toSet()), cache,
+                    topology.getDependencies());
             for (Entry<String, NodeTemplate> templateEntry : topology.getNodeTemplates().entrySet()) {
                 NodeTemplate template = templateEntry.getValue();
                 NodeType indexedToscaElement = getToscaType(template.getType(), cache, topology.getDependencies(), NodeType.class);
@@ -324,6 +328,45 @@ public class TopologyTreeBuilderService {
         return relationships;
     }
 
+    /**
+     * Resolve all the node and relationship types (and their parent types) of the topology with a single request per type level rather than one per
+     * template.
+     *
+     * @param topology The topology for which to load types.
+     * @param typeMap The type map in which to register the loaded types.
+     */
+    private void preloadTypes(Topology topology, TypeMap typeMap) {
+        Set<String> nodeTypes = Sets.newHashSet();
+        Set<String> relationshipTypes = Sets.newHashSet();
+        for (NodeTemplate template : topology.getNodeTemplates().values()) {
+            nodeTypes.add(template.getType());
+            for (RelationshipTemplate relationshipTemplate : AlienUtils.safe(template.getRelationships()).values()) {
+                relationshipTypes.add(relationshipTemplate.getType());
+            }
+        }
+        preloadTypes(NodeType.class, nodeTypes, typeMap, topology.getDependencies());
+        preloadTypes(RelationshipType.class, relationshipTypes, typeMap, topology.getDependencies());
+    }
+
+    private <V extends AbstractInheritableToscaType> void preloadTypes(Class<V> clazz, Set<String> types, TypeMap typeMap, Set<CSARDependency> dependencies) {
+        Set<String> missingTypes = Sets.newHashSet();
+        for (String type : types) {
+            if (typeMap.get(clazz, type) == null) {
+                missingTypes.add(type);
+            }
+        }
+        if (missingTypes.isEmpty()) {
+            return;
+        }
+        Set<String> derivedFromTypes = Sets.newHashSet();
+        for (Entry<String, V> typeEntry : toscaTypeSearchService.getElementsInDependencies(clazz, missingTypes, dependencies).entrySet()) {
+            typeMap.put(typeEntry.getKey(), typeEntry.getValue());
+            derivedFromTypes.addAll(AlienUtils.safe(typeEntry.getValue().getDerivedFrom()));
+        }
+        // missing types will be reported when filling the templates.
+        preloadTypes(clazz, derivedFromTypes, typeMap, dependencies);
+    }
+
     public <V extends AbstractInheritableToscaType> V getToscaType(String type, TypeMap typeMap, Set<CSARDependency> dependencies, Class<V> clazz) {
         V indexedToscaElement = typeMap.get(clazz, type);
         if (indexedToscaElement == null) {
@@ -11,11 +11,19 @@ import java.nio.file.Path;
 import java.nio.file.SimpleFileVisitor;
 import java.nio.file.attribute.BasicFileAttributes;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import javax.annotation.PostConstruct;
 import javax.annotation.Resource;
@@ -25,8 +33,11 @@ import org.apache.commons.collections4.MapUtils;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.beans.factory.config.ConstructorArgumentValues;
 import org.springframework.beans.factory.support.GenericBeanDefinition;
+import org.springframework.boot.actuate.endpoint.PublicMetrics;
+import org.springframework.boot.actuate.metrics.Metric;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.stereotype.Component;
 
 import com.google.common.collect.Lists;
@@ -60,7 +71,7 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 @Component("plugin-manager")
 @SuppressWarnings({ "rawtypes", "unchecked" })
-public class PluginManager {
+public class PluginManager implements PublicMetrics {
     private static final String UNKNOWN_PLUGIN_COMPONENT_TYPE = "Unknown component type";
     private static final String LIB_DIRECTORY = "lib";
     private static final String UI_DIRECTORY = "ui";
@@ -77,7 +88,12 @@ public class PluginManager {
     private IGenericSearchDAO alienDAO;
     @Resource
     private ApplicationContext alienContext;
-    private Map<String, ManagedPlugin> pluginContexts = Maps.newHashMap();
+    @Value("${plugins.loading.parallelism:4}")
+    private int loadingParallelism;
+    private Map<String, ManagedPlugin> pluginContexts = Maps.newConcurrentMap();
+    /** Time spent in the different steps of the loading of every loaded plugin. */
+    private Map<String, PluginLoadingTimes> loadingTimes = Maps.newConcurrentMap();
+    private volatile long totalLoadingTime;
 
     private List<PluginLinker> linkers = Lists.newArrayList();
 
@@ -127,36 +143,55 @@ public class PluginManager {
     }
 
     /**
-     * Load all the plugins that have their dependencies fulfilled by loaded plugin.
+     * Load plugins as a dependency graph: the spring contexts of the plugins whose dependencies are loaded are created concurrently while the linking of the
+     * plugins in alien (that is not thread safe) is performed by the calling thread, in dependency order.
      *
      * @param plugins the plugins to load.
      */
     private void loadPlugins(Plugin[] plugins) {
-        List<Plugin> missingDependencyPlugins = Lists.newArrayList();
+        long start = System.currentTimeMillis();
+        Map<String, Plugin> pendingPlugins = Maps.newLinkedHashMap();
         for (Plugin plugin : plugins) {
-            // if the plugin has no unresolved dependency, load it
-            if (getMissingDependencies(plugin).size() == 0) {
+            pendingPlugins.put(plugin.getId(), plugin);
+        }
+        ClassLoader parentClassLoader = Thread.currentThread().getContextClassLoader();
+        ExecutorService executor = Executors.newFixedThreadPool(loadingParallelism, new CustomizableThreadFactory("plugin-loader-"));
+        CompletionService<ManagedPlugin> completionService = new ExecutorCompletionService<>(executor);
+        Map<Future<ManagedPlugin>, Plugin> runningPlugins = Maps.newHashMap();
+        try {
+            while (true) {
+                // start the creation of the contexts of all plugins that have their dependencies loaded
+                for (Iterator<Plugin> pluginIterator = pendingPlugins.values().iterator(); pluginIterator.hasNext();) {
+                    Plugin plugin = pluginIterator.next();
+                    if (getMissingDependencies(plugin).isEmpty()) {
+                        pluginIterator.remove();
+                        runningPlugins.put(completionService.submit(() -> createPluginContext(plugin, parentClassLoader)), plugin);
+                    }
+                }
+                if (runningPlugins.isEmpty()) {
+                    break;
+                }
+                Future<ManagedPlugin> loaded = completionService.take();
+                Plugin plugin = runningPlugins.remove(loaded);
                 try {
-                    loadPlugin(plugin);
-                } catch (PluginLoadingException e) {
-                    log.error("Alien server Initialization: failed to load plugin <" + plugin.getId() + ">", e);
+                    linkPlugin(loaded.get());
+                } catch (ExecutionException | PluginLoadingException e) {
+                    log.error("Alien server Initialization: failed to load plugin <" + plugin.getId() + ">", e instanceof ExecutionException ? e.getCause() : e);
                     disablePlugin(plugin.getId());
                 }
-            } else {
-                missingDependencyPlugins.add(plugin);
             }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.error("Alien server Initialization: interrupted while loading plugins", e);
+        } finally {
+            executor.shutdownNow();
         }
-        if (missingDependencyPlugins.size() == plugins.length) {
-            // No plugins have been loaded meaning that remaining plugins are not loadable because some dependencies are missing
-            for (Plugin plugin : plugins) {
-                log.error("Failed to load plugin <" + plugin.getId() + "> as some dependencies are missing <" + getMissingDependencies(plugin) + ">");
-                disablePlugin(plugin.getId());
-            }
-        } else {
-            if (missingDependencyPlugins.size() > 0) {
-                loadPlugins(missingDependencyPlugins.toArray(new Plugin[missingDependencyPlugins.size()]));
-            }
+        // No plugins can be loaded anymore meaning that remaining plugins are not loadable because some dependencies are missing
+        for (Plugin plugin : pendingPlugins.values()) {
+            log.error("Failed to load plugin <" + plugin.getId() + "> as some dependencies are missing <" + getMissingDependencies(plugin) + ">");
+            disablePlugin(plugin.getId());
         }
+        totalLoadingTime = System.currentTimeMillis() - start;
     }
 
     private Set<String> getMissingDependencies(Plugin plugin) {
@@ -262,6 +297,7 @@ public class PluginManager {
             disablePlugin(pluginId);
         }
         pluginContexts.remove(pluginId);
+        loadingTimes.remove(pluginId);
     }
 
     private void removePlugin(String pluginId, boolean deleteConfig) {
@@ -338,13 +374,17 @@ public class PluginManager {
     }
 
     private void loadPlugin(Plugin plugin) throws PluginLoadingException {
+        linkPlugin(createPluginContext(plugin, Thread.currentThread().getContextClassLoader()));
+    }
+
+    private ManagedPlugin createPluginContext(Plugin plugin, ClassLoader parentClassLoader) throws PluginLoadingException {
         if (pluginContexts.containsKey(plugin.getId())) {
             log.debug("Do not load plugin {} as it is already loaded.", plugin.getId());
         }
         try {
             Path pluginPath = getPluginPath(plugin.getPluginPathId());
             Path pluginUiPath = getPluginUiPath(plugin.getPluginPathId());
-            loadPlugin(plugin, pluginPath, pluginUiPath);
+            return createPluginContext(plugin, pluginPath, pluginUiPath, parentClassLoader);
         } catch (Exception e) {
             log.error("Failed to load plugin <" + plugin.getId() + "> alien will ignore this plugin.", e);
             throw new PluginLoadingException("Failed to load plugin <" + plugin.getId() + ">", e);
@@ -377,15 +417,19 @@ public class PluginManager {
     }
 
     /**
-     * Actually load and link a plugin in Alien 4 Cloud.
+     * Create and refresh the spring context of a plugin. This can be done concurrently for plugins that don't depend on each other.
      *
-     * @param plugin The plugin the load and link.
+     * @param plugin The plugin the load.
      * @param pluginPath The path to the directory that contains the un-zipped plugin.
      * @param pluginUiPath The path in which the ui files are located.
+     * @param parentClassLoader The class loader to use as parent of the plugin class loader.
+     * @return The managed plugin, not linked yet.
      * @throws IOException In case there is an IO issue with the file.
      * @throws ClassNotFoundException If we cannot load the class
      */
-    private void loadPlugin(Plugin plugin, Path pluginPath, Path pluginUiPath) throws IOException, ClassNotFoundException {
+    private ManagedPlugin createPluginContext(Plugin plugin, Path pluginPath, Path pluginUiPath, ClassLoader parentClassLoader)
+            throws IOException, ClassNotFoundException {
+        long start = System.currentTimeMillis();
         // create a class loader to manage this plugin.
         final List<URL> classPathUrls = Lists.newArrayList();
         pluginPath = pluginPath.toRealPath();
@@ -401,8 +445,7 @@ public class PluginManager {
                 }
             });
         }
-        ClassLoader pluginClassLoader = new PluginClassloader(classPathUrls.toArray(new URL[classPathUrls.size()]),
-                Thread.currentThread().getContextClassLoader());
+        ClassLoader pluginClassLoader = new PluginClassloader(classPathUrls.toArray(new URL[classPathUrls.size()]), parentClassLoader);
 
         // load a spring context for the plugin that will be a child of the current spring context
         AnnotationConfigApplicationContext pluginContext = new AnnotationConfigApplicationContext();
@@ -428,22 +471,49 @@ public class PluginManager {
         constructorArgumentValues.addIndexedArgumentValue(3, pluginUiPath);
         beanDefinition.setConstructorArgumentValues(constructorArgumentValues);
         pluginContext.registerBeanDefinition("alien-plugin-context", beanDefinition);
+        PluginLoadingTimes times = new PluginLoadingTimes();
+        times.classpath = System.currentTimeMillis() - start;
+
         // Use plugin classloader as context classloader as some codes still use this
+        start = System.currentTimeMillis();
         ClassLoaderUtil.runWithContextClassLoader(pluginClassLoader, () -> {
             pluginContext.refresh();
             pluginContext.start();
         });
-        ManagedPlugin managedPlugin = (ManagedPlugin) pluginContext.getBean("alien-plugin-context");
+        times.refresh = System.currentTimeMillis() - start;
+        loadingTimes.put(plugin.getId(), times);
+        return (ManagedPlugin) pluginContext.getBean("alien-plugin-context");
+    }
 
-        Map<String, PluginComponentDescriptor> componentDescriptors = getPluginComponentDescriptorAsMap(plugin);
+    /**
+     * Link a plugin which context has been created in Alien 4 Cloud. Linking is not thread safe and must be done in the plugins dependency order.
+     *
+     * @param managedPlugin The plugin to link.
+     * @throws PluginLoadingException In case the linking of the plugin fails.
+     */
+    private void linkPlugin(ManagedPlugin managedPlugin) throws PluginLoadingException {
+        Plugin plugin = managedPlugin.getPlugin();
+        long start = System.currentTimeMillis();
+        try {
+            Map<String, PluginComponentDescriptor> componentDescriptors = getPluginComponentDescriptorAsMap(plugin);
 
-        // expose plugin elements so they are available to plugins that depends from them.
-        expose(managedPlugin, componentDescriptors);
-        // register plugin elements in Alien
-        link(plugin, managedPlugin, componentDescriptors);
+            // expose plugin elements so they are available to plugins that depends from them.
+            expose(managedPlugin, componentDescriptors);
+            // register plugin elements in Alien
+            link(plugin, managedPlugin, componentDescriptors);
+        } catch (Exception e) {
+            log.error("Failed to link plugin <" + plugin.getId() + "> alien will ignore this plugin.", e);
+            loadingTimes.remove(plugin.getId());
+            throw new PluginLoadingException("Failed to load plugin <" + plugin.getId() + ">", e);
+        }
 
         // install static resources to be available for the application.
         pluginContexts.put(plugin.getId(), managedPlugin);
+        PluginLoadingTimes times = loadingTimes.get(plugin.getId());
+        if (times != null) {
+            times.link = System.currentTimeMillis() - start;
+            log.info("Plugin <{}> loaded: classpath {} ms, context refresh {} ms, link {} ms", plugin.getId(), times.classpath, times.refresh, times.link);
+        }
     }
 
     private void registerDependencies(Plugin plugin, AnnotationConfigApplicationContext pluginContext) {
@@ -605,6 +675,31 @@ public class PluginManager {
         return pluginComponents;
     }
 
+    @Override
+    public Collection<Metric<?>> metrics() {
+        List<Metric<?>> metrics = Lists.newArrayList();
+        metrics.add(new Metric<Long>("plugins.load.total", totalLoadingTime));
+        for (Entry<String, PluginLoadingTimes> timesEntry : loadingTimes.entrySet()) {
+            String prefix = "plugins." + timesEntry.getKey() + ".load.";
+            metrics.add(new Metric<Long>(prefix + "classpath", timesEntry.getValue().classpath));
+            metrics.add(new Metric<Long>(prefix + "refresh", timesEntry.getValue().refresh));
+            metrics.add(new Metric<Long>(prefix + "link", timesEntry.getValue().link));
+        }
+        return metrics;
+    }
+
+    /**
+     * Time (in milliseconds) spent in the different steps of the loading of a plugin.
+     */
+    private static final class PluginLoadingTimes {
+        /** Time to build the plugin class loader and register the plugin configuration. */
+        private long classpath;
+        /** Time to refresh and start the plugin spring context (including the classpath scanning of the configuration). */
+        private long refresh;
+        /** Time to expose and link the plugin beans in alien. */
+        private long link;
+    }
+
     @AllArgsConstructor(suppressConstructorProperties = true)
     private final class PluginLinker<T> {
         private IPluginLinker<T> linker;
@@ -0,0 +1,52 @@
+package alien4cloud.topology;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.alien4cloud.tosca.editor.operations.AbstractEditorOperation;
+import org.alien4cloud.tosca.model.templates.NodeTemplate;
+import org.alien4cloud.tosca.model.types.CapabilityType;
+import org.alien4cloud.tosca.model.types.DataType;
+import org.alien4cloud.tosca.model.types.NodeType;
+import org.alien4cloud.tosca.model.types.RelationshipType;
+
+import alien4cloud.paas.wf.Workflow;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Changes of a topology under edition since the last operation known by the client. When the changes cannot be computed (unknown operation or changes
+ * outside of node templates and workflows) the full topology dto is provided and the client must replace its state.
+ *
+ * Returned by the execute/delta endpoint of the editor controller to api clients, the editor ui works with the full {@link TopologyDTO}.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+public class TopologyDeltaDTO {
+    /** True if the client must replace its state with the provided topology dto. */
+    private boolean fullResync;
+    /** The full topology dto, only set when fullResync is true. */
+    private TopologyDTO topologyDTO;
+    /** The id of the operation from which the changes are computed. */
+    private String fromOperationId;
+    /** The index of the last operation applied, operations of the client after this index have been undone. */
+    private int lastOperationIndex;
+    /** Operations applied after the client's last known operation (up to the last operation index), the full list is in the topology dto on resync. */
+    private List<AbstractEditorOperation> operations;
+    /** Node templates added or updated since the client's last known operation. */
+    private Map<String, NodeTemplate> nodeTemplates;
+    /** Names of the node templates removed since the client's last known operation. */
+    private Set<String> removedNodeTemplates;
+    /** Workflows added or updated since the client's last known operation. */
+    private Map<String, Workflow> workflows;
+    /** Names of the workflows removed since the client's last known operation. */
+    private Set<String> removedWorkflows;
+    /** Types used by the added or updated node templates. */
+    private Map<String, NodeType> nodeTypes;
+    private Map<String, RelationshipType> relationshipTypes;
+    private Map<String, CapabilityType> capabilityTypes;
+    private Map<String, DataType> dataTypes;
+}
@@ -4,6 +4,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 import javax.annotation.Resource;
 
@@ -12,6 +13,7 @@ import org.alien4cloud.tosca.model.templates.Capability;
 import org.alien4cloud.tosca.model.templates.NodeTemplate;
 import org.alien4cloud.tosca.model.templates.RelationshipTemplate;
 import org.alien4cloud.tosca.model.templates.Topology;
+import org.alien4cloud.tosca.model.types.AbstractToscaType;
 import org.alien4cloud.tosca.model.types.CapabilityType;
 import org.alien4cloud.tosca.model.types.NodeType;
 import org.alien4cloud.tosca.model.types.RelationshipType;
@@ -27,6 +29,8 @@ import alien4cloud.tosca.context.ToscaContextual;
 import alien4cloud.tosca.topology.NodeTemplateBuilder;
 import lombok.extern.slf4j.Slf4j;
 
+import static alien4cloud.utils.AlienUtils.safe;
+
 @Service
 @Slf4j
 public class TopologyServiceCore {
@@ -76,11 +80,11 @@ public class TopologyServiceCore {
         if (nodeTemplates == null) {
             return nodeTypes;
         }
+        Map<String, NodeType> loadedNodeTypes = getElementsInDependencies(NodeType.class,
+                nodeTemplates.values().stream().map(NodeTemplate::getType).collect(Collectors.toSet()), dependencies, failOnTypeNotFound);
         for (Map.Entry<String, NodeTemplate> template : nodeTemplates.entrySet()) {
             if (!nodeTypes.containsKey(template.getValue().getType())) {
-                NodeType nodeType = failOnTypeNotFound
-                        ? csarRepoSearchService.getRequiredElementInDependencies(NodeType.class, template.getValue().getType(), dependencies)
-                        : csarRepoSearchService.getElementInDependencies(NodeType.class, template.getValue().getType(), dependencies);
+                NodeType nodeType = loadedNodeTypes.get(template.getValue().getType());
                 if (!abstractOnly || nodeType.isAbstract()) {
                     String key = useTemplateNameAsKey ? template.getKey() : template.getValue().getType();
                     nodeTypes.put(key, nodeType);
@@ -102,21 +106,12 @@ public class TopologyServiceCore {
         if (topology.getNodeTemplates() == null) {
             return relationshipTypes;
         }
-        for (Map.Entry<String, NodeTemplate> templateEntry : topology.getNodeTemplates().entrySet()) {
-            NodeTemplate template = templateEntry.getValue();
-            if (template.getRelationships() != null) {
-                for (Map.Entry<String, RelationshipTemplate> relationshipEntry : template.getRelationships().entrySet()) {
-                    RelationshipTemplate relationship = relationshipEntry.getValue();
-                    if (!relationshipTypes.containsKey(relationship.getType())) {
-                        RelationshipType relationshipType = failOnTypeNotFound
-                                ? csarRepoSearchService.getRequiredElementInDependencies(RelationshipType.class, relationship.getType(),
-                                        topology.getDependencies())
-                                : csarRepoSearchService.getElementInDependencies(RelationshipType.class, relationship.getType(),
-                                        topology.getDependencies());
-                        relationshipTypes.put(relationship.getType(), relationshipType);
-                    }
-                }
-            }
+        Set<String> relationshipTypeIds = topology.getNodeTemplates().values().stream()
+                .flatMap(template -> safe(template.getRelationships()).values().stream()).map(RelationshipTemplate::getType).collect(Collectors.toSet());
+        Map<String, RelationshipType> loadedRelationshipTypes = getElementsInDependencies(RelationshipType.class, relationshipTypeIds,
+                topology.getDependencies(), failOnTypeNotFound);
+        for (String relationshipTypeId : relationshipTypeIds) {
+            relationshipTypes.put(relationshipTypeId, loadedRelationshipTypes.get(relationshipTypeId));
         }
         return relationshipTypes;
     }
@@ -128,24 +123,35 @@ public class TopologyServiceCore {
      * @return the map containing rel
      */
     public Map<String, CapabilityType> getIndexedCapabilityTypesFromTopology(Topology topology) {
-        Map<String, CapabilityType> capabilityTypes = Maps.newHashMap();
         if (topology.getNodeTemplates() == null) {
-            return capabilityTypes;
+            return Maps.newHashMap();
         }
-        for (Map.Entry<String, NodeTemplate> templateEntry : topology.getNodeTemplates().entrySet()) {
-            NodeTemplate template = templateEntry.getValue();
-            if (template.getCapabilities() != null) {
-                for (Map.Entry<String, Capability> capabilityEntry : template.getCapabilities().entrySet()) {
-                    Capability capability = capabilityEntry.getValue();
-                    if (!capabilityTypes.containsKey(capability.getType())) {
-                        CapabilityType capabilityType = csarRepoSearchService.getRequiredElementInDependencies(CapabilityType.class,
-                                capability.getType(), topology.getDependencies());
-                        capabilityTypes.put(capability.getType(), capabilityType);
-                    }
+        Set<String> capabilityTypeIds = topology.getNodeTemplates().values().stream()
+                .flatMap(template -> safe(template.getCapabilities()).values().stream()).map(Capability::getType).collect(Collectors.toSet());
+        return getElementsInDependencies(CapabilityType.class, capabilityTypeIds, topology.getDependencies(), true);
+    }
+
+    /**
+     * Load a batch of types from the dependencies using a single request.
+     *
+     * @param elementClass The class of the types to load.
+     * @param elementIds The ids of the types to load.
+     * @param dependencies The dependencies in which to look for the types.
+     * @param failOnTypeNotFound If true a {@link NotFoundException} is thrown when one of the types cannot be found.
+     * @return A map of the types by id.
+     */
+    private <T extends AbstractToscaType> Map<String, T> getElementsInDependencies(Class<T> elementClass, Set<String> elementIds,
+            Set<CSARDependency> dependencies, boolean failOnTypeNotFound) {
+        Map<String, T> elements = csarRepoSearchService.getElementsInDependencies(elementClass, elementIds, dependencies);
+        if (failOnTypeNotFound) {
+            for (String elementId : elementIds) {
+                if (!elements.containsKey(elementId)) {
+                    throw new NotFoundException("Element elementId: <" + elementId + "> of type <" + elementClass.getSimpleName()
+                            + "> cannot be found in dependencies " + dependencies);
                 }
             }
         }
-        return capabilityTypes;
+        return elements;
     }
 
     /**
@@ -0,0 +1,89 @@
+package alien4cloud.topology;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import org.alien4cloud.tosca.editor.TopologyDigest;
+
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+
+import alien4cloud.topology.task.AbstractTask;
+import alien4cloud.topology.task.WorkflowTask;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Validation tasks of a topology by node template and workflow, used to re-validate only the elements that changed since the last validation.
+ *
+ * The tasks of a node template are invalidated when the node template or one of the node templates it depends on (the targets of its relationships) changes.
+ * The tasks of a workflow are invalidated when the workflow changes or when node templates are added or removed. All tasks are invalidated when any other
+ * element of the topology (dependencies, inputs etc.) changes.
+ */
+@Slf4j
+@Getter
+public class TopologyValidationCache {
+    /** Digest of the topology at the time of the last validation. */
+    private TopologyDigest digest;
+    /** Validation tasks by node template name. */
+    private final Map<String, NodeValidation> nodeValidations = Maps.newHashMap();
+    /** Validation tasks by workflow name. */
+    private final Map<String, List<WorkflowTask>> workflowTasks = Maps.newHashMap();
+
+    /**
+     * Remove the tasks of the node templates and workflows that changed between the last validated topology and the given digest.
+     *
+     * @param newDigest The digest of the topology to validate.
+     */
+    public void invalidate(TopologyDigest newDigest) {
+        if (digest == null || !digest.getOthers().equals(newDigest.getOthers())) {
+            nodeValidations.clear();
+            workflowTasks.clear();
+        } else {
+            Set<String> changedNodes = getChangedKeys(digest.getNodeTemplates(), newDigest.getNodeTemplates());
+            nodeValidations.entrySet().removeIf(
+                    entry -> changedNodes.contains(entry.getKey()) || !Sets.intersection(entry.getValue().getDependencies(), changedNodes).isEmpty());
+            if (!digest.getNodeTemplates().keySet().equals(newDigest.getNodeTemplates().keySet())) {
+                workflowTasks.clear();
+            } else {
+                workflowTasks.keySet().removeAll(getChangedKeys(digest.getWorkflows(), newDigest.getWorkflows()));
+            }
+            log.debug("Re-validating {} node templates changed since last validation", changedNodes.size());
+        }
+        digest = newDigest;
+    }
+
+    private Set<String> getChangedKeys(Map<String, ?> from, Map<String, ?> to) {
+        Set<String> changed = Sets.newHashSet();
+        for (String key : Sets.union(from.keySet(), to.keySet())) {
+            if (!Objects.equals(from.get(key), to.get(key))) {
+                changed.add(key);
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * The steps of the validation of a node template, in the order in which tasks are reported.
+     */
+    public enum NodeValidationStep {
+        ABSTRACT_RELATIONSHIPS, REQUIREMENTS_LOWER_BOUNDS, NODE_FILTERS, ARTIFACTS, PROPERTIES
+    }
+
+    /**
+     * Validation tasks of a single node template.
+     */
+    @Getter
+    public static class NodeValidation {
+        /** Names of the other node templates used to validate this node template. */
+        private final Set<String> dependencies;
+        private final Map<NodeValidationStep, List<AbstractTask>> tasks = new EnumMap<>(NodeValidationStep.class);
+
+        public NodeValidation(Set<String> dependencies) {
+            this.dependencies = dependencies;
+        }
+    }
+}
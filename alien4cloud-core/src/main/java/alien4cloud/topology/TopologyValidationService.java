@@ -1,15 +1,30 @@
 package alien4cloud.topology;
 
+import static alien4cloud.utils.AlienUtils.safe;
+
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 import javax.annotation.Resource;
 
-import alien4cloud.tosca.context.ToscaContextual;
+import org.alien4cloud.tosca.editor.TopologyDigest;
+import org.alien4cloud.tosca.model.templates.NodeTemplate;
+import org.alien4cloud.tosca.model.templates.RelationshipTemplate;
+import org.alien4cloud.tosca.model.templates.Topology;
 import org.apache.commons.collections4.CollectionUtils;
 import org.springframework.stereotype.Service;
 
-import org.alien4cloud.tosca.model.templates.Topology;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+
+import alien4cloud.paas.wf.Workflow;
 import alien4cloud.paas.wf.WorkflowsBuilderService;
+import alien4cloud.topology.TopologyValidationCache.NodeValidation;
+import alien4cloud.topology.TopologyValidationCache.NodeValidationStep;
 import alien4cloud.topology.task.AbstractRelationshipTask;
 import alien4cloud.topology.task.AbstractTask;
 import alien4cloud.topology.task.ArtifactTask;
@@ -19,12 +34,14 @@ import alien4cloud.topology.task.PropertiesTask;
 import alien4cloud.topology.task.RequirementsTask;
 import alien4cloud.topology.task.SuggestionsTask;
 import alien4cloud.topology.task.TaskLevel;
+import alien4cloud.topology.task.TopologyTask;
 import alien4cloud.topology.task.WorkflowTask;
 import alien4cloud.topology.validation.NodeFilterValidationService;
 import alien4cloud.topology.validation.TopologyAbstractRelationshipValidationService;
 import alien4cloud.topology.validation.TopologyArtifactsValidationService;
 import alien4cloud.topology.validation.TopologyPropertiesValidationService;
 import alien4cloud.topology.validation.TopologyRequirementBoundsValidationServices;
+import alien4cloud.tosca.context.ToscaContextual;
 import lombok.extern.slf4j.Slf4j;
 
 @Service
@@ -52,6 +69,24 @@ public class TopologyValidationService {
      */
     @ToscaContextual
     public TopologyValidationResult validateTopology(Topology topology) {
+        return validateTopology(topology, new TopologyValidationCache());
+    }
+
+    /**
+     * Validate a topology, re-validating only the node templates and workflows that changed since the last validation recorded in the given cache. This is
+     * used by the editor to make the validation cost proportional to the changes of the topology.
+     *
+     * @param topology topology to be validated
+     * @param cache The tasks of the last validation of the topology, updated with the results of this validation.
+     * @param digest The digest of the topology to validate.
+     * @return the validation result
+     */
+    public TopologyValidationResult validateTopology(Topology topology, TopologyValidationCache cache, TopologyDigest digest) {
+        cache.invalidate(digest);
+        return validateTopology(topology, cache);
+    }
+
+    private TopologyValidationResult validateTopology(Topology topology, TopologyValidationCache cache) {
         TopologyValidationResult dto = new TopologyValidationResult();
         if (topology.getNodeTemplates() == null || topology.getNodeTemplates().size() < 1) {
             dto.setValid(false);
@@ -59,10 +94,77 @@ public class TopologyValidationService {
         }
 
         // validate the workflows
-        dto.addTasks(workflowBuilderService.validateWorkflows(topology));
+        validateWorkflows(topology, cache);
+        for (String workflowName : safe(topology.getWorkflows()).keySet()) {
+            dto.addTasks(cache.getWorkflowTasks().get(workflowName));
+        }
+
+        validateNodeTemplates(topology, cache);
+        List<PropertiesTask> validateProperties = Lists.newArrayList();
+        for (NodeValidationStep step : NodeValidationStep.values()) {
+            for (String nodeName : topology.getNodeTemplates().keySet()) {
+                List<AbstractTask> tasks = cache.getNodeValidations().get(nodeName).getTasks().get(step);
+                if (step == NodeValidationStep.PROPERTIES) {
+                    tasks.forEach(task -> validateProperties.add((PropertiesTask) task));
+                } else {
+                    dto.addTasks(tasks);
+                }
+            }
+        }
+
+        // List<PropertiesTask> validateProperties = null;
+        if (hasOnlyPropertiesWarnings(validateProperties)) {
+            dto.addWarnings(validateProperties);
+        } else {
+            dto.addTasks(validateProperties);
+        }
+
+        dto.setValid(isValidTaskList(dto.getTaskList()));
+
+        return dto;
+    }
+
+    private void validateWorkflows(Topology topology, TopologyValidationCache cache) {
+        List<Workflow> workflows = safe(topology.getWorkflows()).values().stream().filter(workflow -> !cache.getWorkflowTasks().containsKey(workflow.getName()))
+                .collect(Collectors.toList());
+        if (workflows.isEmpty()) {
+            return;
+        }
+        workflows.forEach(workflow -> cache.getWorkflowTasks().put(workflow.getName(), Lists.newArrayList()));
+        for (WorkflowTask task : workflowBuilderService.validateWorkflows(topology, workflows)) {
+            cache.getWorkflowTasks().get(task.getWorkflowName()).add(task);
+        }
+    }
+
+    /**
+     * Validate the node templates that have no validation tasks in the cache. Validations are performed on a topology that contains only these node
+     * templates (and the targets of their relationships for node filters validation).
+     */
+    private void validateNodeTemplates(Topology topology, TopologyValidationCache cache) {
+        Map<String, NodeValidation> nodeValidations = Maps.newLinkedHashMap();
+        Set<String> targets = Sets.newHashSet();
+        for (Map.Entry<String, NodeTemplate> nodeTemplateEntry : topology.getNodeTemplates().entrySet()) {
+            if (cache.getNodeValidations().containsKey(nodeTemplateEntry.getKey())) {
+                continue;
+            }
+            Set<String> nodeTargets = safe(nodeTemplateEntry.getValue().getRelationships()).values().stream().map(RelationshipTemplate::getTarget)
+                    .collect(Collectors.toSet());
+            NodeValidation nodeValidation = new NodeValidation(nodeTargets);
+            for (NodeValidationStep step : NodeValidationStep.values()) {
+                nodeValidation.getTasks().put(step, Lists.newArrayList());
+            }
+            nodeValidations.put(nodeTemplateEntry.getKey(), nodeValidation);
+            targets.addAll(nodeTargets);
+        }
+        if (nodeValidations.isEmpty()) {
+            return;
+        }
+        log.debug("Validating {} of {} node templates", nodeValidations.size(), topology.getNodeTemplates().size());
+        Topology nodesTopology = getSubTopology(topology, nodeValidations.keySet());
 
         // validate abstract relationships
-        dto.addTasks(topologyAbstractRelationshipValidationService.validateAbstractRelationships(topology));
+        addNodeTasks(nodeValidations, NodeValidationStep.ABSTRACT_RELATIONSHIPS,
+                topologyAbstractRelationshipValidationService.validateAbstractRelationships(nodesTopology));
 
         // validate abstract node types and find suggestions
         // in this step, this is a warning, since they can be replaced by nodes comming from the location
@@ -70,27 +172,61 @@ public class TopologyValidationService {
         // dto.addToWarningList(topologyAbstractNodeValidationService.findReplacementForAbstracts(topology));
 
         // validate requirements lowerBounds
-        dto.addTasks(topologyRequirementBoundsValidationServices.validateRequirementsLowerBounds(topology));
+        addNodeTasks(nodeValidations, NodeValidationStep.REQUIREMENTS_LOWER_BOUNDS,
+                topologyRequirementBoundsValidationServices.validateRequirementsLowerBounds(nodesTopology));
 
         // validate the node filters for all relationships
-        dto.addTasks(nodeFilterValidationService.validateStaticRequirementFilters(topology));
+        Topology filtersTopology = getSubTopology(topology, nodeValidations.keySet());
+        for (String target : Sets.difference(targets, nodeValidations.keySet())) {
+            filtersTopology.getNodeTemplates().put(target, getFilterTargetView(topology.getNodeTemplates().get(target)));
+        }
+        addNodeTasks(nodeValidations, NodeValidationStep.NODE_FILTERS, nodeFilterValidationService.validateStaticRequirementFilters(filtersTopology));
 
-        // validate that all artifacts has been filled
-        dto.addTasks(topologyArtifactsValidationService.validate(topology));
+        // validate that all artifacts has been filled (relationship artifact tasks are named after the relationship so validate node by node)
+        for (Map.Entry<String, NodeValidation> nodeValidationEntry : nodeValidations.entrySet()) {
+            nodeValidationEntry.getValue().getTasks().get(NodeValidationStep.ARTIFACTS)
+                    .addAll(topologyArtifactsValidationService.validate(getSubTopology(topology, Collections.singleton(nodeValidationEntry.getKey()))));
+        }
 
         // validate required properties (properties of NodeTemplate, Relationship and Capability)
-        List<PropertiesTask> validateProperties = topologyPropertiesValidationService.validateStaticProperties(topology);
+        addNodeTasks(nodeValidations, NodeValidationStep.PROPERTIES, topologyPropertiesValidationService.validateStaticProperties(nodesTopology));
 
-        // List<PropertiesTask> validateProperties = null;
-        if (hasOnlyPropertiesWarnings(validateProperties)) {
-            dto.addWarnings(validateProperties);
-        } else {
-            dto.addTasks(validateProperties);
+        cache.getNodeValidations().putAll(nodeValidations);
+    }
+
+    private void addNodeTasks(Map<String, NodeValidation> nodeValidations, NodeValidationStep step, List<? extends TopologyTask> tasks) {
+        for (TopologyTask task : safe(tasks)) {
+            NodeValidation nodeValidation = nodeValidations.get(task.getNodeTemplateName());
+            // node filters are validated on a topology that also contains the targets of the relationships
+            if (nodeValidation != null) {
+                nodeValidation.getTasks().get(step).add(task);
+            }
         }
+    }
 
-        dto.setValid(isValidTaskList(dto.getTaskList()));
+    /**
+     * Copy of a target node template with only the elements checked by the node filters, so that the relationships of the target are not validated.
+     */
+    private NodeTemplate getFilterTargetView(NodeTemplate nodeTemplate) {
+        NodeTemplate target = new NodeTemplate();
+        target.setName(nodeTemplate.getName());
+        target.setType(nodeTemplate.getType());
+        target.setProperties(nodeTemplate.getProperties());
+        target.setCapabilities(nodeTemplate.getCapabilities());
+        return target;
+    }
 
-        return dto;
+    private Topology getSubTopology(Topology topology, Set<String> nodeNames) {
+        Map<String, NodeTemplate> nodeTemplates = Maps.newLinkedHashMap();
+        for (Map.Entry<String, NodeTemplate> nodeTemplateEntry : topology.getNodeTemplates().entrySet()) {
+            if (nodeNames.contains(nodeTemplateEntry.getKey())) {
+                nodeTemplates.put(nodeTemplateEntry.getKey(), nodeTemplateEntry.getValue());
+            }
+        }
+        Topology subTopology = new Topology();
+        subTopology.setDependencies(topology.getDependencies());
+        subTopology.setNodeTemplates(nodeTemplates);
+        return subTopology;
     }
 
     public static boolean hasOnlyPropertiesWarnings(List<PropertiesTask> properties) {
@@ -0,0 +1,169 @@
+package alien4cloud.utils.services;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.xml.bind.DatatypeConverter;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+import alien4cloud.utils.FileUtil;
+import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Computes the SHA-1 hashes of archives (see {@link FileUtil#deepSHA1(Path)}) and keeps the hashes already computed on disk so that an archive that did not
+ * change is not read and hashed again (re-upload, git re-import).
+ *
+ * Hashes are keyed by a fingerprint of the archive that is cheap to compute as no file is read: the path, size and last modification date of a zip file
+ * and of every file of a directory. Uploaded archives are stored in a new temporary file on every upload so they are hashed every time, the cache pays off
+ * for archives that are read again from the same location (git imports, archives folders).
+ *
+ * New hashes are written to disk periodically by a background thread rather than on every cache miss.
+ */
+@Slf4j
+@Service
+public class FileHashService {
+    private static final String CACHE_FILE_NAME = "archive_hashes";
+
+    @Value("${directories.alien}/hash_cache")
+    private String cacheDirectory;
+    @Value("${archive.hash_cache.max_entries:1000}")
+    private long maxEntries;
+    @Value("${archive.hash_cache.save_interval_ms:10000}")
+    private long saveIntervalMs;
+
+    private Path cacheFile;
+    /** Hashes of the archives by fingerprint. */
+    private Cache<String, String> hashes;
+    private final AtomicBoolean dirty = new AtomicBoolean(false);
+    private ScheduledExecutorService saveExecutor;
+
+    @PostConstruct
+    public void load() {
+        hashes = CacheBuilder.newBuilder().maximumSize(maxEntries).build();
+        cacheFile = Paths.get(cacheDirectory).resolve(CACHE_FILE_NAME);
+        saveExecutor = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("archive-hash-cache-"));
+        saveExecutor.scheduleWithFixedDelay(this::save, saveIntervalMs, saveIntervalMs, TimeUnit.MILLISECONDS);
+        if (!Files.isRegularFile(cacheFile)) {
+            return;
+        }
+        try (BufferedReader reader = Files.newBufferedReader(cacheFile, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] parts = line.split(" ", 2);
+                if (parts.length == 2) {
+                    hashes.put(parts[1], parts[0]);
+                }
+            }
+            log.debug("Loaded {} archive hashes from cache {}", hashes.size(), cacheFile);
+        } catch (IOException e) {
+            log.warn("Unable to load archive hash cache from " + cacheFile + ", hashes will be computed again.", e);
+            hashes.invalidateAll();
+        }
+    }
+
+    /**
+     * Stop the background saves and write the hashes not saved yet.
+     */
+    @PreDestroy
+    public void destroy() {
+        saveExecutor.shutdownNow();
+        save();
+    }
+
+    /**
+     * Computes a SHA-1 checksum on an archive (zip file, single file or directory), reusing the cached hash if the archive has not changed since it was last
+     * hashed. The hash is the one computed by {@link FileUtil#deepSHA1(Path)}.
+     *
+     * @param rootPath The root path of the archive.
+     * @return The SHA-1 hash string.
+     */
+    public String deepSHA1(Path rootPath) {
+        String fingerprint;
+        if (FileUtil.isZipFile(rootPath)) {
+            fingerprint = "zip:" + getZipFingerprint(rootPath);
+        } else if (Files.isDirectory(rootPath)) {
+            fingerprint = "dir:" + getDirectoryFingerprint(rootPath);
+        } else {
+            // a single file is read once anyway
+            return FileUtil.deepSHA1(rootPath);
+        }
+        String hash = hashes.getIfPresent(fingerprint);
+        if (hash == null) {
+            hash = FileUtil.deepSHA1(rootPath);
+            hashes.put(fingerprint, hash);
+            dirty.set(true);
+        }
+        return hash;
+    }
+
+    @SneakyThrows({ IOException.class })
+    private String getZipFingerprint(Path zipPath) {
+        return zipPath.toAbsolutePath().normalize() + " " + Files.size(zipPath) + " " + Files.getLastModifiedTime(zipPath).toMillis();
+    }
+
+    @SneakyThrows({ IOException.class, NoSuchAlgorithmException.class })
+    private String getDirectoryFingerprint(Path rootPath) {
+        MessageDigest digest = MessageDigest.getInstance("SHA1");
+        digest.update(rootPath.toAbsolutePath().normalize().toString().getBytes(StandardCharsets.UTF_8));
+        try (Stream<Path> paths = Files.walk(rootPath)) {
+            paths.filter(this::isNotHidden).filter(Files::isRegularFile).forEach(path -> addFileToDigest(digest, rootPath, path));
+        }
+        return DatatypeConverter.printHexBinary(digest.digest());
+    }
+
+    @SneakyThrows({ IOException.class })
+    private void addFileToDigest(MessageDigest digest, Path rootPath, Path path) {
+        String fileFingerprint = rootPath.relativize(path) + " " + Files.size(path) + " " + Files.getLastModifiedTime(path).toMillis() + "\n";
+        digest.update(fileFingerprint.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @SneakyThrows({ IOException.class })
+    private boolean isNotHidden(Path path) {
+        return !Files.isHidden(path);
+    }
+
+    /**
+     * Write the cache to disk if hashes have been computed since the last save.
+     */
+    public synchronized void save() {
+        if (!dirty.compareAndSet(true, false)) {
+            return;
+        }
+        try {
+            Files.createDirectories(cacheFile.getParent());
+            Path tempFile = Files.createTempFile(cacheFile.getParent(), CACHE_FILE_NAME, ".tmp");
+            try (BufferedWriter writer = Files.newBufferedWriter(tempFile, StandardCharsets.UTF_8)) {
+                for (Map.Entry<String, String> entry : hashes.asMap().entrySet()) {
+                    writer.write(entry.getValue() + " " + entry.getKey());
+                    writer.newLine();
+                }
+            }
+            Files.move(tempFile, cacheFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("Unable to save archive hash cache to " + cacheFile, e);
+        }
+    }
+}
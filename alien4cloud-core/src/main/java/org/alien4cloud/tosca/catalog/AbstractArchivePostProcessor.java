@@ -28,8 +28,8 @@ import alien4cloud.tosca.parser.ParsingError;
 import alien4cloud.tosca.parser.ParsingErrorLevel;
 import alien4cloud.tosca.parser.ParsingResult;
 import alien4cloud.tosca.parser.impl.ErrorCode;
-import alien4cloud.utils.FileUtil;
 import alien4cloud.utils.InputArtifactUtil;
+import alien4cloud.utils.services.FileHashService;
 import lombok.extern.slf4j.Slf4j;
 
 /**
@@ -39,6 +39,8 @@ import lombok.extern.slf4j.Slf4j;
 public abstract class AbstractArchivePostProcessor {
     @Resource
     private RepositoryService repositoryService;
+    @Resource
+    private FileHashService fileHashService;
 
     public interface ArchivePathChecker extends AutoCloseable {
         boolean exists(String artifactReference);
@@ -52,7 +54,7 @@ public abstract class AbstractArchivePostProcessor {
      * @param parsedArchive The archive to post process
      */
     protected ParsingResult<ArchiveRoot> doProcess(Path archive, ParsingResult<ArchiveRoot> parsedArchive, String workspace) {
-        String hash = FileUtil.deepSHA1(archive);
+        String hash = fileHashService.deepSHA1(archive);
         parsedArchive.getResult().getArchive().setHash(hash);
         parsedArchive.getResult().getArchive().setWorkspace(workspace);
 
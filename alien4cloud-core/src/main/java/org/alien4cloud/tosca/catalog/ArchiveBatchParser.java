@@ -0,0 +1,165 @@
+package org.alien4cloud.tosca.catalog;
+
+import static alien4cloud.utils.AlienUtils.safe;
+
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.inject.Inject;
+
+import org.alien4cloud.tosca.model.CSARDependency;
+import org.alien4cloud.tosca.model.CsarDependenciesBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.concurrent.DelegatingSecurityContextCallable;
+import org.springframework.stereotype.Component;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+
+import alien4cloud.exception.IndexingServiceException;
+import alien4cloud.tosca.context.ToscaContext;
+import alien4cloud.tosca.model.ArchiveRoot;
+import alien4cloud.tosca.parser.ParsingResult;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Parse a set of TOSCA archives concurrently.
+ *
+ * An archive is parsed as soon as all the archives of the batch it depends on have been parsed and handled, archives that don't depend on each other are
+ * parsed in parallel on a bounded pool. Each archive is parsed in its own TOSCA context, the types of its dependencies are read from the repository as the
+ * handler indexes every archive before its dependents are parsed (parsed archives are not shared between contexts as the parser post-processing mutates
+ * the types it inherits from).
+ */
+@Slf4j
+@Component
+public class ArchiveBatchParser {
+    @Inject
+    private ArchiveParser archiveParser;
+    @Value("${archive.import.parallelism:4}")
+    private int parsingParallelism;
+
+    private ExecutorService parsingExecutor;
+
+    @PostConstruct
+    public void init() {
+        parsingExecutor = Executors.newFixedThreadPool(parsingParallelism, new CustomizableThreadFactory("archive-parser-"));
+    }
+
+    @PreDestroy
+    public void destroy() {
+        parsingExecutor.shutdownNow();
+    }
+
+    /**
+     * Handler called for every parsed archive, in the thread and TOSCA context used to parse the archive.
+     */
+    public interface ParsedArchiveHandler {
+        /**
+         * Process a parsed archive, archives that depend on this archive are parsed only once this method returns.
+         *
+         * @param archive The path of the parsed archive.
+         * @param parsingResult The result of the parsing.
+         * @throws Exception In case of a failure, no more archives are parsed.
+         */
+        void handle(Path archive, ParsingResult<ArchiveRoot> parsingResult) throws Exception;
+    }
+
+    /**
+     * Parse a set of archives.
+     *
+     * @param archives The archives to parse with their dependencies (see {@link ArchiveParser#parseImports(Path)}).
+     * @param workspace The workspace of the archives.
+     * @param handler The handler to call on every parsed archive.
+     * @throws ExecutionException If the parsing or the handling of an archive failed, the cause being the first failure. Archives that were not parsed yet
+     *             are not parsed.
+     */
+    public void parseAll(Collection<CsarDependenciesBean> archives, String workspace, ParsedArchiveHandler handler) throws ExecutionException {
+        Map<CSARDependency, CsarDependenciesBean> archivesById = Maps.newHashMap();
+        for (CsarDependenciesBean archive : archives) {
+            archivesById.put(archive.getSelf(), archive);
+        }
+        // compute the dependencies and dependents of every archive within the batch
+        Map<CSARDependency, Set<CSARDependency>> remainingDependencies = Maps.newHashMap();
+        Map<CSARDependency, List<CsarDependenciesBean>> dependents = Maps.newHashMap();
+        for (CsarDependenciesBean archive : archives) {
+            Set<CSARDependency> batchDependencies = Sets.newHashSet();
+            for (CSARDependency dependency : safe(archive.getDependencies())) {
+                if (archivesById.containsKey(dependency)) {
+                    batchDependencies.add(dependency);
+                    dependents.computeIfAbsent(dependency, key -> Lists.newArrayList()).add(archive);
+                }
+            }
+            remainingDependencies.put(archive.getSelf(), batchDependencies);
+        }
+
+        CompletionService<CsarDependenciesBean> completionService = new ExecutorCompletionService<>(parsingExecutor);
+        int running = 0;
+        for (CsarDependenciesBean archive : archives) {
+            if (remainingDependencies.get(archive.getSelf()).isEmpty()) {
+                submit(completionService, archive, workspace, handler);
+                running++;
+            }
+        }
+        int parsed = 0;
+        Throwable failure = null;
+        while (running > 0) {
+            CsarDependenciesBean archive;
+            try {
+                archive = completionService.take().get();
+            } catch (ExecutionException e) {
+                failure = failure == null ? e.getCause() : failure;
+                running--;
+                continue;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IndexingServiceException("Interrupted while parsing archives.", e);
+            }
+            running--;
+            parsed++;
+            if (failure != null) {
+                // do not parse other archives, just wait for the running ones.
+                continue;
+            }
+            for (CsarDependenciesBean dependent : safe(dependents.get(archive.getSelf()))) {
+                Set<CSARDependency> dependencies = remainingDependencies.get(dependent.getSelf());
+                dependencies.remove(archive.getSelf());
+                if (dependencies.isEmpty()) {
+                    submit(completionService, dependent, workspace, handler);
+                    running++;
+                }
+            }
+        }
+        if (failure != null) {
+            throw new ExecutionException(failure);
+        }
+        if (parsed < archives.size()) {
+            log.warn("{} archives have not been parsed as they have cyclic dependencies.", archives.size() - parsed);
+        }
+    }
+
+    private void submit(CompletionService<CsarDependenciesBean> completionService, CsarDependenciesBean archive, String workspace,
+            ParsedArchiveHandler handler) {
+        completionService.submit(new DelegatingSecurityContextCallable<>(() -> {
+            ToscaContext.init(Sets.newHashSet());
+            try {
+                ParsingResult<ArchiveRoot> parsingResult = archiveParser.parseWithExistingContext(archive.getPath(), workspace);
+                handler.handle(archive.getPath(), parsingResult);
+                return archive;
+            } finally {
+                ToscaContext.destroy();
+            }
+        }));
+    }
+}
@@ -1,9 +1,11 @@
 package org.alien4cloud.tosca.catalog;
 
 import java.nio.file.Path;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
 
 import javax.inject.Inject;
 
@@ -13,6 +15,7 @@ import org.alien4cloud.tosca.model.Csar;
 import org.alien4cloud.tosca.model.CsarDependenciesBean;
 import org.springframework.stereotype.Component;
 
+import com.google.common.base.Throwables;
 import com.google.common.collect.Maps;
 
 import alien4cloud.component.repository.exception.CSARUsedInActiveDeployment;
@@ -36,6 +39,8 @@ public class ArchiveUploadService {
     private ArchiveIndexer archiveIndexer;
     @Inject
     private SuggestionService suggestionService;
+    @Inject
+    private ArchiveBatchParser archiveBatchParser;
 
     /**
      * Upload a TOSCA archive and index its components.
@@ -51,7 +56,11 @@ public class ArchiveUploadService {
             throws ParsingException, CSARUsedInActiveDeployment, ToscaTypeAlreadyDefinedInOtherCSAR {
         // parse the archive.
         ParsingResult<ArchiveRoot> parsingResult = parser.parseWithExistingContext(path, workspace);
+        return index(path, parsingResult, csarSource);
+    }
 
+    private ParsingResult<Csar> index(Path path, ParsingResult<ArchiveRoot> parsingResult, CSARSource csarSource)
+            throws CSARUsedInActiveDeployment, ToscaTypeAlreadyDefinedInOtherCSAR {
         final ArchiveRoot archiveRoot = parsingResult.getResult();
 
         // check if any blocker error has been found during parsing process.
@@ -71,6 +80,34 @@ public class ArchiveUploadService {
         return ArchiveParserUtil.toSimpleResult(parsingResult);
     }
 
+    /**
+     * Upload a set of TOSCA archives. Archives are parsed and indexed concurrently, an archive being uploaded only once all the archives of the set it
+     * depends on have been uploaded.
+     *
+     * @param archives The archives to upload with their dependencies (see {@link #preParsing(Set, List)}).
+     * @param csarSource The source of the upload.
+     * @param workspace The workspace in which to upload the archives.
+     * @param parsingResults The list in which to add the parsing results of the uploaded archives.
+     * @throws ParsingException
+     * @throws CSARUsedInActiveDeployment
+     */
+    public void uploadAll(Collection<CsarDependenciesBean> archives, CSARSource csarSource, String workspace, List<ParsingResult<Csar>> parsingResults)
+            throws ParsingException, CSARUsedInActiveDeployment, ToscaTypeAlreadyDefinedInOtherCSAR {
+        try {
+            archiveBatchParser.parseAll(archives, workspace, (path, parsingResult) -> {
+                ParsingResult<Csar> result = index(path, parsingResult, csarSource);
+                synchronized (parsingResults) {
+                    parsingResults.add(result);
+                }
+            });
+        } catch (ExecutionException e) {
+            Throwables.propagateIfInstanceOf(e.getCause(), ParsingException.class);
+            Throwables.propagateIfInstanceOf(e.getCause(), CSARUsedInActiveDeployment.class);
+            Throwables.propagateIfInstanceOf(e.getCause(), ToscaTypeAlreadyDefinedInOtherCSAR.class);
+            throw Throwables.propagate(e.getCause());
+        }
+    }
+
     @ToscaContextual
     public Map<CSARDependency, CsarDependenciesBean> preParsing(Set<Path> paths, List<ParsingResult<Csar>> parsingResults) {
         Map<CSARDependency, CsarDependenciesBean> csarDependenciesBeans = Maps.newHashMap();
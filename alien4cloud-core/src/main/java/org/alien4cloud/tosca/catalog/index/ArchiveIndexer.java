@@ -1,11 +1,13 @@
 package org.alien4cloud.tosca.catalog.index;
 
 import static alien4cloud.dao.FilterUtil.singleKeyFilter;
+import static alien4cloud.utils.AlienUtils.safe;
 
 import java.nio.file.Path;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.locks.Lock;
 
 import javax.annotation.Resource;
 import javax.inject.Inject;
@@ -22,6 +24,11 @@ import org.alien4cloud.tosca.model.types.*;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Component;
 
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import com.google.common.util.concurrent.Striped;
+
 import alien4cloud.component.repository.exception.CSARUsedInActiveDeployment;
 import alien4cloud.component.repository.exception.ToscaTypeAlreadyDefinedInOtherCSAR;
 import alien4cloud.dao.IGenericSearchDAO;
@@ -53,6 +60,9 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 @Component
 public class ArchiveIndexer {
+    private static final String ARCHIVE_LOCK_PREFIX = "archive:";
+    private static final String TYPE_LOCK_PREFIX = "type:";
+
     @Resource(name = "alien-es-dao")
     private IGenericSearchDAO alienDAO;
     @Inject
@@ -78,6 +88,12 @@ public class ArchiveIndexer {
     @Inject
     private IArchiveIndexerAuthorizationFilter archiveIndexerAuthorizationFilter;
 
+    /**
+     * Import locks by archive name and by tosca type id. Imports of unrelated archives run concurrently while imports of archives with the same name or
+     * defining the same types are serialized (a tosca type can be defined in a single archive).
+     */
+    private final Striped<Lock> importLocks = Striped.lazyWeakLock(1024);
+
     /**
      * Check that a CSAR name/version does not already exists in the repository and eventually throw an AlreadyExistException.
      *
@@ -103,7 +119,16 @@ public class ArchiveIndexer {
      * @param csar The archive to be imported.
      * @param topology The topology to be part of the topology.
      */
-    public synchronized void importNewArchive(Csar csar, Topology topology) {
+    public void importNewArchive(Csar csar, Topology topology) {
+        List<Lock> locks = lock(Lists.newArrayList(ARCHIVE_LOCK_PREFIX + csar.getName()));
+        try {
+            doImportNewArchive(csar, topology);
+        } finally {
+            unlock(locks);
+        }
+    }
+
+    private void doImportNewArchive(Csar csar, Topology topology) {
         ArchiveRoot archiveRoot = new ArchiveRoot();
         archiveRoot.setArchive(csar);
         archiveRoot.setTopology(topology);
@@ -140,7 +165,17 @@ public class ArchiveIndexer {
      * @param parsingErrors The non-null list of parsing errors in which to add errors.
      * @throws CSARUsedInActiveDeployment
      */
-    public synchronized void importArchive(final ArchiveRoot archiveRoot, CSARSource source, Path archivePath, List<ParsingError> parsingErrors)
+    public void importArchive(final ArchiveRoot archiveRoot, CSARSource source, Path archivePath, List<ParsingError> parsingErrors)
+            throws CSARUsedInActiveDeployment, ToscaTypeAlreadyDefinedInOtherCSAR {
+        List<Lock> locks = lock(getLockKeys(archiveRoot));
+        try {
+            doImportArchive(archiveRoot, source, archivePath, parsingErrors);
+        } finally {
+            unlock(locks);
+        }
+    }
+
+    private void doImportArchive(final ArchiveRoot archiveRoot, CSARSource source, Path archivePath, List<ParsingError> parsingErrors)
             throws CSARUsedInActiveDeployment, ToscaTypeAlreadyDefinedInOtherCSAR {
         archiveIndexerAuthorizationFilter.checkAuthorization(archiveRoot);
         String archiveName = archiveRoot.getArchive().getName();
@@ -198,6 +233,37 @@ public class ArchiveIndexer {
         publisher.publishEvent(new AfterArchiveIndexed(this, archiveRoot));
     }
 
+    private List<String> getLockKeys(ArchiveRoot archiveRoot) {
+        List<String> keys = Lists.newArrayList(ARCHIVE_LOCK_PREFIX + archiveRoot.getArchive().getName());
+        addTypeLockKeys(keys, archiveRoot.getNodeTypes());
+        addTypeLockKeys(keys, archiveRoot.getRelationshipTypes());
+        addTypeLockKeys(keys, archiveRoot.getCapabilityTypes());
+        addTypeLockKeys(keys, archiveRoot.getArtifactTypes());
+        addTypeLockKeys(keys, archiveRoot.getDataTypes());
+        return keys;
+    }
+
+    private void addTypeLockKeys(List<String> keys, Map<String, ? extends AbstractToscaType> toscaTypes) {
+        if (toscaTypes != null) {
+            toscaTypes.keySet().forEach(elementId -> keys.add(TYPE_LOCK_PREFIX + elementId));
+        }
+    }
+
+    private List<Lock> lock(List<String> keys) {
+        // bulkGet returns the locks in a consistent order so concurrent imports cannot deadlock.
+        List<Lock> locks = Lists.newArrayList(Sets.newLinkedHashSet(importLocks.bulkGet(keys)));
+        for (Lock lock : locks) {
+            lock.lock();
+        }
+        return locks;
+    }
+
+    private void unlock(List<Lock> locks) {
+        for (Lock lock : Lists.reverse(locks)) {
+            lock.unlock();
+        }
+    }
+
     /**
      * Fail if at least one tosca type defined in the archive is already define in an other archive.
      *
@@ -205,29 +271,29 @@ public class ArchiveIndexer {
      * @throws ToscaTypeAlreadyDefinedInOtherCSAR
      */
     private void checkIfToscaTypesAreDefinedInOtherArchive(final ArchiveRoot archiveRoot) throws ToscaTypeAlreadyDefinedInOtherCSAR {
-        failIfOneToscaTypesIsDefinedInOtherArchive(archiveRoot.getNodeTypes());
-        failIfOneToscaTypesIsDefinedInOtherArchive(archiveRoot.getRelationshipTypes());
-        failIfOneToscaTypesIsDefinedInOtherArchive(archiveRoot.getCapabilityTypes());
-        failIfOneToscaTypesIsDefinedInOtherArchive(archiveRoot.getArtifactTypes());
-        failIfOneToscaTypesIsDefinedInOtherArchive(archiveRoot.getDataTypes());
-    }
-
-    private void failIfOneToscaTypesIsDefinedInOtherArchive(Map<String, ? extends AbstractToscaType> toscaTypes) throws ToscaTypeAlreadyDefinedInOtherCSAR {
-        if (toscaTypes == null) {
+        Map<String, AbstractToscaType> toscaTypesById = Maps.newHashMap();
+        addToscaTypesById(toscaTypesById, archiveRoot.getNodeTypes());
+        addToscaTypesById(toscaTypesById, archiveRoot.getRelationshipTypes());
+        addToscaTypesById(toscaTypesById, archiveRoot.getCapabilityTypes());
+        addToscaTypesById(toscaTypesById, archiveRoot.getArtifactTypes());
+        addToscaTypesById(toscaTypesById, archiveRoot.getDataTypes());
+        if (toscaTypesById.isEmpty()) {
             return;
         }
-        for (AbstractToscaType toscaType : toscaTypes.values()) {
-            failIfToscaTypeIsDefinedInOtherArchive(toscaType);
+        // check all the types of the archive using a single multi-get request
+        List<AbstractToscaType> indexedToscaTypes = alienDAO.findByIds(AbstractToscaType.class,
+                toscaTypesById.keySet().toArray(new String[toscaTypesById.size()]));
+        for (AbstractToscaType indexedToscaType : safe(indexedToscaTypes)) {
+            AbstractToscaType toscaType = toscaTypesById.get(indexedToscaType.getId());
+            if (toscaType != null && !toscaType.getArchiveName().equals(indexedToscaType.getArchiveName())) {
+                throw new ToscaTypeAlreadyDefinedInOtherCSAR("Tosca type: " + toscaType.getElementId() + ", version: " + toscaType.getArchiveVersion());
+            }
         }
     }
 
-    private void failIfToscaTypeIsDefinedInOtherArchive(AbstractToscaType toscaType) throws ToscaTypeAlreadyDefinedInOtherCSAR {
-        if (toscaType == null) {
-            return;
-        }
-        AbstractToscaType indexedNodeType = alienDAO.findById(AbstractToscaType.class, toscaType.getId());
-        if (indexedNodeType != null && !toscaType.getArchiveName().equals(indexedNodeType.getArchiveName())) {
-            throw new ToscaTypeAlreadyDefinedInOtherCSAR("Tosca type: " + toscaType.getElementId() + ", version: " + toscaType.getArchiveVersion());
+    private void addToscaTypesById(Map<String, AbstractToscaType> toscaTypesById, Map<String, ? extends AbstractToscaType> toscaTypes) {
+        for (AbstractToscaType toscaType : safe(toscaTypes).values()) {
+            toscaTypesById.put(toscaType.getId(), toscaType);
         }
     }
 
@@ -330,15 +396,22 @@ public class ArchiveIndexer {
     }
 
     private void performIndexing(ArchiveRoot root) {
-        indexerService.indexInheritableElements(root.getArtifactTypes(), root.getArchive().getDependencies());
-        indexerService.indexInheritableElements(root.getCapabilityTypes(), root.getArchive().getDependencies());
-        indexerService.indexInheritableElements(root.getNodeTypes(), root.getArchive().getDependencies());
-        indexerService.indexInheritableElements(root.getRelationshipTypes(), root.getArchive().getDependencies());
-        indexerService.indexInheritableElements(root.getDataTypes(), root.getArchive().getDependencies());
+        // all the types of the archive and of its local imports are indexed in a single bulk request followed by a single refresh.
+        List<AbstractInheritableToscaType> elements = Lists.newArrayList();
+        collectInheritableElements(root, elements);
+        indexerService.indexInheritableElements(elements);
+    }
+
+    private void collectInheritableElements(ArchiveRoot root, List<AbstractInheritableToscaType> elements) {
+        elements.addAll(safe(root.getArtifactTypes()).values());
+        elements.addAll(safe(root.getCapabilityTypes()).values());
+        elements.addAll(safe(root.getNodeTypes()).values());
+        elements.addAll(safe(root.getRelationshipTypes()).values());
+        elements.addAll(safe(root.getDataTypes()).values());
 
         if (root.getLocalImports() != null) {
             for (ArchiveRoot child : root.getLocalImports()) {
-                performIndexing(child);
+                collectInheritableElements(child, elements);
             }
         }
     }
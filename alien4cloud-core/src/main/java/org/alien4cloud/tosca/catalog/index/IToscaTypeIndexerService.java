@@ -48,6 +48,13 @@ public interface IToscaTypeIndexerService {
     void indexInheritableElements(Map<String, ? extends AbstractInheritableToscaType> archiveElements,
             Collection<CSARDependency> dependencies);
 
+    /**
+     * Index multiple elements into the repository using a single bulk request followed by a single refresh of the index.
+     *
+     * @param elements The elements to index.
+     */
+    void indexInheritableElements(Collection<? extends AbstractInheritableToscaType> elements);
+
     /**
      * Index a single element into the repository.
      * 
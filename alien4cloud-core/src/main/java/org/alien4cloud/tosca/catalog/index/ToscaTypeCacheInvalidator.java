@@ -0,0 +1,43 @@
+package org.alien4cloud.tosca.catalog.index;
+
+import javax.inject.Inject;
+
+import org.alien4cloud.tosca.catalog.events.AfterArchiveDeleted;
+import org.alien4cloud.tosca.catalog.events.AfterArchiveIndexed;
+import org.alien4cloud.tosca.catalog.events.BeforeArchiveDeleted;
+import org.alien4cloud.tosca.catalog.events.BeforeArchiveIndexed;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import alien4cloud.tosca.context.ToscaTypeCache;
+
+/**
+ * Evict the types of an archive from the shared {@link ToscaTypeCache} when the archive is indexed again or deleted from the catalog.
+ *
+ * Types are evicted both before and after the catalog is updated as a type read concurrently with the update may have been cached again in between.
+ */
+@Component
+public class ToscaTypeCacheInvalidator {
+    @Inject
+    private ToscaTypeCache toscaTypeCache;
+
+    @EventListener
+    public void handleArchiveRemoved(BeforeArchiveDeleted event) {
+        toscaTypeCache.invalidateArchive(event.getArchiveId());
+    }
+
+    @EventListener
+    public void handleArchiveRemoved(AfterArchiveDeleted event) {
+        toscaTypeCache.invalidateArchive(event.getArchiveId());
+    }
+
+    @EventListener
+    public void handleArchiveUpdated(BeforeArchiveIndexed event) {
+        toscaTypeCache.invalidateArchive(event.getArchiveRoot().getArchive().getId());
+    }
+
+    @EventListener
+    public void handleArchiveUpdated(AfterArchiveIndexed event) {
+        toscaTypeCache.invalidateArchive(event.getArchiveRoot().getArchive().getId());
+    }
+}
@@ -5,6 +5,7 @@ import static alien4cloud.utils.AlienUtils.safe;
 
 import java.util.Collection;
 import java.util.Map;
+import java.util.stream.Stream;
 
 import javax.annotation.Resource;
 import javax.inject.Inject;
@@ -13,6 +14,8 @@ import org.alien4cloud.tosca.model.CSARDependency;
 import org.alien4cloud.tosca.model.types.AbstractInheritableToscaType;
 import org.alien4cloud.tosca.model.types.AbstractToscaType;
 import org.apache.commons.collections4.CollectionUtils;
+import org.elasticsearch.index.query.QueryBuilder;
+import org.elasticsearch.index.query.QueryBuilders;
 import org.elasticsearch.mapping.ElasticSearchClient;
 import org.springframework.stereotype.Service;
 
@@ -20,6 +23,7 @@ import com.google.common.collect.Maps;
 
 import alien4cloud.dao.ElasticSearchDAO;
 import alien4cloud.dao.IGenericSearchDAO;
+import alien4cloud.dao.WritePolicy;
 import alien4cloud.dao.model.FetchContext;
 import alien4cloud.dao.model.GetMultipleDataResult;
 import alien4cloud.images.IImageDAO;
@@ -52,16 +56,11 @@ public class ToscaTypeIndexerService implements IToscaTypeIndexerService {
 
     @Override
     public <T extends AbstractToscaType> Map<String, T> getArchiveElements(String archiveName, String archiveVersion, Class<T> type) {
-        GetMultipleDataResult<T> elements = alienDAO.buildQuery(type)
-                .setFilters(fromKeyValueCouples("archiveName", archiveName, "archiveVersion", archiveVersion)).prepareSearch().search(0, Integer.MAX_VALUE);
-
+        QueryBuilder archiveQuery = QueryBuilders.boolQuery().must(QueryBuilders.termQuery("archiveName", archiveName))
+                .must(QueryBuilders.termQuery("archiveVersion", archiveVersion));
         Map<String, T> elementsByIds = Maps.newHashMap();
-        if (elements == null) {
-            return elementsByIds;
-        }
-
-        for (T element : elements.getData()) {
-            elementsByIds.put(element.getId(), element);
+        try (Stream<T> elements = alienDAO.stream(type, archiveQuery, IGenericSearchDAO.DEFAULT_SCROLL_BATCH_SIZE)) {
+            elements.forEach(element -> elementsByIds.put(element.getId(), element));
         }
         return elementsByIds;
     }
@@ -82,9 +81,16 @@ public class ToscaTypeIndexerService implements IToscaTypeIndexerService {
 
     @Override
     public void indexInheritableElements(Map<String, ? extends AbstractInheritableToscaType> archiveElements, Collection<CSARDependency> dependencies) {
-        for (AbstractInheritableToscaType element : safe(archiveElements).values()) {
-            alienDAO.save(element);
+        indexInheritableElements(safe(archiveElements).values());
+    }
+
+    @Override
+    public void indexInheritableElements(Collection<? extends AbstractInheritableToscaType> elements) {
+        if (elements.isEmpty()) {
+            return;
         }
+        // index all the elements in a single bulk request and refresh the index only once.
+        alienDAO.save(elements.toArray(new AbstractInheritableToscaType[elements.size()]), WritePolicy.NEXT_REFRESH);
         refreshIndexForSearching();
     }
 
@@ -1,12 +1,14 @@
 package org.alien4cloud.tosca.catalog.index;
 
 import static alien4cloud.dao.FilterUtil.fromKeyValueCouples;
-import static alien4cloud.dao.FilterUtil.singleKeyFilter;
 
+import java.lang.reflect.Array;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.stream.Stream;
 
 import javax.annotation.Resource;
 
@@ -21,6 +23,8 @@ import org.elasticsearch.search.sort.SortOrder;
 import org.springframework.context.annotation.Primary;
 import org.springframework.stereotype.Component;
 
+import com.google.common.collect.Maps;
+
 import alien4cloud.dao.IGenericSearchDAO;
 import alien4cloud.dao.model.FacetedSearchResult;
 import alien4cloud.exception.NotFoundException;
@@ -49,8 +53,11 @@ public class ToscaTypeSearchService extends AbstractToscaIndexSearchService<Abst
 
     @Override
     public AbstractToscaType[] getArchiveTypes(String archiveName, String archiveVersion) {
-        return searchDAO.buildQuery(AbstractToscaType.class).setFilters(fromKeyValueCouples("archiveName", archiveName, "archiveVersion", archiveVersion))
-                .prepareSearch().search(0, Integer.MAX_VALUE).getData();
+        QueryBuilder archiveQuery = QueryBuilders.boolQuery().must(QueryBuilders.termQuery("archiveName", archiveName))
+                .must(QueryBuilders.termQuery("archiveVersion", archiveVersion));
+        try (Stream<AbstractToscaType> types = searchDAO.stream(AbstractToscaType.class, archiveQuery, IGenericSearchDAO.DEFAULT_SCROLL_BATCH_SIZE)) {
+            return types.toArray(AbstractToscaType[]::new);
+        }
     }
 
     @Override
@@ -80,7 +87,9 @@ public class ToscaTypeSearchService extends AbstractToscaIndexSearchService<Abst
 
     @Override
     public <T extends AbstractToscaType> T[] findAll(Class<T> elementType, String elementId) {
-        return searchDAO.buildQuery(elementType).setFilters(singleKeyFilter("rawElementId", elementId)).prepareSearch().search(0, Integer.MAX_VALUE).getData();
+        try (Stream<T> types = searchDAO.stream(elementType, QueryBuilders.termQuery("rawElementId", elementId), IGenericSearchDAO.DEFAULT_SCROLL_BATCH_SIZE)) {
+            return types.toArray(size -> (T[]) Array.newInstance(elementType, size));
+        }
     }
 
     /**
@@ -144,6 +153,27 @@ public class ToscaTypeSearchService extends AbstractToscaIndexSearchService<Abst
         return getLatestVersionOfElement(elementClass, boolQueryBuilder);
     }
 
+    @Override
+    public <T extends AbstractToscaType> Map<String, T> getElementsInDependencies(Class<T> elementClass, Collection<String> elementIds,
+            Set<CSARDependency> dependencies) {
+        Map<String, T> elements = Maps.newHashMap();
+        if (dependencies == null || dependencies.isEmpty() || elementIds == null || elementIds.isEmpty()) {
+            return elements;
+        }
+        BoolQueryBuilder boolQueryBuilder = QueryBuilders.boolQuery().must(getDependencyQuery(dependencies))
+                .must(QueryBuilders.termsQuery("rawElementId", elementIds));
+        // keep the latest version of each element as done for single element requests
+        try (Stream<T> types = searchDAO.stream(elementClass, boolQueryBuilder, IGenericSearchDAO.DEFAULT_SCROLL_BATCH_SIZE)) {
+            types.forEach(element -> {
+                T existing = elements.get(element.getElementId());
+                if (existing == null || VersionUtil.compare(element.getArchiveVersion(), existing.getArchiveVersion()) > 0) {
+                    elements.put(element.getElementId(), element);
+                }
+            });
+        }
+        return elements;
+    }
+
     @Override
     public <T extends AbstractToscaType> T getRequiredElementInDependencies(Class<T> elementClass, String elementId, Set<CSARDependency> dependencies)
             throws NotFoundException {
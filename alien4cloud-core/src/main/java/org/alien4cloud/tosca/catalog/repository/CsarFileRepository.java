@@ -3,10 +3,12 @@ package org.alien4cloud.tosca.catalog.repository;
 import java.io.BufferedWriter;
 import java.io.File;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
+import java.util.concurrent.locks.Lock;
 
 import org.alien4cloud.tosca.editor.EditionContextManager;
 import org.alien4cloud.tosca.model.Csar;
@@ -15,11 +17,15 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.springframework.util.FileSystemUtils;
 
+import com.google.common.util.concurrent.Striped;
+
 import alien4cloud.component.repository.exception.CSARDirectoryCreationFailureException;
 import alien4cloud.component.repository.exception.CSARStorageFailureException;
 import alien4cloud.exception.NotFoundException;
+import alien4cloud.git.RepositoryManager;
 import alien4cloud.utils.DirectoryJSonWalker;
 import alien4cloud.utils.FileUtil;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
@@ -38,7 +44,12 @@ import lombok.extern.slf4j.Slf4j;
 public class CsarFileRepository implements ICsarRepositry {
     public static final String CSAR_EXTENSION = "csar";
     private static final String EXPANDED = "expanded";
+    /** Extension of the file that contains the hash of the git commit from which the zip of an archive has been built. */
+    private static final String COMMIT_EXTENSION = ".commit";
     private Path rootPath;
+    /** Locks the storage directory of an archive so that different archives can be stored concurrently. */
+    @Getter(AccessLevel.NONE)
+    private final Striped<Lock> csarLocks = Striped.lazyWeakLock(256);
 
     @Required
     @Value("${directories.alien}/${directories.csar_repository}")
@@ -59,7 +70,16 @@ public class CsarFileRepository implements ICsarRepositry {
     }
 
     @Override
-    public synchronized void storeCSAR(Csar csar, String yaml) {
+    public void storeCSAR(Csar csar, String yaml) {
+        Lock lock = lock(csar.getName(), csar.getVersion());
+        try {
+            doStoreCSAR(csar, yaml);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void doStoreCSAR(Csar csar, String yaml) {
         Path csarDirectoryPath = rootPath.resolve(csar.getName()).resolve(csar.getVersion());
         String realName = csar.getName().concat("-").concat(csar.getVersion()).concat("." + CSAR_EXTENSION);
         createCSARDirectory(csarDirectoryPath, realName);
@@ -79,7 +99,16 @@ public class CsarFileRepository implements ICsarRepositry {
     }
 
     @Override
-    public synchronized void storeCSAR(Csar csar, Path tmpPath) {
+    public void storeCSAR(Csar csar, Path tmpPath) {
+        Lock lock = lock(csar.getName(), csar.getVersion());
+        try {
+            doStoreCSAR(csar, tmpPath);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void doStoreCSAR(Csar csar, Path tmpPath) {
         // check the tmpPath.
         if (!Files.isReadable(tmpPath)) {
             throw new CSARStorageFailureException("CSAR temp location <" + tmpPath.toString() + "> not found or not readable!");
@@ -113,17 +142,32 @@ public class CsarFileRepository implements ICsarRepositry {
     }
 
     @Override
-    public synchronized void updateFromExpanded(String name, String version) {
+    public void updateFromExpanded(String name, String version) {
+        Lock lock = lock(name, version);
+        try {
+            doUpdateFromExpanded(name, version);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Lock lock(String name, String version) {
+        Lock lock = csarLocks.get(Csar.createId(name, version));
+        lock.lock();
+        return lock;
+    }
+
+    private void doUpdateFromExpanded(String name, String version) {
         Path csarDirectoryPath = rootPath.resolve(name).resolve(version);
-        Path expandedPath = csarDirectoryPath.resolve("expanded");
+        Path expandedPath = csarDirectoryPath.resolve(EXPANDED);
         String realName = name.concat("-").concat(version).concat("." + CSAR_EXTENSION);
-        Path csarTargetPath = csarDirectoryPath.resolve(realName);
 
-        // Update the content.json file for archive browsing.
-        Path archiveDirectoryPath = EditionContextManager.get().getLocalGitPath().getParent();
         try {
+            // Update the content.json file for archive browsing.
             DirectoryJSonWalker.directoryJson(expandedPath, csarDirectoryPath.resolve("content.json"));
-            FileUtil.zip(expandedPath, csarTargetPath);
+            // The zip is built again from the expanded content on the next download rather than on every update.
+            Files.deleteIfExists(csarDirectoryPath.resolve(realName));
+            Files.deleteIfExists(csarDirectoryPath.resolve(realName + COMMIT_EXTENSION));
             EditionContextManager.get().refreshContentTree();
         } catch (IOException e) {
             throw new CSARStorageFailureException("Error while trying to update the CSAR archive: " + name + ", Version: " + version + "...." + e.getMessage(),
@@ -132,7 +176,8 @@ public class CsarFileRepository implements ICsarRepositry {
     }
 
     private void createCSARDirectory(Path csarDirectoryPath, String realName) {
-        if (Files.exists(csarDirectoryPath.resolve(realName))) {
+        // the zip may not exist as it is built lazily from the expanded content
+        if (Files.exists(csarDirectoryPath.resolve(realName)) || Files.exists(csarDirectoryPath.resolve(EXPANDED))) {
             log.info("Overriding CSAR with new one.");
             try {
                 FileUtil.delete(csarDirectoryPath);
@@ -150,25 +195,54 @@ public class CsarFileRepository implements ICsarRepositry {
         }
     }
 
+    /**
+     * Get the zip of an archive, the zip is built from the expanded content of the archive if it does not exist yet.
+     *
+     * When the expanded content is a git repository (archives under edition) the zip is kept along with the hash of the commit it was built from and is
+     * built again only once the repository has a new commit, so an archive is compressed once per change whatever the number of downloads.
+     */
     @Override
     public Path getCSAR(String name, String version) {
         Path csarDir = rootPath.resolve(name).resolve(version);
-        Path expandedPath = csarDir.resolve("expanded");
-        Path zippedPath = csarDir.resolve(name.concat("-").concat(version).concat("." + CSAR_EXTENSION));
-        if (Files.exists(zippedPath)) {
-            return zippedPath;
-        } else if (Files.exists(expandedPath)) {
-            // the csar wasn't stored as a zip file. Zip the expanded dir then
-            try {
-                FileUtil.zip(expandedPath, zippedPath);
+        Path expandedPath = csarDir.resolve(EXPANDED);
+        String realName = name.concat("-").concat(version).concat("." + CSAR_EXTENSION);
+        Path zippedPath = csarDir.resolve(realName);
+        if (!Files.exists(expandedPath)) {
+            if (Files.exists(zippedPath)) {
                 return zippedPath;
-            } catch (IOException e) {
-                log.error("Failed to zip directory " + expandedPath, e);
-                throw new NotFoundException("CSAR: " + name + ", Version: " + version + " not found in the repository.");
             }
+            throw new NotFoundException("CSAR: " + name + ", Version: " + version + " not found in the repository.");
         }
 
-        throw new NotFoundException("CSAR: " + name + ", Version: " + version + " not found in the repository.");
+        Lock lock = lock(name, version);
+        try {
+            Path commitPath = csarDir.resolve(realName + COMMIT_EXTENSION);
+            String headHash = RepositoryManager.getHeadHash(expandedPath);
+            if (Files.exists(zippedPath) && (headHash == null || headHash.equals(readZipCommit(commitPath)))) {
+                return zippedPath;
+            }
+            // the csar wasn't stored as a zip file or the zip is older than the last commit. Zip the expanded dir then
+            log.debug("Building zip of archive {}:{} for commit {}", name, version, headHash);
+            FileUtil.zip(expandedPath, zippedPath);
+            if (headHash == null) {
+                Files.deleteIfExists(commitPath);
+            } else {
+                Files.write(commitPath, headHash.getBytes(StandardCharsets.UTF_8));
+            }
+            return zippedPath;
+        } catch (IOException e) {
+            log.error("Failed to zip directory " + expandedPath, e);
+            throw new NotFoundException("CSAR: " + name + ", Version: " + version + " not found in the repository.");
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private String readZipCommit(Path commitPath) throws IOException {
+        if (Files.exists(commitPath)) {
+            return new String(Files.readAllBytes(commitPath), StandardCharsets.UTF_8);
+        }
+        return null;
     }
 
     @Override
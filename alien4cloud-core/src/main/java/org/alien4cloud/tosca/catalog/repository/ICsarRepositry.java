@@ -43,7 +43,7 @@ public interface ICsarRepositry {
     Path getExpandedCSAR(String name, String version);
 
     /**
-     * Update the content of zip and json content file from the actual content of the expanded directory.
+     * Update the json content file from the actual content of the expanded directory and invalidate the zip so it is built again on next access.
      * 
      * @param name The name of the archive.
      * @param version The version of the archive.
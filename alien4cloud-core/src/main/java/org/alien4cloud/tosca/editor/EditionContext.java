@@ -2,6 +2,7 @@ package org.alien4cloud.tosca.editor;
 
 import org.alien4cloud.tosca.model.Csar;
 import org.alien4cloud.tosca.model.templates.Topology;
+import alien4cloud.topology.TopologyValidationCache;
 import alien4cloud.tosca.context.ToscaContext;
 import alien4cloud.utils.DirectoryJSonWalker;
 import alien4cloud.utils.TreeNode;
@@ -14,7 +15,10 @@ import org.alien4cloud.tosca.editor.operations.RecoverTopologyOperation;
 
 import java.io.IOException;
 import java.nio.file.Path;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
 
 /**
  * Topology edition context is related to a specific topology that is currently under edition.
@@ -25,6 +29,8 @@ import java.util.List;
 @Setter
 @NoArgsConstructor
 public class EditionContext {
+    private static final int MAX_DIGESTS = 20;
+
     /** The archive under edition. Note that we don't allow updates to this object in the editor. */
     private Csar csar;
 
@@ -49,6 +55,17 @@ public class EditionContext {
     private TreeNode archiveContentTree;
     /** List of the operations generated to recover the topology */
     private RecoverTopologyOperation recoveryOperation;
+    /** Snapshots of the edition state by index of the last operation applied, used to speed up undo/redo. */
+    private TreeMap<Integer, EditionSnapshot> snapshots = new TreeMap<>();
+    /** Digests of the topology state by id of the last operation applied, used to send only the changes to the clients. */
+    private Map<String, TopologyDigest> digests = new LinkedHashMap<String, TopologyDigest>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, TopologyDigest> eldest) {
+            return size() > MAX_DIGESTS;
+        }
+    };
+    /** Validation tasks of the last validation of the topology, used to re-validate only the elements changed since then. */
+    private TopologyValidationCache validationCache = new TopologyValidationCache();
 
     /**
      * Create a new instance of a topology edition context from an existing topology.
@@ -78,6 +95,18 @@ public class EditionContext {
         this.archiveContentTree = DirectoryJSonWalker.getDirectoryTree(this.localGitPath);
     }
 
+    /**
+     * Restore the topology context to the state of a snapshot.
+     *
+     * @param topology The topology restored from the snapshot.
+     * @param archiveContentTree The archive content tree restored from the snapshot.
+     */
+    public void restore(Topology topology, TreeNode archiveContentTree) {
+        this.topology = topology;
+        this.toscaContext = new ToscaContext.Context(topology.getDependencies());
+        this.archiveContentTree = archiveContentTree;
+    }
+
     public void refreshContentTree() throws IOException {
         this.archiveContentTree = DirectoryJSonWalker.getDirectoryTree(this.localGitPath);
     }
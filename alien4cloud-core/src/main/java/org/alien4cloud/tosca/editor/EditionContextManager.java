@@ -2,7 +2,9 @@ package org.alien4cloud.tosca.editor;
 
 import java.io.IOException;
 import java.nio.file.Path;
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
 
 import javax.annotation.PostConstruct;
 import javax.inject.Inject;
@@ -15,18 +17,24 @@ import org.alien4cloud.tosca.editor.operations.AbstractEditorOperation;
 import org.alien4cloud.tosca.editor.operations.UpdateFileOperation;
 import org.alien4cloud.tosca.model.Csar;
 import org.alien4cloud.tosca.model.templates.Topology;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Component;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
 import com.google.common.cache.LoadingCache;
 import com.google.common.cache.RemovalListener;
 import com.google.common.cache.RemovalNotification;
+import com.google.common.util.concurrent.Striped;
 
 import alien4cloud.component.repository.IFileRepository;
+import alien4cloud.dao.ElasticSearchMapper;
 import alien4cloud.topology.TopologyServiceCore;
 import alien4cloud.tosca.context.ToscaContext;
+import alien4cloud.utils.AlienUtils;
+import alien4cloud.utils.TreeNode;
 import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
 
@@ -38,6 +46,10 @@ import lombok.extern.slf4j.Slf4j;
 public class EditionContextManager {
     /** Holds the topology context */
     private final static ThreadLocal<EditionContext> contextThreadLocal = new ThreadLocal<>();
+    /** Holds the lock of the topology under edition for the thread. */
+    private final static ThreadLocal<Lock> lockThreadLocal = new ThreadLocal<>();
+    /** Edition locks, operations on the same topology are serialized while operations on different topologies run in parallel. */
+    private final Striped<Lock> topologyLocks = Striped.lazyWeakLock(1024);
     @Inject
     private CsarService csarService;
     @Inject
@@ -47,6 +59,14 @@ public class EditionContextManager {
     @Inject
     private IFileRepository artifactRepository;
 
+    /** Number of operations between two snapshots of the edition state, 0 to disable snapshots. */
+    @Value("${editor.undo.snapshot_interval:10}")
+    private int snapshotInterval;
+    /** Maximum number of snapshots kept for every edition context. */
+    @Value("${editor.undo.max_snapshots:10}")
+    private int maxSnapshots;
+    private final ObjectMapper snapshotMapper = ElasticSearchMapper.getInstance();
+
     // TODO make cache management time a parameter
     private LoadingCache<String, EditionContext> contextCache;
 
@@ -82,14 +102,29 @@ public class EditionContextManager {
     }
 
     /**
-     * Initialize thread local contexts for the topology.
+     * Initialize thread local contexts for the topology. The edition lock of the topology is acquired and held until {@link #destroy()} is called so
+     * every call to init must be followed by a call to destroy (in a finally block).
      * 
      * @param topologyId The id of the topology.
      */
     @SneakyThrows
-    public synchronized void init(String topologyId) {
-        contextThreadLocal.set(contextCache.get(topologyId));
-        ToscaContext.set(contextThreadLocal.get().getToscaContext());
+    public void init(String topologyId) {
+        if (lockThreadLocal.get() != null) {
+            log.warn("Edition context has not been destroyed before initializing context for topology {}, releasing previous edition lock.", topologyId);
+            releaseLock();
+        }
+        Lock lock = topologyLocks.get(topologyId);
+        lock.lock();
+        lockThreadLocal.set(lock);
+        try {
+            contextThreadLocal.set(contextCache.get(topologyId));
+            ToscaContext.set(contextThreadLocal.get().getToscaContext());
+        } catch (Throwable e) {
+            // the caller may not reach its finally block (or has nothing to destroy), do not keep the topology locked.
+            contextThreadLocal.remove();
+            releaseLock();
+            throw e;
+        }
     }
 
     /**
@@ -103,6 +138,55 @@ public class EditionContextManager {
         ToscaContext.set(contextThreadLocal.get().getToscaContext());
     }
 
+    /**
+     * Take a snapshot of the current edition state if the last operation index is a snapshot point. When the maximum number of snapshots is reached the
+     * oldest snapshot is dropped.
+     *
+     * @throws IOException In case the serialization of the edition state fails.
+     */
+    public void snapshot() throws IOException {
+        EditionContext context = contextThreadLocal.get();
+        int index = context.getLastOperationIndex();
+        if (snapshotInterval <= 0 || maxSnapshots <= 0 || (index + 1) % snapshotInterval != 0) {
+            return;
+        }
+        context.getSnapshots().put(index, new EditionSnapshot(snapshotMapper.writeValueAsBytes(context.getTopology()),
+                snapshotMapper.writeValueAsBytes(context.getArchiveContentTree())));
+        while (context.getSnapshots().size() > maxSnapshots) {
+            context.getSnapshots().pollFirstEntry();
+        }
+    }
+
+    /**
+     * Restore the state of the topology context from the nearest snapshot taken at or before the given operation index, or reset it to its initial state
+     * if there is no such snapshot.
+     *
+     * @param at The index of the operation up to which the state must be rebuilt.
+     * @return The index of the last operation applied to the restored state (-1 if the context has been reset to its initial state).
+     * @throws IOException In case the parsing of the directory content fails or the snapshot cannot be read.
+     */
+    public int restore(int at) throws IOException {
+        EditionContext context = contextThreadLocal.get();
+        Map.Entry<Integer, EditionSnapshot> snapshotEntry = context.getSnapshots().floorEntry(at);
+        if (snapshotEntry == null) {
+            reset();
+            return -1;
+        }
+        log.debug("Restoring edition context of topology {} from snapshot at operation {}", context.getTopology().getId(), snapshotEntry.getKey());
+        TreeNode archiveContentTree = snapshotMapper.readValue(snapshotEntry.getValue().getArchiveContentTree(), TreeNode.class);
+        setParents(archiveContentTree);
+        context.restore(snapshotMapper.readValue(snapshotEntry.getValue().getTopology(), Topology.class), archiveContentTree);
+        ToscaContext.set(context.getToscaContext());
+        return snapshotEntry.getKey();
+    }
+
+    private void setParents(TreeNode node) {
+        for (TreeNode child : AlienUtils.safe(node.getChildren())) {
+            child.setParent(node);
+            setParents(child);
+        }
+    }
+
     /**
      * Get the current topology edition context for the thread.
      * 
@@ -131,11 +215,24 @@ public class EditionContextManager {
     }
 
     /**
-     * Remove thread local contexts.
+     * Clear the current operation of the context and remove thread local contexts.
      */
     public void destroy() {
+        EditionContext context = contextThreadLocal.get();
+        if (context != null) {
+            context.setCurrentOperation(null);
+        }
         contextThreadLocal.remove();
         ToscaContext.destroy();
+        releaseLock();
+    }
+
+    private void releaseLock() {
+        Lock lock = lockThreadLocal.get();
+        if (lock != null) {
+            lockThreadLocal.remove();
+            lock.unlock();
+        }
     }
 
     @EventListener
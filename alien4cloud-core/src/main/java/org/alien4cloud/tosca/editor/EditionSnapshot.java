@@ -0,0 +1,17 @@
+package org.alien4cloud.tosca.editor;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Serialized state of an edition context after a given operation. Snapshots allow undo/redo to replay operations from the nearest snapshot rather than
+ * from the saved topology.
+ */
+@Getter
+@AllArgsConstructor
+public class EditionSnapshot {
+    /** The serialized topology. */
+    private final byte[] topology;
+    /** The serialized archive content tree. */
+    private final byte[] archiveContentTree;
+}
@@ -37,7 +37,7 @@ public class EditorRepositoryService {
     }
 
     /**
-     * Update the archive zip from expended content.
+     * Update the archive from expended content, the zip is built again on next download.
      * 
      * @param archiveName The name of the archive to update.
      * @param archiveVersion The version of the archive to update.
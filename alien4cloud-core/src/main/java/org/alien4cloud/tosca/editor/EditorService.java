@@ -2,7 +2,6 @@ package org.alien4cloud.tosca.editor;
 
 import static alien4cloud.utils.FileUtil.isZipFile;
 
-import java.io.BufferedWriter;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.file.Files;
@@ -45,6 +44,7 @@ import alien4cloud.exception.NotFoundException;
 import alien4cloud.git.SimpleGitHistoryEntry;
 import alien4cloud.security.AuthorizationUtil;
 import alien4cloud.topology.TopologyDTO;
+import alien4cloud.topology.TopologyDeltaDTO;
 import alien4cloud.topology.TopologyService;
 import alien4cloud.topology.TopologyServiceCore;
 import alien4cloud.topology.TopologyValidationResult;
@@ -52,10 +52,12 @@ import alien4cloud.topology.TopologyValidationService;
 import alien4cloud.utils.CollectionUtils;
 import alien4cloud.utils.FileUtil;
 import alien4cloud.utils.ReflectionUtil;
+import lombok.extern.slf4j.Slf4j;
 
 /**
  * This service manages command execution on the TOSCA topology template editor.
  */
+@Slf4j
 @Service
 public class EditorService {
     @Inject
@@ -148,11 +150,12 @@ public class EditorService {
     }
 
     /**
-     * Ensure that the request is synchronized with the current state of the edition.
+     * Ensure that the request is synchronized with the current state of the edition. The topology edition lock is held by the current thread (see
+     * {@link EditionContextManager#init(String)}).
      *
      * @param operation, The operation under evaluation.
      */
-    private synchronized void checkSynchronization(AbstractEditorOperation operation) {
+    private void checkSynchronization(AbstractEditorOperation operation) {
         // there is an operation being processed so just fail (nobody could get the notification)
         if (EditionContextManager.get().getCurrentOperation() != null) {
             throw new EditionConcurrencyException();
@@ -186,7 +189,29 @@ public class EditorService {
             // return the topology context
             return dtoBuilder.buildTopologyDTO(EditionContextManager.get());
         } finally {
-            EditionContextManager.get().setCurrentOperation(null);
+            editionContextManager.destroy();
+        }
+    }
+
+    /**
+     * Execute an operation on a topology and return only the changes since the last operation known by the client (the previous operation id of the
+     * operation).
+     *
+     * @param topologyId The id of the topology under edition.
+     * @param operation The operation to execute.
+     * @return The changes of the topology or the full topology dto if the client must resynchronize.
+     */
+    public <T extends AbstractEditorOperation> TopologyDeltaDTO executeDelta(String topologyId, T operation) {
+        try {
+            initContext(topologyId, operation);
+
+            checkTopologyRecovery();
+
+            String fromOperationId = operation.getPreviousOperationId();
+            doExecute(operation);
+
+            return dtoBuilder.buildTopologyDeltaDTO(EditionContextManager.get(), fromOperationId);
+        } finally {
             editionContextManager.destroy();
         }
     }
@@ -199,13 +224,21 @@ public class EditorService {
 
         List<AbstractEditorOperation> operations = EditionContextManager.get().getOperations();
         if (EditionContextManager.get().getLastOperationIndex() != operations.size() - 1) {
-            // Clear the operations to 'redo'.
+            // Clear the operations to 'redo' and the snapshots taken after them.
             CollectionUtils.clearFrom(operations, EditionContextManager.get().getLastOperationIndex() + 1);
+            EditionContextManager.get().getSnapshots().tailMap(EditionContextManager.get().getLastOperationIndex(), false).clear();
         }
 
         // update the last operation and index
         EditionContextManager.get().getOperations().add(operation);
         EditionContextManager.get().setLastOperationIndex(EditionContextManager.get().getOperations().size() - 1);
+
+        try {
+            editionContextManager.snapshot();
+        } catch (IOException e) {
+            // snapshots are just an optimization for undo/redo.
+            log.warn("Failed to snapshot the edition context of topology " + EditionContextManager.getTopology().getId(), e);
+        }
     }
 
     /**
@@ -243,10 +276,11 @@ public class EditorService {
                 return dtoBuilder.buildTopologyDTO(EditionContextManager.get());
             }
 
-            // TODO Improve this by avoiding dao query for (deep) cloning topology and keeping cache for TOSCA types that are required.
-            editionContextManager.reset();
+            // redo operations from the current state or undo by replaying operations from the nearest snapshot (or the saved topology).
+            int from = at > EditionContextManager.get().getLastOperationIndex() ? EditionContextManager.get().getLastOperationIndex()
+                    : editionContextManager.restore(at);
 
-            for (int i = 0; i < at + 1; i++) {
+            for (int i = from + 1; i < at + 1; i++) {
                 AbstractEditorOperation operation = EditionContextManager.get().getOperations().get(i);
                 IEditorOperationProcessor processor = processorMap.get(operation.getClass());
                 processor.process(operation);
@@ -259,7 +293,6 @@ public class EditorService {
             // FIXME undo should be fail-safe...
             return null;
         } finally {
-            EditionContextManager.get().setCurrentOperation(null);
             editionContextManager.destroy();
         }
     }
@@ -282,7 +315,6 @@ public class EditorService {
             // FIXME git revert to put back the local files state in the initial state.
             throw new EditorIOException("Error while saving files state in local repository", e);
         } finally {
-            EditionContextManager.get().setCurrentOperation(null);
             editionContextManager.destroy();
         }
     }
@@ -320,16 +352,15 @@ public class EditorService {
         // TODO add support for undo even after save, this require ability to rollback files to git state, we need file rollback support for that..
         context.setOperations(Lists.newArrayList(context.getOperations().subList(context.getLastOperationIndex() + 1, context.getOperations().size())));
         context.setLastOperationIndex(-1);
+        context.getSnapshots().clear();
+        context.getDigests().clear();
     }
 
     private void saveYamlAndZipFile() throws IOException {
         // Update the yaml in the archive
         Csar csar = EditionContextManager.getCsar();
         Path targetPath = EditionContextManager.get().getLocalGitPath().resolve(csar.getYamlFilePath());
-        String yaml = exportService.getYaml(csar, EditionContextManager.getTopology());
-        try (BufferedWriter writer = Files.newBufferedWriter(targetPath)) {
-            writer.write(yaml);
-        }
+        exportService.writeYaml(csar, EditionContextManager.getTopology(), targetPath);
         // Update the archive zip for download
         repositoryService.updateArchiveZip(EditionContextManager.getCsar().getName(), EditionContextManager.getCsar().getVersion());
     }
@@ -484,7 +515,6 @@ public class EditorService {
             // Local git commit
             repositoryService.commit(EditionContextManager.get().getCsar(), commitMessage);
         } finally {
-            EditionContextManager.get().setCurrentOperation(null);
             editionContextManager.destroy();
         }
     }
@@ -525,7 +555,6 @@ public class EditorService {
             // FIXME git revert to put back the local files state in the initial state.
             throw new EditorIOException("Error while saving files state in local repository", e);
         } finally {
-            EditionContextManager.get().setCurrentOperation(null);
             editionContextManager.destroy();
         }
 
@@ -571,7 +600,7 @@ public class EditorService {
     }
 
     /**
-     * Validate if a topology is valid.
+     * Validate if a topology is valid. Only the node templates and workflows changed since the last validation of the edition context are validated again.
      * 
      * @param topologyId The id of the topology.
      * @return the validation result
@@ -579,7 +608,14 @@ public class EditorService {
     public TopologyValidationResult validateTopology(String topologyId) {
         try {
             editionContextManager.init(topologyId);
-            return topologyValidationService.validateTopology(EditionContextManager.getTopology());
+            EditionContext context = EditionContextManager.get();
+            // reuse the digest computed for the delta of the last operation if any
+            TopologyDigest digest = context.getLastOperationIndex() < 0 ? null
+                    : context.getDigests().get(context.getOperations().get(context.getLastOperationIndex()).getId());
+            if (digest == null) {
+                digest = dtoBuilder.buildTopologyDigest(context);
+            }
+            return topologyValidationService.validateTopology(context.getTopology(), context.getValidationCache(), digest);
         } finally {
             editionContextManager.destroy();
         }
@@ -0,0 +1,22 @@
+package org.alien4cloud.tosca.editor;
+
+import java.util.Map;
+
+import com.google.common.hash.HashCode;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Hashes of the parts of a topology under edition, used to compute the changes between two states of an edition context.
+ */
+@Getter
+@AllArgsConstructor
+public class TopologyDigest {
+    /** Hash of every node template by node template name. */
+    private final Map<String, HashCode> nodeTemplates;
+    /** Hash of every workflow by workflow name. */
+    private final Map<String, HashCode> workflows;
+    /** Hash of all other elements of the topology and of the archive content tree. */
+    private final HashCode others;
+}
@@ -1,6 +1,12 @@
 package org.alien4cloud.tosca.exporter;
 
+import java.io.IOException;
 import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -28,6 +34,8 @@ public class ArchiveExportService {
     @Inject
     private ApplicationService applicationService;
 
+    private static final String TOPOLOGY_TEMPLATE = "org/alien4cloud/tosca/exporter/topology-alien_dsl_1_3_0.yml.vm";
+
     /**
      * Get the yaml string out of a cloud service archive and topology.
      *
@@ -36,6 +44,43 @@ public class ArchiveExportService {
      * @return The TOSCA yaml file that describe the topology.
      */
     public String getYaml(Csar csar, Topology topology) {
+        Map<String, Object> velocityCtx = getVelocityContext(csar, topology);
+        try {
+            StringWriter writer = new StringWriter();
+            VelocityUtil.generate(TOPOLOGY_TEMPLATE, writer, velocityCtx);
+            return writer.toString();
+        } catch (Exception e) {
+            log.error("Exception while templating YAML for topology " + topology.getId(), e);
+            return ExceptionUtils.getFullStackTrace(e);
+        }
+    }
+
+    /**
+     * Write the yaml of a cloud service archive and topology to a file without building it in memory.
+     *
+     * The yaml is written to a temporary file next to the target file which replaces the target file once complete so the target file is left unchanged in
+     * case of failure.
+     *
+     * @param csar The csar that contains archive meta-data.
+     * @param topology The topology template within the archive.
+     * @param targetPath The path of the file in which to write the TOSCA yaml, the file is replaced if it exists.
+     * @throws IOException In case of a failure while writing the file.
+     */
+    public void writeYaml(Csar csar, Topology topology, Path targetPath) throws IOException {
+        Map<String, Object> velocityCtx = getVelocityContext(csar, topology);
+        // hidden file so that it is ignored by the archive hash if left behind
+        Path tempPath = targetPath.resolveSibling("." + targetPath.getFileName() + ".tmp");
+        try {
+            try (Writer writer = Files.newBufferedWriter(tempPath, StandardCharsets.UTF_8)) {
+                VelocityUtil.generate(TOPOLOGY_TEMPLATE, writer, velocityCtx);
+            }
+            Files.move(tempPath, targetPath, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(tempPath);
+        }
+    }
+
+    private Map<String, Object> getVelocityContext(Csar csar, Topology topology) {
         Map<String, Object> velocityCtx = new HashMap<>();
         velocityCtx.put("topology", topology);
         velocityCtx.put("template_name", csar.getName());
@@ -59,14 +104,6 @@ public class ArchiveExportService {
             Application application = applicationService.getOrFail(csar.getDelegateId());
             velocityCtx.put("topology_description", application.getDescription());
         }
-
-        try {
-            StringWriter writer = new StringWriter();
-            VelocityUtil.generate("org/alien4cloud/tosca/exporter/topology-alien_dsl_1_3_0.yml.vm", writer, velocityCtx);
-            return writer.toString();
-        } catch (Exception e) {
-            log.error("Exception while templating YAML for topology " + topology.getId(), e);
-            return ExceptionUtils.getFullStackTrace(e);
-        }
+        return velocityCtx;
     }
-}
\ No newline at end of file
+}
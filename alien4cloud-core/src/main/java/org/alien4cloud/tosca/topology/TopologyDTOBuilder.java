@@ -1,33 +1,55 @@
 package org.alien4cloud.tosca.topology;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.*;
 import java.util.stream.Collectors;
 
 import org.alien4cloud.tosca.editor.EditionContext;
+import org.alien4cloud.tosca.editor.TopologyDigest;
+import org.alien4cloud.tosca.editor.operations.AbstractEditorOperation;
 import org.alien4cloud.tosca.model.CSARDependency;
 import org.alien4cloud.tosca.model.definitions.CapabilityDefinition;
 import org.alien4cloud.tosca.model.definitions.PropertyDefinition;
 import org.alien4cloud.tosca.model.definitions.RequirementDefinition;
 import org.alien4cloud.tosca.model.templates.AbstractTemplate;
 import org.alien4cloud.tosca.model.templates.NodeTemplate;
+import org.alien4cloud.tosca.model.templates.RelationshipTemplate;
 import org.alien4cloud.tosca.model.templates.Topology;
 import org.alien4cloud.tosca.model.types.*;
 import org.springframework.stereotype.Service;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import com.google.common.hash.Funnels;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
 
+import alien4cloud.paas.wf.Workflow;
+import alien4cloud.rest.utils.RestMapper;
 import alien4cloud.topology.AbstractTopologyDTO;
 import alien4cloud.topology.DependencyConflictDTO;
 import alien4cloud.topology.TopologyDTO;
+import alien4cloud.topology.TopologyDeltaDTO;
 import alien4cloud.tosca.context.ToscaContext;
 import alien4cloud.tosca.context.ToscaContextual;
 import alien4cloud.tosca.normative.ToscaType;
+import lombok.SneakyThrows;
+
+import static alien4cloud.utils.AlienUtils.safe;
 
 /**
  * Service that helps to create a topology dto object out of a topology.
  */
 @Service
 public class TopologyDTOBuilder {
+    private final ObjectWriter digestWriter = new RestMapper().writer();
+    private final ObjectWriter othersDigestWriter = new RestMapper().addMixIn(Topology.class, TopologyOthersDigestMixin.class).writer();
+
     /**
      * Build a topology dto (topology and all used types) out of a topology.
      * 
@@ -48,6 +70,115 @@ public class TopologyDTOBuilder {
         return topologyDTO;
     }
 
+    /**
+     * Build the changes of the topology under edition since a given operation. The digest of the current state is recorded in the context so that the
+     * changes of the next operation can be computed. A full topology dto is provided when the changes since the given operation are not known or are not
+     * limited to node templates and workflows.
+     *
+     * @param context The edition context from which to build the dto.
+     * @param fromOperationId The id of the last operation known by the client.
+     */
+    @ToscaContextual
+    public TopologyDeltaDTO buildTopologyDeltaDTO(EditionContext context, String fromOperationId) {
+        TopologyDigest digest = getTopologyDigest(context);
+
+        TopologyDeltaDTO deltaDTO = new TopologyDeltaDTO();
+        deltaDTO.setFromOperationId(fromOperationId);
+        deltaDTO.setLastOperationIndex(context.getLastOperationIndex());
+        TopologyDigest fromDigest = fromOperationId == null ? null : context.getDigests().get(fromOperationId);
+        if (fromDigest == null || !fromDigest.getOthers().equals(digest.getOthers())) {
+            deltaDTO.setFullResync(true);
+            deltaDTO.setTopologyDTO(buildTopologyDTO(context));
+            return deltaDTO;
+        }
+        deltaDTO.setOperations(getOperationsSince(context, fromOperationId));
+
+        Topology topology = context.getTopology();
+        Map<String, NodeTemplate> nodeTemplates = Maps.newHashMap();
+        getChangedKeys(fromDigest.getNodeTemplates(), digest.getNodeTemplates()).forEach(name -> nodeTemplates.put(name, topology.getNodeTemplates().get(name)));
+        Map<String, Workflow> workflows = Maps.newHashMap();
+        getChangedKeys(fromDigest.getWorkflows(), digest.getWorkflows()).forEach(name -> workflows.put(name, topology.getWorkflows().get(name)));
+        deltaDTO.setNodeTemplates(nodeTemplates);
+        deltaDTO.setRemovedNodeTemplates(Sets.newHashSet(Sets.difference(fromDigest.getNodeTemplates().keySet(), digest.getNodeTemplates().keySet())));
+        deltaDTO.setWorkflows(workflows);
+        deltaDTO.setRemovedWorkflows(Sets.newHashSet(Sets.difference(fromDigest.getWorkflows().keySet(), digest.getWorkflows().keySet())));
+
+        // only provide the types used by the changed node templates
+        Topology changedTopology = new Topology();
+        changedTopology.setDependencies(topology.getDependencies());
+        changedTopology.setNodeTemplates(nodeTemplates);
+        AbstractTopologyDTO<Topology> typesDTO = new AbstractTopologyDTO<>();
+        buildAbstractTopologyDTO(changedTopology, typesDTO);
+        deltaDTO.setNodeTypes(typesDTO.getNodeTypes());
+        deltaDTO.setRelationshipTypes(typesDTO.getRelationshipTypes());
+        deltaDTO.setCapabilityTypes(typesDTO.getCapabilityTypes());
+        deltaDTO.setDataTypes(typesDTO.getDataTypes());
+        return deltaDTO;
+    }
+
+    /**
+     * Get the digest of the current state of an edition context. The topology only changes through operations so the digest is computed once per operation
+     * and then kept in the context.
+     */
+    private TopologyDigest getTopologyDigest(EditionContext context) {
+        if (context.getLastOperationIndex() < 0) {
+            return buildTopologyDigest(context);
+        }
+        return context.getDigests().computeIfAbsent(context.getOperations().get(context.getLastOperationIndex()).getId(),
+                operationId -> buildTopologyDigest(context));
+    }
+
+    /**
+     * Compute the digest of the current state of an edition context.
+     *
+     * Operations modify the templates in place so a digest cannot be updated from the previous one, every element is streamed to its hash without building
+     * the json of the whole topology.
+     *
+     * @param context The edition context.
+     * @return The digest of the topology under edition.
+     */
+    public TopologyDigest buildTopologyDigest(EditionContext context) {
+        Topology topology = context.getTopology();
+        Map<String, HashCode> nodeTemplates = Maps.newHashMap();
+        safe(topology.getNodeTemplates()).forEach((name, nodeTemplate) -> nodeTemplates.put(name, hash(digestWriter, nodeTemplate)));
+        Map<String, HashCode> workflows = Maps.newHashMap();
+        safe(topology.getWorkflows()).forEach((name, workflow) -> workflows.put(name, hash(digestWriter, workflow)));
+        HashCode others = Hashing.combineOrdered(
+                Lists.newArrayList(hash(othersDigestWriter, topology), hash(digestWriter, context.getArchiveContentTree())));
+        return new TopologyDigest(nodeTemplates, workflows, others);
+    }
+
+    @SneakyThrows(IOException.class)
+    private HashCode hash(ObjectWriter writer, Object value) {
+        Hasher hasher = Hashing.murmur3_128().newHasher();
+        try (OutputStream hasherStream = Funnels.asOutputStream(hasher)) {
+            writer.writeValue(hasherStream, value);
+        }
+        return hasher.hash();
+    }
+
+    /** Excludes the elements of the topology that are hashed one by one. */
+    @JsonIgnoreProperties({ "nodeTemplates", "workflows" })
+    private static abstract class TopologyOthersDigestMixin {
+    }
+
+    /**
+     * Get the operations applied after the given operation, empty if the given operation has been undone.
+     */
+    private List<AbstractEditorOperation> getOperationsSince(EditionContext context, String fromOperationId) {
+        List<AbstractEditorOperation> operations = context.getOperations();
+        for (int i = context.getLastOperationIndex(); i >= 0; i--) {
+            if (fromOperationId.equals(operations.get(i).getId())) {
+                return Lists.newArrayList(operations.subList(i + 1, context.getLastOperationIndex() + 1));
+            }
+        }
+        return Lists.newArrayList();
+    }
+
+    private Set<String> getChangedKeys(Map<String, HashCode> from, Map<String, HashCode> to) {
+        return to.entrySet().stream().filter(entry -> !entry.getValue().equals(from.get(entry.getKey()))).map(Map.Entry::getKey).collect(Collectors.toSet());
+    }
+
     /**
      * Compute a list of transitive dependency conflicts from the Context.
      * @param context the EditionContext of the Topology being built.
@@ -105,6 +236,9 @@ public class TopologyDTOBuilder {
 
     private <T extends Topology> Map<String, NodeType> getNodeTypes(T topology) {
         Map<String, NodeType> types = Maps.newHashMap();
+        if (topology.getNodeTemplates() != null) {
+            ToscaContext.preload(NodeType.class, topology.getNodeTemplates().values().stream().map(NodeTemplate::getType).collect(Collectors.toSet()));
+        }
         fillTypeMap(NodeType.class, types, topology.getNodeTemplates(), false, false);
         return types;
     }
@@ -112,6 +246,9 @@ public class TopologyDTOBuilder {
     private <T extends Topology> Map<String, RelationshipType> getRelationshipTypes(T topology) {
         Map<String, RelationshipType> types = Maps.newHashMap();
         if (topology.getNodeTemplates() != null) {
+            ToscaContext.preload(RelationshipType.class, topology.getNodeTemplates().values().stream()
+                    .flatMap(nodeTemplate -> safe(nodeTemplate.getRelationships()).values().stream()).map(RelationshipTemplate::getType)
+                    .collect(Collectors.toSet()));
             for (NodeTemplate nodeTemplate : topology.getNodeTemplates().values()) {
                 fillTypeMap(RelationshipType.class, types, nodeTemplate.getRelationships(), false, false);
             }
@@ -122,6 +259,14 @@ public class TopologyDTOBuilder {
     private <T extends Topology> Map<String, CapabilityType> getCapabilityTypes(AbstractTopologyDTO<T> topologyDTO) {
         Map<String, CapabilityType> types = Maps.newHashMap();
         Map<String, NodeType> delayedNodeTypeAddMap = Maps.newHashMap();
+        Set<String> capabilityTypeIds = Sets.newHashSet();
+        for (NodeType nodeType : topologyDTO.getNodeTypes().values()) {
+            if (nodeType != null) {
+                safe(nodeType.getCapabilities()).forEach(capabilityDefinition -> capabilityTypeIds.add(capabilityDefinition.getType()));
+                safe(nodeType.getRequirements()).forEach(requirementDefinition -> capabilityTypeIds.add(requirementDefinition.getType()));
+            }
+        }
+        ToscaContext.preload(CapabilityType.class, capabilityTypeIds);
         for (NodeType nodeType : topologyDTO.getNodeTypes().values()) {
             if (nodeType != null) {
                 for (CapabilityDefinition capabilityDefinition : nodeType.getCapabilities()) {
@@ -171,6 +316,14 @@ public class TopologyDTOBuilder {
     }
 
     private <T extends AbstractInheritableToscaType> Map<String, DataType> fillDataTypes(Map<String, DataType> indexedDataTypes, Map<String, T> elements) {
+        Set<String> dataTypeIds = Sets.newHashSet();
+        for (AbstractInheritableToscaType indexedNodeType : elements.values()) {
+            if (indexedNodeType != null && indexedNodeType.getProperties() != null) {
+                indexedNodeType.getProperties().values().stream().map(PropertyDefinition::getType)
+                        .filter(type -> !ToscaType.isPrimitive(type) && !indexedDataTypes.containsKey(type)).forEach(dataTypeIds::add);
+            }
+        }
+        ToscaContext.preload(DataType.class, dataTypeIds);
         for (AbstractInheritableToscaType indexedNodeType : elements.values()) {
             if (indexedNodeType != null && indexedNodeType.getProperties() != null) {
                 for (PropertyDefinition pd : indexedNodeType.getProperties().values()) {
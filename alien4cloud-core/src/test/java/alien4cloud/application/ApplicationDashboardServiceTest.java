@@ -0,0 +1,228 @@
+package alien4cloud.application;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Matchers;
+import org.mockito.Mockito;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+
+import alien4cloud.dao.IGenericSearchDAO;
+import alien4cloud.dao.model.GetMultipleDataResult;
+import alien4cloud.model.application.Application;
+import alien4cloud.model.application.ApplicationEnvironment;
+import alien4cloud.model.deployment.Deployment;
+import alien4cloud.security.AuthorizationUtil;
+import alien4cloud.security.groups.IAlienGroupDao;
+import alien4cloud.security.model.ApplicationEnvironmentRole;
+import alien4cloud.security.model.ApplicationRole;
+import alien4cloud.security.model.Group;
+import alien4cloud.security.model.Role;
+import alien4cloud.security.model.User;
+import alien4cloud.utils.AlienConstants;
+
+/**
+ * Check that the environments returned by the dashboard service are the ones the per application authorization checks of {@link AuthorizationUtil}
+ * allow.
+ */
+public class ApplicationDashboardServiceTest {
+    private static final String ALL_USERS_GROUP_ID = "all-users";
+    private static final String DENIED = "denied";
+
+    private ApplicationDashboardService service;
+    private Object previousGroupDao;
+    private Map<String, Application> applications = Maps.newLinkedHashMap();
+    private List<ApplicationEnvironment> environments = Lists.newArrayList();
+
+    @Before
+    public void before() {
+        IGenericSearchDAO alienDAO = Mockito.mock(IGenericSearchDAO.class);
+        Mockito.when(alienDAO.findByIds(Matchers.eq(Application.class), Matchers.<String> anyVararg())).thenAnswer(invocation -> {
+            List<Application> found = Lists.newArrayList();
+            for (Object id : Arrays.asList(invocation.getArguments()).subList(1, invocation.getArguments().length)) {
+                for (Object applicationId : id instanceof String[] ? (String[]) id : new Object[] { id }) {
+                    if (applications.containsKey(applicationId)) {
+                        found.add(applications.get(applicationId));
+                    }
+                }
+            }
+            return found;
+        });
+        Mockito.when(alienDAO.find(Matchers.eq(ApplicationEnvironment.class), Matchers.anyMap(), Matchers.anyInt())).thenAnswer(invocation -> {
+            Set<String> applicationIds = Sets.newHashSet(((Map<String, String[]>) invocation.getArguments()[1]).get("applicationId"));
+            List<ApplicationEnvironment> found = environments.stream().filter(environment -> applicationIds.contains(environment.getApplicationId()))
+                    .collect(Collectors.toList());
+            return new GetMultipleDataResult<>(new String[] { "applicationenvironment" }, found.toArray(new ApplicationEnvironment[found.size()]));
+        });
+        Mockito.when(alienDAO.find(Matchers.eq(Deployment.class), Matchers.anyMap(), Matchers.anyInt()))
+                .thenReturn(new GetMultipleDataResult<>(new String[] { "deployment" }, new Deployment[0]));
+        service = new ApplicationDashboardService();
+        ReflectionTestUtils.setField(service, "alienDAO", alienDAO);
+
+        Group allUsers = new Group();
+        allUsers.setId(ALL_USERS_GROUP_ID);
+        allUsers.setName(AlienConstants.GROUP_NAME_ALL_USERS);
+        IAlienGroupDao groupDao = Mockito.mock(IAlienGroupDao.class);
+        Mockito.when(groupDao.findByName(AlienConstants.GROUP_NAME_ALL_USERS)).thenReturn(allUsers);
+        previousGroupDao = ReflectionTestUtils.getField(AuthorizationUtil.class, "alienGroupDao");
+        ReflectionTestUtils.setField(AuthorizationUtil.class, "alienGroupDao", groupDao);
+
+        // roles given to a user, to one of its groups or to all users, on the application and on its environments
+        application("user-app", roles("alice", ApplicationRole.APPLICATION_USER), null);
+        environment("user-app", "user-app-env-user", roles("alice", ApplicationEnvironmentRole.APPLICATION_USER), null);
+        environment("user-app", "user-app-env-manager", null, roles("devs", ApplicationEnvironmentRole.DEPLOYMENT_MANAGER));
+        environment("user-app", "user-app-env-none", null, null);
+        application("group-app", null, roles("devs", ApplicationRole.APPLICATION_DEVOPS));
+        environment("group-app", "group-app-env-group", null, roles("devs", ApplicationEnvironmentRole.APPLICATION_USER));
+        environment("group-app", "group-app-env-user", roles("alice", ApplicationEnvironmentRole.DEPLOYMENT_MANAGER), null);
+        environment("group-app", "group-app-env-none", null, null);
+        application("managed-app", roles("bob", ApplicationRole.APPLICATION_MANAGER), roles("devs", ApplicationRole.APPLICATION_USER));
+        environment("managed-app", "managed-app-env-none", null, null);
+        environment("managed-app", "managed-app-env-all", null, roles(ALL_USERS_GROUP_ID, ApplicationEnvironmentRole.APPLICATION_USER));
+        application("all-users-app", null, roles(ALL_USERS_GROUP_ID, ApplicationRole.APPLICATION_USER));
+        environment("all-users-app", "all-users-app-env-all", null, roles(ALL_USERS_GROUP_ID, ApplicationEnvironmentRole.DEPLOYMENT_MANAGER));
+        environment("all-users-app", "all-users-app-env-user", roles("bob", ApplicationEnvironmentRole.APPLICATION_USER), null);
+        application("private-app", null, null);
+        environment("private-app", "private-app-env-user", roles("alice", ApplicationEnvironmentRole.DEPLOYMENT_MANAGER), null);
+    }
+
+    @After
+    public void after() {
+        SecurityContextHolder.clearContext();
+        ReflectionTestUtils.setField(AuthorizationUtil.class, "alienGroupDao", previousGroupDao);
+    }
+
+    private <R> Map<String, Set<String>> roles(String name, R role) {
+        Map<String, Set<String>> roles = Maps.newHashMap();
+        roles.put(name, Sets.newHashSet(role.toString()));
+        return roles;
+    }
+
+    private void application(String id, Map<String, Set<String>> userRoles, Map<String, Set<String>> groupRoles) {
+        Application application = new Application();
+        application.setId(id);
+        application.setName(id);
+        application.setUserRoles(userRoles);
+        application.setGroupRoles(groupRoles);
+        applications.put(id, application);
+    }
+
+    private void environment(String applicationId, String id, Map<String, Set<String>> userRoles, Map<String, Set<String>> groupRoles) {
+        ApplicationEnvironment environment = new ApplicationEnvironment();
+        environment.setId(id);
+        environment.setName(id);
+        environment.setApplicationId(applicationId);
+        environment.setUserRoles(userRoles);
+        environment.setGroupRoles(groupRoles);
+        environments.add(environment);
+    }
+
+    private void login(String username, Set<String> groups, Role... roles) {
+        User user = new User(username, username, username, username + "@alien4cloud.org");
+        user.setGroups(groups);
+        user.setRoles(Arrays.stream(roles).map(Role::toString).toArray(String[]::new));
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities()));
+    }
+
+    /** Environments the previous implementation returned for an application: one authorization check per application and per environment. */
+    private Set<String> getExpectedEnvironments(String applicationId) {
+        Application application = applications.get(applicationId);
+        try {
+            AuthorizationUtil.checkAuthorizationForApplication(application, ApplicationRole.values());
+        } catch (AccessDeniedException e) {
+            return Collections.singleton(DENIED);
+        }
+        return environments.stream().filter(environment -> environment.getApplicationId().equals(applicationId))
+                .filter(environment -> AuthorizationUtil.hasAuthorizationForEnvironment(application, environment, ApplicationEnvironmentRole.values()))
+                .map(ApplicationEnvironment::getId).collect(Collectors.toSet());
+    }
+
+    private Set<String> getEnvironments(String applicationId) {
+        try {
+            return getEnvironmentIds(service.getEnvironments(Collections.singletonList(applicationId)).get(applicationId));
+        } catch (AccessDeniedException e) {
+            return Collections.singleton(DENIED);
+        }
+    }
+
+    private Set<String> getEnvironmentIds(List<ApplicationDashboardService.EnvironmentDeployment> environmentDeployments) {
+        return environmentDeployments.stream().map(environmentDeployment -> environmentDeployment.getEnvironment().getId()).collect(Collectors.toSet());
+    }
+
+    /** Check every application one by one and all the authorized applications at once against the per application checks. */
+    private void assertSameAuthorizations() {
+        List<String> authorizedApplicationIds = Lists.newArrayList();
+        for (String applicationId : applications.keySet()) {
+            Set<String> expected = getExpectedEnvironments(applicationId);
+            assertEquals(applicationId, expected, getEnvironments(applicationId));
+            if (!expected.contains(DENIED)) {
+                authorizedApplicationIds.add(applicationId);
+            }
+        }
+        Map<String, List<ApplicationDashboardService.EnvironmentDeployment>> environmentsByApplicationId = service.getEnvironments(authorizedApplicationIds);
+        assertEquals(authorizedApplicationIds, Lists.newArrayList(environmentsByApplicationId.keySet()));
+        for (String applicationId : authorizedApplicationIds) {
+            assertEquals(applicationId, getExpectedEnvironments(applicationId), getEnvironmentIds(environmentsByApplicationId.get(applicationId)));
+        }
+    }
+
+    @Test
+    public void userRolesShouldGiveTheSameEnvironments() {
+        login("alice", null);
+        assertSameAuthorizations();
+        assertEquals(Sets.newHashSet("user-app-env-user"), getEnvironments("user-app"));
+    }
+
+    @Test
+    public void groupRolesShouldGiveTheSameEnvironments() {
+        login("carol", Sets.newHashSet("devs"));
+        assertSameAuthorizations();
+        assertEquals(Sets.newHashSet("group-app-env-group"), getEnvironments("group-app"));
+        assertEquals(Sets.newHashSet("managed-app-env-all"), getEnvironments("managed-app"));
+    }
+
+    @Test
+    public void applicationManagerShouldGetAllTheEnvironments() {
+        login("bob", null);
+        assertSameAuthorizations();
+        assertEquals(Sets.newHashSet("managed-app-env-none", "managed-app-env-all"), getEnvironments("managed-app"));
+        assertEquals(Sets.newHashSet("all-users-app-env-all", "all-users-app-env-user"), getEnvironments("all-users-app"));
+    }
+
+    @Test
+    public void userWithoutRolesShouldOnlyGetTheAllUsersGroupEnvironments() {
+        login("dave", Sets.newHashSet());
+        assertSameAuthorizations();
+        assertEquals(Collections.singleton(DENIED), getEnvironments("private-app"));
+        assertEquals(Sets.newHashSet("all-users-app-env-all"), getEnvironments("all-users-app"));
+    }
+
+    @Test
+    public void adminShouldGetAllTheEnvironments() {
+        login("admin", null, Role.ADMIN);
+        assertSameAuthorizations();
+        assertEquals(Sets.newHashSet("private-app-env-user"), getEnvironments("private-app"));
+    }
+
+    @Test(expected = AccessDeniedException.class)
+    public void batchWithADeniedApplicationShouldBeDenied() {
+        login("alice", null);
+        service.getEnvironments(Lists.newArrayList("user-app", "private-app"));
+    }
+}
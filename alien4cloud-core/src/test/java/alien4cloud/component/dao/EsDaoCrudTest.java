@@ -23,6 +23,7 @@ import org.elasticsearch.action.admin.indices.exists.indices.IndicesExistsRespon
 import org.elasticsearch.action.admin.indices.exists.types.TypesExistsRequest;
 import org.elasticsearch.action.admin.indices.exists.types.TypesExistsResponse;
 import org.elasticsearch.action.get.GetResponse;
+import org.elasticsearch.index.query.QueryBuilders;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -31,16 +32,19 @@ import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
 
 import alien4cloud.dao.ElasticSearchDAO;
 import alien4cloud.dao.IGenericSearchDAO;
+import alien4cloud.dao.WritePolicy;
 import alien4cloud.dao.model.FetchContext;
 import alien4cloud.exception.IndexingServiceException;
 import alien4cloud.model.application.Application;
 import alien4cloud.model.common.Tag;
 import org.alien4cloud.tosca.model.definitions.CapabilityDefinition;
+import org.alien4cloud.tosca.model.types.CapabilityType;
 import org.alien4cloud.tosca.model.types.NodeType;
 import org.alien4cloud.tosca.model.types.AbstractToscaType;
 import org.alien4cloud.tosca.model.definitions.PropertyDefinition;
 import org.alien4cloud.tosca.model.definitions.RequirementDefinition;
 import alien4cloud.rest.utils.JsonUtil;
+import alien4cloud.utils.AlienConstants;
 
 import com.fasterxml.jackson.core.JsonGenerationException;
 import com.fasterxml.jackson.core.JsonProcessingException;
@@ -167,6 +171,96 @@ public class EsDaoCrudTest extends AbstractDAOTest {
         refresh();
     }
 
+    @Test
+    public void customFindAllShouldFindAllElements() {
+        saveApplications();
+        // less elements than a batch, found by a single search
+        List<Application> apps = dao.customFindAll(Application.class, QueryBuilders.matchAllQuery());
+        assertEquals(3, apps.size());
+        assertNull(dao.customFindAll(Application.class, QueryBuilders.termQuery("name", "unknown")));
+
+        // more elements than a batch, found by scrolling
+        Application[] moreApps = new Application[IGenericSearchDAO.DEFAULT_SCROLL_BATCH_SIZE];
+        for (int i = 0; i < moreApps.length; i++) {
+            moreApps[i] = new Application();
+            moreApps[i].setId("more-" + i);
+            moreApps[i].setName("more-app-" + i);
+        }
+        dao.save(moreApps);
+        refresh();
+        apps = dao.customFindAll(Application.class, QueryBuilders.matchAllQuery());
+        assertEquals(IGenericSearchDAO.DEFAULT_SCROLL_BATCH_SIZE + 3, apps.size());
+    }
+
+    @Test
+    public void bulkSaveShouldCreateNewAndUpdateExistingElements() {
+        saveApplications();
+        Application updated = dao.findById(Application.class, "2");
+        updated.setName("app2-updated");
+        Application created = new Application();
+        created.setId("4");
+        created.setName("app4");
+        dao.save(new Application[] { updated, created }, WritePolicy.IMMEDIATE);
+        // the bulk request refreshes the index
+        List<Application> apps = dao.customFindAll(Application.class, QueryBuilders.matchAllQuery());
+        assertEquals(4, apps.size());
+        assertEquals("app1", dao.findById(Application.class, "1").getName());
+        assertEquals("app2-updated", dao.findById(Application.class, "2").getName());
+        assertEquals("app4", dao.findById(Application.class, "4").getName());
+
+        // elements of different types in the same request
+        dao.save(indexedNodeTypeTest);
+        indexedNodeTypeTest.setDescription("updated");
+        CapabilityType capabilityType = createCapabilityType("tosca.capabilities.Test", indexedNodeTypeTest.getArchiveName());
+        dao.save(new AbstractToscaType[] { indexedNodeTypeTest, capabilityType }, WritePolicy.NEXT_REFRESH);
+        assertEquals("updated", dao.findById(NodeType.class, indexedNodeTypeTest.getId()).getDescription());
+        assertNotNull(dao.findById(CapabilityType.class, capabilityType.getId()));
+    }
+
+    @Test
+    public void typesDefinedInAnotherArchiveShouldBeFoundWithASingleMultiGet() {
+        CapabilityType capabilityType = createCapabilityType("tosca.capabilities.Test", indexedNodeTypeTest.getArchiveName());
+        dao.save(new AbstractToscaType[] { indexedNodeTypeTest, capabilityType }, WritePolicy.IMMEDIATE);
+
+        // another archive defines the same types and a new one, as checked by the archive indexer before indexing it
+        NodeType newNodeType = TestModelUtil.createIndexedNodeType("tosca.nodes.New", "other-archive", indexedNodeTypeTest.getArchiveVersion(), "", null,
+                null, null, null, null, new Date(), new Date());
+        List<AbstractToscaType> indexedTypes = dao.findByIds(AbstractToscaType.class, indexedNodeTypeTest.getId(), capabilityType.getId(),
+                newNodeType.getId());
+        assertEquals(2, indexedTypes.size());
+        for (AbstractToscaType indexedType : indexedTypes) {
+            // types are read as their concrete class
+            if (indexedType.getId().equals(indexedNodeTypeTest.getId())) {
+                assertTrue(indexedType instanceof NodeType);
+            } else {
+                assertEquals(capabilityType.getId(), indexedType.getId());
+                assertTrue(indexedType instanceof CapabilityType);
+            }
+            assertNotEquals(newNodeType.getArchiveName(), indexedType.getArchiveName());
+        }
+        assertTrue(dao.findByIds(AbstractToscaType.class, newNodeType.getId()).isEmpty());
+    }
+
+    private CapabilityType createCapabilityType(String elementId, String archiveName) {
+        CapabilityType capabilityType = new CapabilityType();
+        capabilityType.setElementId(elementId);
+        capabilityType.setArchiveName(archiveName);
+        capabilityType.setArchiveVersion(indexedNodeTypeTest.getArchiveVersion());
+        capabilityType.setWorkspace(AlienConstants.GLOBAL_WORKSPACE_ID);
+        return capabilityType;
+    }
+
+    @Test
+    public void deleteByQueryShouldDeleteMatchingElements() {
+        saveApplications();
+        dao.delete(Application.class, QueryBuilders.idsQuery().ids("1", "2"));
+        List<Application> apps = dao.customFindAll(Application.class, QueryBuilders.matchAllQuery());
+        assertEquals(1, apps.size());
+        assertEquals("3", apps.get(0).getId());
+        // nothing to delete
+        dao.delete(Application.class, QueryBuilders.idsQuery().ids("1", "2"));
+    }
+
     @Test
     public void deleteToscaComponentSuccessfulTest() throws IndexingServiceException, JsonProcessingException {
 
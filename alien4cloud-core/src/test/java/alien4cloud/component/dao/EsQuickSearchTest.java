@@ -15,6 +15,7 @@ import javax.annotation.Resource;
 import lombok.extern.slf4j.Slf4j;
 
 import org.elasticsearch.action.get.GetResponse;
+import org.elasticsearch.index.query.FilterBuilders;
 import org.elasticsearch.mapping.MappingBuilder;
 import org.junit.Before;
 import org.junit.Test;
@@ -24,7 +25,9 @@ import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
 
 import alien4cloud.dao.ElasticSearchDAO;
 import alien4cloud.dao.IGenericSearchDAO;
+import alien4cloud.dao.model.FetchContext;
 import alien4cloud.dao.model.GetMultipleDataResult;
+import alien4cloud.dao.model.SearchQuery;
 import alien4cloud.exception.IndexingServiceException;
 import alien4cloud.model.application.Application;
 import org.alien4cloud.tosca.model.definitions.CapabilityDefinition;
@@ -33,6 +36,7 @@ import org.alien4cloud.tosca.model.definitions.RequirementDefinition;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
 
@@ -89,6 +93,42 @@ public class EsQuickSearchTest extends AbstractDAOTest {
         assertElementIn("application", searchResp.getTypes());
     }
 
+    @Test
+    public void multiSearchShouldApplyTheSearchText() {
+        List<GetMultipleDataResult<Object>> results = alienDAO.multiSearch(Lists.newArrayList(new SearchQuery(
+                new String[] { ElasticSearchDAO.TOSCA_ELEMENT_INDEX }, new Class<?>[] { NodeType.class }, "app", null, null, FetchContext.QUICK_SEARCH, 0, 10)));
+        assertEquals(1, results.size());
+        // pokerFace does not match the search text
+        assertEquals(1, results.get(0).getData().length);
+        assertEquals("nodetype", results.get(0).getTypes()[0]);
+        assertEquals(indexedNodeTypeTest.getElementId(), ((NodeType) results.get(0).getData()[0]).getElementId());
+    }
+
+    @Test
+    public void multiSearchShouldApplyTheAuthorizationFilter() {
+        // an application Igor is not authorized on
+        Application otherApp = new Application();
+        otherApp.setId("application-2");
+        otherApp.setName("application-2");
+        Map<String, Set<String>> otherUserRoles = Maps.newHashMap();
+        otherUserRoles.put("Luc", Sets.newHashSet("APPLICATION_MANAGER"));
+        otherApp.setUserRoles(otherUserRoles);
+        alienDAO.save(otherApp);
+        refresh();
+
+        // same filter as AuthorizationUtil.getResourceAuthorizationFilters for user Igor
+        List<GetMultipleDataResult<Object>> results = alienDAO.multiSearch(Lists.newArrayList(
+                new SearchQuery(new String[] { ElasticSearchDAO.TOSCA_ELEMENT_INDEX }, new Class<?>[] { NodeType.class }, "app", null, null,
+                        FetchContext.QUICK_SEARCH, 0, 10),
+                new SearchQuery(new String[] { APPLICATION_INDEX }, new Class<?>[] { Application.class }, "app", null,
+                        FilterBuilders.nestedFilter("userRoles", FilterBuilders.termFilter("userRoles.key", "Igor")), FetchContext.QUICK_SEARCH, 0, 10)));
+        assertEquals(2, results.size());
+        assertEquals(1, results.get(0).getData().length);
+        // application-2 is not visible by Igor
+        assertEquals(1, results.get(1).getData().length);
+        assertEquals("application-1", ((Application) results.get(1).getData()[0]).getName());
+    }
+
     private void assertElementIn(Object element, Object[] elements) {
         assertTrue(Arrays.asList(elements).contains(element));
     }
@@ -1,13 +1,17 @@
 package alien4cloud.component.repository;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.util.zip.ZipFile;
 
 import javax.annotation.Resource;
 
@@ -22,6 +26,7 @@ import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
 
 import alien4cloud.component.repository.exception.CSARStorageFailureException;
 import alien4cloud.exception.NotFoundException;
+import alien4cloud.git.RepositoryManager;
 import alien4cloud.utils.AlienConstants;
 import alien4cloud.utils.FileUtil;
 import lombok.extern.slf4j.Slf4j;
@@ -36,6 +41,8 @@ public class CsarRepositoryTest {
     private String tmpPath = "src/test/resources/data/test-file.zip";
     private String testFileName = "positive";
     private static final String ARCHIVE_EXTENSION = "csar";
+    /** Modification date given to a zip to know if it has been built again. */
+    private static final FileTime OUTDATED = FileTime.fromMillis(0);
     @Value("${directories.alien}/${directories.csar_repository}")
     private String alienRepoDir;
 
@@ -96,6 +103,46 @@ public class CsarRepositoryTest {
         log.debug("GET Result: " + path);
     }
 
+    @Test
+    public void zipShouldBeReusedUntilTheArchiveHasANewCommit() throws IOException {
+        cleanup();
+        storeTestCSAR(testFileName, "1.0", tmpPath);
+        Path expandedPath = repo.getExpandedCSAR(testFileName, "1.0");
+        RepositoryManager.create(expandedPath, null);
+        RepositoryManager.commitAll(expandedPath, "alien4cloud", "alien4cloud@alien4cloud.org", "initial commit");
+
+        // the stored zip has not been built from a commit
+        Path zipPath = repo.getCSAR(testFileName, "1.0");
+        Path commitPath = zipPath.resolveSibling(zipPath.getFileName() + ".commit");
+        assertEquals(RepositoryManager.getHeadHash(expandedPath), new String(Files.readAllBytes(commitPath), StandardCharsets.UTF_8));
+
+        // same head, the zip is not built again
+        markOutdated(zipPath);
+        assertEquals(zipPath, repo.getCSAR(testFileName, "1.0"));
+        assertEquals(OUTDATED, Files.getLastModifiedTime(zipPath));
+
+        // new commit, the zip is built again with the new content
+        Files.write(expandedPath.resolve("new-file.txt"), "new content".getBytes(StandardCharsets.UTF_8));
+        RepositoryManager.commitAll(expandedPath, "alien4cloud", "alien4cloud@alien4cloud.org", "second commit");
+        assertEquals(zipPath, repo.getCSAR(testFileName, "1.0"));
+        assertNotEquals(OUTDATED, Files.getLastModifiedTime(zipPath));
+        assertEquals(RepositoryManager.getHeadHash(expandedPath), new String(Files.readAllBytes(commitPath), StandardCharsets.UTF_8));
+        try (ZipFile zipFile = new ZipFile(zipPath.toFile())) {
+            assertTrue(zipFile.stream().anyMatch(entry -> entry.getName().endsWith("new-file.txt")));
+        }
+
+        // no commit marker, the zip is built again
+        markOutdated(zipPath);
+        Files.delete(commitPath);
+        assertEquals(zipPath, repo.getCSAR(testFileName, "1.0"));
+        assertNotEquals(OUTDATED, Files.getLastModifiedTime(zipPath));
+        assertTrue(Files.exists(commitPath));
+    }
+
+    private void markOutdated(Path zipPath) throws IOException {
+        Files.setLastModifiedTime(zipPath, OUTDATED);
+    }
+
     private boolean fileExists(Path path, boolean isDirectory) {
         if (isDirectory) {
             return Files.isDirectory(path);
@@ -0,0 +1,148 @@
+package alien4cloud.deployment;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Matchers;
+import org.mockito.Mockito;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import alien4cloud.model.deployment.Deployment;
+import alien4cloud.paas.IPaaSCallback;
+import alien4cloud.paas.IPaasEventService;
+import alien4cloud.paas.model.DeploymentStatus;
+import alien4cloud.paas.model.PaaSDeploymentStatusMonitorEvent;
+
+@SuppressWarnings("unchecked")
+public class DeploymentStatusCacheTest {
+    private static final long TIMEOUT_MS = 200;
+
+    private DeploymentRuntimeStateService deploymentRuntimeStateService;
+    private DeploymentStatusCache cache;
+
+    @Before
+    public void before() {
+        deploymentRuntimeStateService = Mockito.mock(DeploymentRuntimeStateService.class);
+        cache = new DeploymentStatusCache();
+        ReflectionTestUtils.setField(cache, "deploymentRuntimeStateService", deploymentRuntimeStateService);
+        ReflectionTestUtils.setField(cache, "deploymentService", Mockito.mock(DeploymentService.class));
+        ReflectionTestUtils.setField(cache, "paasEventService", Mockito.mock(IPaasEventService.class));
+        ReflectionTestUtils.setField(cache, "scheduler", Mockito.mock(TaskScheduler.class));
+        ReflectionTestUtils.setField(cache, "reconciliationIntervalMs", 30000L);
+        ReflectionTestUtils.setField(cache, "statusTimeoutMs", TIMEOUT_MS);
+        ReflectionTestUtils.setField(cache, "requestThreads", 1);
+        ReflectionTestUtils.setField(cache, "requestQueueSize", 1);
+        cache.init();
+    }
+
+    @After
+    public void after() {
+        cache.destroy();
+    }
+
+    private Deployment deployment(String id) {
+        Deployment deployment = new Deployment();
+        deployment.setId(id);
+        return deployment;
+    }
+
+    private PaaSDeploymentStatusMonitorEvent event(String deploymentId, DeploymentStatus status) {
+        PaaSDeploymentStatusMonitorEvent event = new PaaSDeploymentStatusMonitorEvent();
+        event.setDeploymentId(deploymentId);
+        event.setDeploymentStatus(status);
+        return event;
+    }
+
+    /** Make the orchestrator answer the given status. */
+    private void answer(DeploymentStatus status) {
+        Mockito.doAnswer(invocation -> {
+            ((IPaaSCallback<DeploymentStatus>) invocation.getArguments()[1]).onSuccess(status);
+            return null;
+        }).when(deploymentRuntimeStateService).getDeploymentStatus(Matchers.any(Deployment.class), Matchers.any(IPaaSCallback.class));
+    }
+
+    /** Make the orchestrator hang until the returned latch is released, the callback of the request is kept in the given reference. */
+    private CountDownLatch hang(AtomicReference<IPaaSCallback<DeploymentStatus>> callback) {
+        CountDownLatch latch = new CountDownLatch(1);
+        Mockito.doAnswer(invocation -> {
+            callback.set((IPaaSCallback<DeploymentStatus>) invocation.getArguments()[1]);
+            latch.await();
+            return null;
+        }).when(deploymentRuntimeStateService).getDeploymentStatus(Matchers.any(Deployment.class), Matchers.any(IPaaSCallback.class));
+        return latch;
+    }
+
+    @Test
+    public void statusShouldBeFedByEvents() {
+        cache.eventHappened(event("d1", DeploymentStatus.DEPLOYED));
+        assertEquals(DeploymentStatus.DEPLOYED, cache.getStatus(deployment("d1")));
+        cache.eventHappened(event("d1", DeploymentStatus.UNDEPLOYMENT_IN_PROGRESS));
+        assertEquals(DeploymentStatus.UNDEPLOYMENT_IN_PROGRESS, cache.getStatus(deployment("d1")));
+        Mockito.verify(deploymentRuntimeStateService, Mockito.never()).getDeploymentStatus(Matchers.any(Deployment.class),
+                Matchers.any(IPaaSCallback.class));
+    }
+
+    @Test
+    public void unknownDeploymentShouldBeRequestedOnce() {
+        answer(DeploymentStatus.DEPLOYED);
+        assertEquals(DeploymentStatus.DEPLOYED, cache.getStatus(deployment("d1")));
+        assertEquals(DeploymentStatus.DEPLOYED, cache.getStatus(deployment("d1")));
+        Mockito.verify(deploymentRuntimeStateService, Mockito.times(1)).getDeploymentStatus(Matchers.any(Deployment.class),
+                Matchers.any(IPaaSCallback.class));
+    }
+
+    @Test
+    public void invalidatedDeploymentShouldBeRequestedAgain() {
+        answer(DeploymentStatus.DEPLOYED);
+        assertEquals(DeploymentStatus.DEPLOYED, cache.getStatus(deployment("d1")));
+        cache.invalidate("d1");
+        answer(DeploymentStatus.UNDEPLOYED);
+        assertEquals(DeploymentStatus.UNDEPLOYED, cache.getStatus(deployment("d1")));
+    }
+
+    @Test
+    public void hungOrchestratorShouldNotBlockTheCaller() {
+        CountDownLatch latch = hang(new AtomicReference<>());
+        try {
+            long start = System.currentTimeMillis();
+            assertEquals(DeploymentStatus.UNKNOWN, cache.getStatus(deployment("d1")));
+            assertTrue(System.currentTimeMillis() - start < TIMEOUT_MS * 10);
+            // the single request thread is hung and the queue (of size 1) gets full, next requests are not even queued
+            assertEquals(DeploymentStatus.UNKNOWN, cache.getStatus(deployment("d2")));
+            start = System.currentTimeMillis();
+            assertEquals(DeploymentStatus.UNKNOWN, cache.getStatus(deployment("d3")));
+            assertTrue(System.currentTimeMillis() - start < TIMEOUT_MS);
+        } finally {
+            latch.countDown();
+        }
+    }
+
+    @Test
+    public void lateAnswerShouldNotOverrideANewerEvent() throws InterruptedException {
+        AtomicReference<IPaaSCallback<DeploymentStatus>> callback = new AtomicReference<>();
+        CountDownLatch latch = hang(callback);
+        try {
+            assertEquals(DeploymentStatus.UNKNOWN, cache.getStatus(deployment("d1")));
+            cache.eventHappened(event("d1", DeploymentStatus.UNDEPLOYED));
+            // the orchestrator answers the request sent before the event
+            callback.get().onSuccess(DeploymentStatus.DEPLOYED);
+            assertEquals(DeploymentStatus.UNDEPLOYED, cache.getStatus(deployment("d1")));
+        } finally {
+            latch.countDown();
+        }
+    }
+
+    @Test
+    public void eventsShouldBeHandledByDeployment() {
+        assertTrue(cache.canHandle(event("d1", DeploymentStatus.DEPLOYED)));
+        assertFalse(cache.canHandle(event(null, DeploymentStatus.DEPLOYED)));
+    }
+}
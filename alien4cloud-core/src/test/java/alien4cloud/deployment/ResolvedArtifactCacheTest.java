@@ -0,0 +1,176 @@
+package alien4cloud.deployment;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import alien4cloud.paas.IPaasEventService;
+import alien4cloud.paas.model.DeploymentStatus;
+import alien4cloud.paas.model.PaaSDeploymentStatusMonitorEvent;
+import alien4cloud.utils.FileUtil;
+
+public class ResolvedArtifactCacheTest {
+    private Path alienDir;
+    private ResolvedArtifactCache cache;
+    /** Number of downloads of the artifacts. */
+    private AtomicInteger downloads;
+
+    @Before
+    public void before() throws IOException {
+        alienDir = Files.createTempDirectory("alien-artifact-cache");
+        downloads = new AtomicInteger();
+    }
+
+    @After
+    public void after() throws IOException {
+        FileUtil.delete(alienDir);
+    }
+
+    private void initCache(long maxSizeMb, long ttlMs) throws IOException {
+        cache = new ResolvedArtifactCache();
+        ReflectionTestUtils.setField(cache, "paasEventService", Mockito.mock(IPaasEventService.class));
+        ReflectionTestUtils.setField(cache, "maxSizeMb", maxSizeMb);
+        ReflectionTestUtils.setField(cache, "ttlMs", ttlMs);
+        ReflectionTestUtils.setField(cache, "cacheDirectory", alienDir.resolve("artifact_cache").toString());
+        ReflectionTestUtils.setField(cache, "tempDirectory", alienDir.resolve("upload").toString());
+        cache.init();
+    }
+
+    /** Get an artifact whose content is its reference repeated to reach the given size in kilobytes. */
+    private Path get(String deploymentId, String reference, int sizeKb) throws IOException {
+        return get(deploymentId, reference, content(reference, sizeKb));
+    }
+
+    private Path get(String deploymentId, String reference, byte[] content) throws IOException {
+        return cache.get(deploymentId, reference, "http://repository", "http", null, cachePath -> {
+            downloads.incrementAndGet();
+            Files.write(cachePath, content);
+            return cachePath;
+        });
+    }
+
+    private byte[] content(String reference, int sizeKb) {
+        byte[] content = new byte[sizeKb * 1024];
+        byte[] referenceBytes = reference.getBytes();
+        for (int i = 0; i < content.length; i++) {
+            content[i] = referenceBytes[i % referenceBytes.length];
+        }
+        return content;
+    }
+
+    @Test
+    public void cacheShouldBeDisabledByDefault() throws IOException {
+        initCache(0, 60000);
+        Path first = get("d1", "artifact.zip", 1);
+        Path second = get("d2", "artifact.zip", 1);
+        assertEquals(2, downloads.get());
+        assertNotEquals(first, second);
+        assertTrue(first.startsWith(alienDir.resolve("upload")));
+    }
+
+    @Test
+    public void artifactShouldBeDownloadedOnceAndLinkedForEveryDeployment() throws IOException {
+        initCache(10, 60000);
+        Path first = get("d1", "artifact.zip", 1);
+        Path second = get("d2", "artifact.zip", 1);
+        assertEquals(1, downloads.get());
+        assertNotEquals(first, second);
+        assertArrayEquals(content("artifact.zip", 1), Files.readAllBytes(first));
+        assertArrayEquals(content("artifact.zip", 1), Files.readAllBytes(second));
+        // same artifact referenced twice in a deployment
+        assertEquals(first, get("d1", "artifact.zip", 1));
+    }
+
+    @Test
+    public void evictionShouldNotRemoveTheArtifactsOfADeployment() throws IOException {
+        initCache(1, 60000);
+        Path first = get("d1", "first.zip", 600);
+        // evicts the first artifact from the cache
+        get("d2", "second.zip", 600);
+        assertArrayEquals(content("first.zip", 600), Files.readAllBytes(first));
+        get("d3", "first.zip", 600);
+        assertEquals(3, downloads.get());
+    }
+
+    @Test
+    public void artifactLargerThanTheCacheShouldNotBeCached() throws IOException {
+        initCache(1, 60000);
+        Path first = get("d1", "large.zip", 2048);
+        assertArrayEquals(content("large.zip", 2048), Files.readAllBytes(first));
+        get("d2", "large.zip", 2048);
+        assertEquals(2, downloads.get());
+    }
+
+    @Test
+    public void artifactShouldBeDownloadedAgainOnceExpired() throws IOException, InterruptedException {
+        initCache(10, 100);
+        get("d1", "latest.zip", 1);
+        get("d2", "latest.zip", 1);
+        assertEquals(1, downloads.get());
+        Thread.sleep(200);
+        get("d3", "latest.zip", 1);
+        assertEquals(2, downloads.get());
+    }
+
+    @Test
+    public void artifactsOfADeploymentShouldBeRemovedOnceUndeployed() throws IOException {
+        initCache(10, 60000);
+        Path first = get("d1", "artifact.zip", 1);
+        Path second = get("d2", "artifact.zip", 1);
+        PaaSDeploymentStatusMonitorEvent event = new PaaSDeploymentStatusMonitorEvent();
+        event.setDeploymentId("d1");
+        event.setDeploymentStatus(DeploymentStatus.DEPLOYED);
+        assertFalse(cache.canHandle(event));
+        event.setDeploymentStatus(DeploymentStatus.UNDEPLOYED);
+        assertTrue(cache.canHandle(event));
+        cache.eventHappened(event);
+        assertFalse(Files.exists(first));
+        assertTrue(Files.exists(second));
+        // still cached
+        get("d3", "artifact.zip", 1);
+        assertEquals(1, downloads.get());
+    }
+
+    @Test
+    public void artifactsOfADeploymentShouldBeRemovedOnFailure() throws IOException {
+        initCache(10, 60000);
+        Path first = get("d1", "artifact.zip", 1);
+        PaaSDeploymentStatusMonitorEvent event = new PaaSDeploymentStatusMonitorEvent();
+        event.setDeploymentId("d1");
+        event.setDeploymentStatus(DeploymentStatus.FAILURE);
+        assertTrue(cache.canHandle(event));
+        cache.eventHappened(event);
+        assertFalse(Files.exists(first));
+        // the deployment gets its link again when deployed again
+        assertEquals(first, get("d1", "artifact.zip", 1));
+        assertArrayEquals(content("artifact.zip", 1), Files.readAllBytes(first));
+        assertEquals(1, downloads.get());
+    }
+
+    @Test
+    public void linkOfADeploymentShouldBeReplacedByANewVersionOfTheArtifact() throws IOException, InterruptedException {
+        initCache(10, 100);
+        Path first = get("d1", "latest.zip", "first".getBytes());
+        Thread.sleep(200);
+        // the deployment is updated once the cached artifact has expired
+        Path second = get("d1", "latest.zip", "second".getBytes());
+        assertEquals(2, downloads.get());
+        assertEquals(first, second);
+        assertArrayEquals("second".getBytes(), Files.readAllBytes(second));
+        // no link left aside
+        assertEquals(1, second.getParent().toFile().list().length);
+    }
+}
@@ -0,0 +1,238 @@
+package alien4cloud.paas;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.boot.actuate.metrics.Metric;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+
+import alien4cloud.paas.model.AbstractMonitorEvent;
+import alien4cloud.paas.model.PaaSMessageMonitorEvent;
+
+public class PaaSEventDispatcherTest {
+    private PaaSEventDispatcher dispatcher;
+
+    @Before
+    public void before() {
+        dispatcher = new PaaSEventDispatcher();
+        ReflectionTestUtils.setField(dispatcher, "queueCapacity", 10000);
+        ReflectionTestUtils.setField(dispatcher, "threadsPerListener", 4);
+    }
+
+    @After
+    public void after() {
+        dispatcher.destroy();
+    }
+
+    private PaaSMessageMonitorEvent event(String deploymentId, int index) {
+        PaaSMessageMonitorEvent event = new PaaSMessageMonitorEvent();
+        event.setDeploymentId(deploymentId);
+        event.setMessage(String.valueOf(index));
+        return event;
+    }
+
+    /**
+     * Listener that counts down a latch for every event it processes.
+     */
+    private static abstract class CountingListener implements IPaasEventListener<AbstractMonitorEvent> {
+        private final CountDownLatch latch;
+
+        private CountingListener(int expectedEvents) {
+            this.latch = new CountDownLatch(expectedEvents);
+        }
+
+        protected abstract void process(PaaSMessageMonitorEvent event) throws Exception;
+
+        @Override
+        public void eventHappened(AbstractMonitorEvent event) {
+            try {
+                process((PaaSMessageMonitorEvent) event);
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+            latch.countDown();
+        }
+
+        @Override
+        public boolean canHandle(AbstractMonitorEvent event) {
+            return event instanceof PaaSMessageMonitorEvent;
+        }
+
+        private boolean await() throws InterruptedException {
+            return latch.await(10, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    public void eventsOfADeploymentShouldBeProcessedInOrder() throws InterruptedException {
+        int deployments = 10;
+        int eventsByDeployment = 200;
+        Map<String, List<Integer>> received = Maps.newConcurrentMap();
+        CountingListener listener = new CountingListener(deployments * eventsByDeployment) {
+            @Override
+            protected void process(PaaSMessageMonitorEvent event) {
+                received.computeIfAbsent(event.getDeploymentId(), id -> Collections.synchronizedList(Lists.newArrayList()))
+                        .add(Integer.valueOf(event.getMessage()));
+            }
+        };
+        dispatcher.addListener(listener);
+        for (int i = 0; i < eventsByDeployment; i++) {
+            for (int d = 0; d < deployments; d++) {
+                dispatcher.dispatch(event("deployment-" + d, i));
+            }
+        }
+        assertTrue(listener.await());
+        assertEquals(deployments, received.size());
+        for (List<Integer> indexes : received.values()) {
+            assertEquals(eventsByDeployment, indexes.size());
+            for (int i = 0; i < eventsByDeployment; i++) {
+                assertEquals(i, indexes.get(i).intValue());
+            }
+        }
+    }
+
+    @Test
+    public void slowListenerShouldNotDelayOtherListeners() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        CountingListener slowListener = new CountingListener(100) {
+            @Override
+            protected void process(PaaSMessageMonitorEvent event) throws InterruptedException {
+                release.await();
+            }
+        };
+        CountingListener fastListener = new CountingListener(100) {
+            @Override
+            protected void process(PaaSMessageMonitorEvent event) {
+            }
+        };
+        dispatcher.addListener(slowListener);
+        dispatcher.addListener(fastListener);
+        try {
+            for (int i = 0; i < 100; i++) {
+                dispatcher.dispatch(event("deployment-" + (i % 5), i));
+            }
+            // the slow listener has not processed any event yet
+            assertTrue(fastListener.await());
+        } finally {
+            release.countDown();
+        }
+        assertTrue(slowListener.await());
+    }
+
+    @Test
+    public void synchronousListenerShouldProcessEventsBeforeOtherListeners() throws InterruptedException {
+        Set<String> synchronouslyProcessed = Sets.newConcurrentHashSet();
+        AtomicInteger outOfOrder = new AtomicInteger();
+        CountingListener synchronousListener = new CountingListener(50) {
+            @Override
+            protected void process(PaaSMessageMonitorEvent event) {
+                synchronouslyProcessed.add(event.getMessage());
+            }
+        };
+        CountingListener listener = new CountingListener(50) {
+            @Override
+            protected void process(PaaSMessageMonitorEvent event) {
+                if (!synchronouslyProcessed.contains(event.getMessage())) {
+                    outOfOrder.incrementAndGet();
+                }
+            }
+        };
+        // registered first but still called after the synchronous listener
+        dispatcher.addListener(listener);
+        dispatcher.addSynchronousListener(synchronousListener);
+        for (int i = 0; i < 50; i++) {
+            dispatcher.dispatch(event("deployment", i));
+            // the synchronous listener is called by the dispatching thread
+            assertTrue(synchronouslyProcessed.contains(String.valueOf(i)));
+        }
+        assertTrue(listener.await());
+        assertEquals(0, outOfOrder.get());
+    }
+
+    @Test
+    public void failingListenerShouldBeRetriedAndCounted() throws InterruptedException {
+        AtomicInteger calls = new AtomicInteger();
+        CountingListener flakyListener = new CountingListener(1) {
+            @Override
+            protected void process(PaaSMessageMonitorEvent event) {
+                // fails on first call only
+                if (calls.incrementAndGet() == 1) {
+                    throw new IllegalStateException("flaky");
+                }
+            }
+        };
+        CountingListener failingListener = new CountingListener(1) {
+            @Override
+            protected void process(PaaSMessageMonitorEvent event) {
+                throw new IllegalStateException("always failing");
+            }
+        };
+        CountingListener otherListener = new CountingListener(1) {
+            @Override
+            protected void process(PaaSMessageMonitorEvent event) {
+            }
+        };
+        dispatcher.addListener(flakyListener);
+        dispatcher.addListener(failingListener);
+        dispatcher.addListener(otherListener);
+        dispatcher.dispatch(event("deployment", 0));
+        assertTrue(flakyListener.await());
+        assertTrue(otherListener.await());
+        assertEquals(2, calls.get());
+
+        // wait for the failing listener retries
+        long failed = 0;
+        for (int i = 0; i < 100 && failed == 0; i++) {
+            Thread.sleep(50);
+            failed = sum(dispatcher.metrics(), ".failed");
+        }
+        assertEquals(1, failed);
+        assertEquals(2, sum(dispatcher.metrics(), ".processed"));
+    }
+
+    @Test
+    public void threadsOfAnonymousListenersShouldBeNamedAfterTheirClass() throws InterruptedException {
+        Set<String> threadNames = Sets.newConcurrentHashSet();
+        CountingListener listener = new CountingListener(10) {
+            @Override
+            protected void process(PaaSMessageMonitorEvent event) {
+                threadNames.add(Thread.currentThread().getName());
+            }
+        };
+        dispatcher.addListener(listener);
+        for (int i = 0; i < 10; i++) {
+            dispatcher.dispatch(event("deployment-" + i, i));
+        }
+        assertTrue(listener.await());
+        for (String threadName : threadNames) {
+            assertTrue(threadName, threadName.startsWith("paas-events-" + listener.getClass().getName() + "-"));
+        }
+    }
+
+    private long sum(Iterable<Metric<?>> metrics, String suffix) {
+        long sum = 0;
+        for (Metric<?> metric : metrics) {
+            if (metric.getName().endsWith(suffix)) {
+                sum += metric.getValue().longValue();
+            }
+        }
+        return sum;
+    }
+}
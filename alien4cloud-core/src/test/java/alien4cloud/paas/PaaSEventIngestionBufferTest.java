@@ -0,0 +1,119 @@
+package alien4cloud.paas;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Matchers;
+import org.mockito.Mockito;
+
+import com.google.common.collect.Lists;
+
+import alien4cloud.dao.IGenericSearchDAO;
+import alien4cloud.dao.WritePolicy;
+import alien4cloud.paas.model.AbstractMonitorEvent;
+import alien4cloud.paas.model.PaaSMessageMonitorEvent;
+
+public class PaaSEventIngestionBufferTest {
+    private IGenericSearchDAO monitorDAO;
+    private PaaSEventDispatcher eventDispatcher;
+    /** Messages of the dispatched events, in dispatch order. */
+    private List<String> dispatched;
+
+    @Before
+    public void before() {
+        monitorDAO = Mockito.mock(IGenericSearchDAO.class);
+        eventDispatcher = Mockito.mock(PaaSEventDispatcher.class);
+        dispatched = Collections.synchronizedList(Lists.newArrayList());
+        Mockito.doAnswer(invocation -> {
+            AbstractMonitorEvent event = (AbstractMonitorEvent) invocation.getArguments()[0];
+            assertEquals("orchestrator", event.getOrchestratorId());
+            dispatched.add(((PaaSMessageMonitorEvent) event).getMessage());
+            return null;
+        }).when(eventDispatcher).dispatch(Matchers.any(AbstractMonitorEvent.class));
+    }
+
+    private PaaSMessageMonitorEvent event(int index) {
+        PaaSMessageMonitorEvent event = new PaaSMessageMonitorEvent();
+        event.setDeploymentId("deployment");
+        event.setMessage(String.valueOf(index));
+        return event;
+    }
+
+    private List<String> messages(int count) {
+        List<String> messages = Lists.newArrayList();
+        for (int i = 0; i < count; i++) {
+            messages.add(String.valueOf(i));
+        }
+        return messages;
+    }
+
+    private void verifySaves(int times) {
+        Mockito.verify(monitorDAO, Mockito.times(times)).save(Matchers.any(AbstractMonitorEvent[].class), Matchers.eq(WritePolicy.NEXT_REFRESH));
+    }
+
+    @Test
+    public void eventsShouldBeSavedAndDispatchedInOrder() throws InterruptedException {
+        // small buffer so that the publisher has to wait for the ingestion
+        PaaSEventIngestionBuffer buffer = new PaaSEventIngestionBuffer(monitorDAO, eventDispatcher, "orchestrator", 10, 5);
+        Thread ingestionThread = new Thread(buffer);
+        ingestionThread.start();
+        for (int i = 0; i < 100; i++) {
+            buffer.publish(event(i));
+        }
+        buffer.close();
+        ingestionThread.join(TimeUnit.SECONDS.toMillis(10));
+        assertFalse(ingestionThread.isAlive());
+        assertEquals(messages(100), dispatched);
+    }
+
+    @Test
+    public void publishedEventsShouldBeIngestedOnceClosed() throws InterruptedException {
+        PaaSEventIngestionBuffer buffer = new PaaSEventIngestionBuffer(monitorDAO, eventDispatcher, "orchestrator", 10, 4);
+        for (int i = 0; i < 10; i++) {
+            buffer.publish(event(i));
+        }
+        buffer.close();
+        // returns once all the events have been ingested
+        buffer.run();
+        assertEquals(messages(10), dispatched);
+        verifySaves(3);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void eventShouldBeRejectedOnceClosed() throws InterruptedException {
+        PaaSEventIngestionBuffer buffer = new PaaSEventIngestionBuffer(monitorDAO, eventDispatcher, "orchestrator", 10, 4);
+        buffer.close();
+        buffer.publish(event(0));
+    }
+
+    @Test
+    public void failedSaveShouldBeRetried() throws InterruptedException {
+        Mockito.doThrow(new RuntimeException("elasticsearch unavailable")).doNothing().when(monitorDAO).save(Matchers.any(AbstractMonitorEvent[].class),
+                Matchers.eq(WritePolicy.NEXT_REFRESH));
+        PaaSEventIngestionBuffer buffer = new PaaSEventIngestionBuffer(monitorDAO, eventDispatcher, "orchestrator", 10, 10);
+        buffer.publish(event(0));
+        buffer.publish(event(1));
+        buffer.close();
+        buffer.run();
+        assertEquals(messages(2), dispatched);
+        verifySaves(2);
+    }
+
+    @Test
+    public void batchShouldBeDispatchedWhenItCannotBeSaved() throws InterruptedException {
+        Mockito.doThrow(new RuntimeException("elasticsearch unavailable")).when(monitorDAO).save(Matchers.any(AbstractMonitorEvent[].class),
+                Matchers.eq(WritePolicy.NEXT_REFRESH));
+        PaaSEventIngestionBuffer buffer = new PaaSEventIngestionBuffer(monitorDAO, eventDispatcher, "orchestrator", 10, 10);
+        buffer.publish(event(0));
+        buffer.close();
+        buffer.run();
+        assertEquals(messages(1), dispatched);
+        verifySaves(3);
+    }
+}
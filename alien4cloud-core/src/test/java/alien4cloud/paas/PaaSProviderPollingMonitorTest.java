@@ -7,6 +7,7 @@ import static org.junit.Assert.assertTrue;
 import java.io.IOException;
 import java.lang.reflect.Field;
 import java.util.Date;
+import java.util.List;
 
 import javax.annotation.Resource;
 
@@ -15,17 +16,22 @@ import org.elasticsearch.mapping.ElasticSearchClient;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.Matchers;
+import org.mockito.Mockito;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import alien4cloud.dao.IGenericSearchDAO;
 import alien4cloud.paas.PaaSProviderPollingMonitor;
+import alien4cloud.paas.model.AbstractMonitorEvent;
 import alien4cloud.paas.model.DeploymentStatus;
 import alien4cloud.paas.model.PaaSDeploymentStatusMonitorEvent;
 import alien4cloud.paas.model.PaaSMessageMonitorEvent;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.Lists;
 
 /**
  * Test monitoring events recovery
@@ -122,6 +128,47 @@ public class PaaSProviderPollingMonitorTest {
         assertTrue(lastDate.after(new Date()));
     }
 
+    @Test
+    public void polledEventsShouldBeSavedAndDispatchedInOrder() {
+        // orchestrators that do not publish their events are polled
+        Date eventDate = addMinutesToDate(5, new Date());
+        IPaaSProvider paaSProvider = Mockito.mock(IPaaSProvider.class);
+        List<Date> polledDates = Lists.newArrayList();
+        Mockito.doAnswer(invocation -> {
+            polledDates.add((Date) invocation.getArguments()[0]);
+            PaaSMessageMonitorEvent first = new PaaSMessageMonitorEvent();
+            first.setDeploymentId("ID-POLLED");
+            first.setMessage("first");
+            first.setDate(eventDate.getTime());
+            PaaSMessageMonitorEvent second = new PaaSMessageMonitorEvent();
+            second.setDeploymentId("ID-POLLED");
+            second.setMessage("second");
+            ((IPaaSCallback<AbstractMonitorEvent[]>) invocation.getArguments()[2]).onSuccess(new AbstractMonitorEvent[] { first, second });
+            return null;
+        }).when(paaSProvider).getEventsSince(Matchers.any(Date.class), Matchers.anyInt(), Matchers.any(IPaaSCallback.class));
+        PaaSEventDispatcher eventDispatcher = Mockito.mock(PaaSEventDispatcher.class);
+        List<String> dispatched = Lists.newArrayList();
+        Mockito.doAnswer(invocation -> {
+            PaaSMessageMonitorEvent event = (PaaSMessageMonitorEvent) invocation.getArguments()[0];
+            assertEquals("PollingCloudID", event.getOrchestratorId());
+            assertTrue(event.getDate() > 0);
+            dispatched.add(event.getMessage());
+            return null;
+        }).when(eventDispatcher).dispatch(Matchers.any(AbstractMonitorEvent.class));
+
+        PaaSProviderPollingMonitor paaSProviderPollingMonitor = new PaaSProviderPollingMonitor(alienDao, alienMonitorDao, paaSProvider, eventDispatcher,
+                "PollingCloudID");
+        ReflectionTestUtils.setField(paaSProviderPollingMonitor, "hasDeployments", true);
+        paaSProviderPollingMonitor.run();
+        assertEquals(Lists.newArrayList("first", "second"), dispatched);
+        // the next poll starts from the date of the latest event
+        assertEquals(eventDate, ReflectionTestUtils.getField(paaSProviderPollingMonitor, "lastPollingDate"));
+        paaSProviderPollingMonitor.run();
+        assertEquals(2, polledDates.size());
+        assertEquals(eventDate, polledDates.get(1));
+        assertEquals(Lists.newArrayList("first", "second", "first", "second"), dispatched);
+    }
+
     private Date addMinutesToDate(int minutes, Date beforeTime) {
         final long ONE_MINUTE_IN_MILLIS = 60000;// millisecs
         long curTimeInMs = beforeTime.getTime();
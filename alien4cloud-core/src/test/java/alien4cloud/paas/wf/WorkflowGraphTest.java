@@ -0,0 +1,105 @@
+package alien4cloud.paas.wf;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import alien4cloud.paas.wf.util.WorkflowGraph;
+import alien4cloud.paas.wf.util.WorkflowUtils;
+
+public class WorkflowGraphTest {
+
+    /**
+     * <pre>
+     *      -- b --
+     *     /       \
+     * a --         d -- e
+     *     \       /
+     *      -- c --
+     * </pre>
+     */
+    @Test
+    public void testTopologicalOrderAndReachability() {
+        Workflow wf = new Workflow();
+        AbstractStep e = wf.addStep(new SimpleStep("e"));
+        AbstractStep d = wf.addStep(new SimpleStep("d"));
+        AbstractStep c = wf.addStep(new SimpleStep("c"));
+        AbstractStep b = wf.addStep(new SimpleStep("b"));
+        AbstractStep a = wf.addStep(new SimpleStep("a"));
+        WorkflowUtils.linkSteps(a, b);
+        WorkflowUtils.linkSteps(a, c);
+        WorkflowUtils.linkSteps(b, d);
+        WorkflowUtils.linkSteps(c, d);
+        WorkflowUtils.linkSteps(d, e);
+
+        WorkflowGraph graph = new WorkflowGraph(wf);
+        assertFalse(graph.hasCycle());
+        List<AbstractStep> order = graph.getTopologicalOrder();
+        assertEquals(0, order.indexOf(a));
+        assertTrue(order.indexOf(b) < order.indexOf(d));
+        assertTrue(order.indexOf(c) < order.indexOf(d));
+        assertEquals(4, order.indexOf(e));
+        assertTrue(graph.isReachable(a, e));
+        assertTrue(graph.isReachable(b, d));
+        assertFalse(graph.isReachable(b, c));
+        assertFalse(graph.isReachable(e, a));
+    }
+
+    /**
+     * <pre>
+     *        c
+     *       /  \
+     * a -- b -- d -- e
+     * </pre>
+     */
+    @Test
+    public void testCycle() {
+        Workflow wf = new Workflow();
+        AbstractStep a = wf.addStep(new SimpleStep("a"));
+        AbstractStep b = wf.addStep(new SimpleStep("b"));
+        AbstractStep c = wf.addStep(new SimpleStep("c"));
+        AbstractStep d = wf.addStep(new SimpleStep("d"));
+        AbstractStep e = wf.addStep(new SimpleStep("e"));
+        WorkflowUtils.linkSteps(a, b);
+        WorkflowUtils.linkSteps(b, d);
+        WorkflowUtils.linkSteps(d, c);
+        WorkflowUtils.linkSteps(c, b);
+        WorkflowUtils.linkSteps(d, e);
+
+        WorkflowGraph graph = new WorkflowGraph(wf);
+        assertTrue(graph.hasCycle());
+        assertEquals(Arrays.asList(Arrays.asList("b", "d", "c", "b")), graph.getCycles());
+        assertTrue(graph.isReachable(c, d));
+        assertFalse(graph.isReachable(e, b));
+    }
+
+    /**
+     * A long chain of fork / join steps has 2^n paths but must be validated in linear time.
+     */
+    @Test(timeout = 5000)
+    public void testManyBranches() {
+        Workflow wf = new Workflow();
+        AbstractStep join = wf.addStep(new SimpleStep("join_0"));
+        AbstractStep first = join;
+        for (int i = 1; i <= 200; i++) {
+            AbstractStep left = wf.addStep(new SimpleStep("left_" + i));
+            AbstractStep right = wf.addStep(new SimpleStep("right_" + i));
+            AbstractStep nextJoin = wf.addStep(new SimpleStep("join_" + i));
+            WorkflowUtils.linkSteps(join, left);
+            WorkflowUtils.linkSteps(join, right);
+            WorkflowUtils.linkSteps(left, nextJoin);
+            WorkflowUtils.linkSteps(right, nextJoin);
+            join = nextJoin;
+        }
+
+        WorkflowGraph graph = new WorkflowGraph(wf);
+        assertFalse(graph.hasCycle());
+        assertTrue(graph.isReachable(first, join));
+        assertFalse(graph.isReachable(wf.getSteps().get("left_10"), wf.getSteps().get("right_10")));
+    }
+}
@@ -0,0 +1,168 @@
+package alien4cloud.plugin;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Matchers;
+import org.mockito.Mockito;
+import org.springframework.context.support.StaticApplicationContext;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+
+import alien4cloud.dao.IGenericSearchDAO;
+import alien4cloud.dao.model.GetMultipleDataResult;
+import alien4cloud.plugin.model.ManagedPlugin;
+import alien4cloud.plugin.model.PluginDescriptor;
+import alien4cloud.utils.FileUtil;
+
+public class PluginManagerTest {
+    private Path tempDir;
+    private IGenericSearchDAO alienDAO;
+    private StaticApplicationContext alienContext;
+    private PluginManager pluginManager;
+    /** Plugins stored in the mocked dao by id. */
+    private Map<String, Plugin> plugins = Maps.newLinkedHashMap();
+    /** Ids of the plugins in the order in which they have been linked. */
+    private List<String> linkedPlugins = Collections.synchronizedList(Lists.newArrayList());
+
+    @Before
+    public void before() throws IOException {
+        tempDir = Files.createTempDirectory("plugins");
+        alienDAO = Mockito.mock(IGenericSearchDAO.class);
+        Mockito.when(alienDAO.find(Matchers.eq(Plugin.class), Matchers.anyMap(), Matchers.anyInt()))
+                .thenAnswer(invocation -> new GetMultipleDataResult<>(new String[] { "plugin" }, plugins.values().toArray(new Plugin[plugins.size()])));
+        Mockito.when(alienDAO.findById(Matchers.eq(Plugin.class), Matchers.anyString()))
+                .thenAnswer(invocation -> plugins.get((String) invocation.getArguments()[1]));
+
+        IPluginLoadingCallback loadingCallback = Mockito.mock(IPluginLoadingCallback.class);
+        Mockito.doAnswer(invocation -> {
+            linkedPlugins.add(((ManagedPlugin) invocation.getArguments()[0]).getPlugin().getId());
+            return null;
+        }).when(loadingCallback).onPluginLoaded(Matchers.any(ManagedPlugin.class));
+        alienContext = new StaticApplicationContext();
+        alienContext.getBeanFactory().registerSingleton("loadingCallback", loadingCallback);
+        alienContext.refresh();
+
+        pluginManager = new PluginManager();
+        ReflectionTestUtils.setField(pluginManager, "alienDAO", alienDAO);
+        ReflectionTestUtils.setField(pluginManager, "alienContext", alienContext);
+        ReflectionTestUtils.setField(pluginManager, "pluginsWorkDirectory", tempDir.resolve("content").toString());
+        ReflectionTestUtils.setField(pluginManager, "pluginsUiDirectory", tempDir.resolve("ui").toString());
+        ReflectionTestUtils.setField(pluginManager, "loadingParallelism", 4);
+        pluginManager.postConstruct();
+    }
+
+    @After
+    public void after() throws IOException {
+        pluginManager.unloadAllPlugins();
+        alienContext.close();
+        FileUtil.delete(tempDir);
+    }
+
+    /** Create an enabled plugin in the plugins work directory. */
+    private Plugin addPlugin(String id, String configurationClass, String... dependencies) throws IOException {
+        PluginDescriptor descriptor = new PluginDescriptor();
+        descriptor.setId(id);
+        descriptor.setName(id);
+        descriptor.setVersion("1.0.0");
+        descriptor.setConfigurationClass(configurationClass);
+        descriptor.setDependencies(dependencies);
+        Plugin plugin = new Plugin(descriptor, id + "-path");
+        plugin.setEnabled(true);
+        Files.createDirectories(tempDir.resolve("content").resolve(plugin.getPluginPathId()));
+        plugins.put(id, plugin);
+        return plugin;
+    }
+
+    private Set<String> getLoadingTimesMetrics() {
+        return pluginManager.metrics().stream().map(metric -> metric.getName()).filter(name -> !"plugins.load.total".equals(name))
+                .collect(Collectors.toSet());
+    }
+
+    private Set<String> getLoadingTimesMetrics(String... pluginIds) {
+        Set<String> metrics = Sets.newHashSet();
+        for (String pluginId : pluginIds) {
+            for (String step : new String[] { "classpath", "refresh", "link" }) {
+                metrics.add("plugins." + pluginId + ".load." + step);
+            }
+        }
+        return metrics;
+    }
+
+    @Test
+    public void pluginsShouldBeLoadedAfterTheirDependencies() throws IOException {
+        // dependents are provided before their dependencies
+        addPlugin("plugin-a", null, "plugin-b");
+        addPlugin("plugin-b", null, "plugin-c");
+        addPlugin("plugin-c", null);
+        addPlugin("plugin-d", null, "plugin-c", "plugin-e");
+        addPlugin("plugin-e", null);
+        addPlugin("plugin-f", null);
+
+        pluginManager.initialize();
+
+        assertEquals(plugins.keySet(), pluginManager.getPluginContexts().keySet());
+        assertEquals(plugins.size(), linkedPlugins.size());
+        for (Plugin plugin : plugins.values()) {
+            assertTrue(plugin.isEnabled());
+            for (String dependency : plugin.getDescriptor().getDependencies()) {
+                assertTrue(plugin.getId() + " must be linked after " + dependency, linkedPlugins.indexOf(dependency) < linkedPlugins.indexOf(plugin.getId()));
+            }
+        }
+        // plugin contexts are children of the alien context
+        assertTrue(pluginManager.getPluginContexts().get("plugin-a").getPluginContext().getParent() == alienContext);
+        assertEquals(getLoadingTimesMetrics("plugin-a", "plugin-b", "plugin-c", "plugin-d", "plugin-e", "plugin-f"), getLoadingTimesMetrics());
+    }
+
+    @Test
+    public void failedPluginAndItsDependentsShouldBeDisabled() throws IOException {
+        addPlugin("plugin-a", null, "plugin-b");
+        addPlugin("plugin-b", "org.alien4cloud.plugin.MissingConfiguration");
+        addPlugin("plugin-c", null);
+
+        pluginManager.initialize();
+
+        assertEquals(Sets.newHashSet("plugin-c"), pluginManager.getPluginContexts().keySet());
+        assertEquals(Lists.newArrayList("plugin-c"), linkedPlugins);
+        assertFalse(plugins.get("plugin-a").isEnabled());
+        assertFalse(plugins.get("plugin-b").isEnabled());
+        assertTrue(plugins.get("plugin-c").isEnabled());
+        Mockito.verify(alienDAO).save(plugins.get("plugin-a"));
+        Mockito.verify(alienDAO).save(plugins.get("plugin-b"));
+        // only the loaded plugins have loading times
+        assertEquals(getLoadingTimesMetrics("plugin-c"), getLoadingTimesMetrics());
+    }
+
+    @Test
+    public void loadingTimesShouldBeRemovedOnUnload() throws IOException {
+        addPlugin("plugin-a", null);
+        addPlugin("plugin-b", null);
+        pluginManager.initialize();
+        assertEquals(getLoadingTimesMetrics("plugin-a", "plugin-b"), getLoadingTimesMetrics());
+
+        assertTrue(pluginManager.disablePlugin("plugin-a", false).isEmpty());
+        assertFalse(plugins.get("plugin-a").isEnabled());
+        assertEquals(Sets.newHashSet("plugin-b"), pluginManager.getPluginContexts().keySet());
+        assertEquals(getLoadingTimesMetrics("plugin-b"), getLoadingTimesMetrics());
+
+        pluginManager.unloadAllPlugins();
+        assertTrue(pluginManager.getPluginContexts().isEmpty());
+        assertEquals(Collections.emptySet(), getLoadingTimesMetrics());
+    }
+}
@@ -0,0 +1,68 @@
+package alien4cloud.topology;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import org.alien4cloud.tosca.editor.TopologyDigest;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hashing;
+
+import alien4cloud.topology.TopologyValidationCache.NodeValidation;
+
+public class TopologyValidationCacheTest {
+
+    private static HashCode hash(String value) {
+        return Hashing.murmur3_128().hashString(value, StandardCharsets.UTF_8);
+    }
+
+    private static TopologyDigest digest(Map<String, HashCode> nodeTemplates, Map<String, HashCode> workflows, String others) {
+        return new TopologyDigest(nodeTemplates, workflows, hash(others));
+    }
+
+    private TopologyValidationCache initCache() {
+        TopologyValidationCache cache = new TopologyValidationCache();
+        cache.invalidate(digest(ImmutableMap.of("compute", hash("compute"), "apache", hash("apache"), "php", hash("php")),
+                ImmutableMap.of("install", hash("install"), "uninstall", hash("uninstall")), "others"));
+        cache.getNodeValidations().put("compute", new NodeValidation(Sets.newHashSet()));
+        cache.getNodeValidations().put("apache", new NodeValidation(Sets.newHashSet("compute")));
+        cache.getNodeValidations().put("php", new NodeValidation(Sets.newHashSet("apache")));
+        cache.getWorkflowTasks().put("install", Lists.newArrayList());
+        cache.getWorkflowTasks().put("uninstall", Lists.newArrayList());
+        return cache;
+    }
+
+    @Test
+    public void changedNodeInvalidatesNodeAndSources() {
+        TopologyValidationCache cache = initCache();
+        cache.invalidate(digest(ImmutableMap.of("compute", hash("compute2"), "apache", hash("apache"), "php", hash("php")),
+                ImmutableMap.of("install", hash("install2"), "uninstall", hash("uninstall")), "others"));
+        assertEquals(Sets.newHashSet("php"), cache.getNodeValidations().keySet());
+        assertEquals(Sets.newHashSet("uninstall"), cache.getWorkflowTasks().keySet());
+    }
+
+    @Test
+    public void removedNodeInvalidatesWorkflows() {
+        TopologyValidationCache cache = initCache();
+        cache.invalidate(digest(ImmutableMap.of("compute", hash("compute"), "apache", hash("apache")),
+                ImmutableMap.of("install", hash("install"), "uninstall", hash("uninstall")), "others"));
+        assertEquals(Sets.newHashSet("compute", "apache"), cache.getNodeValidations().keySet());
+        assertTrue(cache.getWorkflowTasks().isEmpty());
+    }
+
+    @Test
+    public void changedOthersInvalidatesAll() {
+        TopologyValidationCache cache = initCache();
+        cache.invalidate(digest(ImmutableMap.of("compute", hash("compute"), "apache", hash("apache"), "php", hash("php")),
+                ImmutableMap.of("install", hash("install"), "uninstall", hash("uninstall")), "others2"));
+        assertTrue(cache.getNodeValidations().isEmpty());
+        assertTrue(cache.getWorkflowTasks().isEmpty());
+    }
+}
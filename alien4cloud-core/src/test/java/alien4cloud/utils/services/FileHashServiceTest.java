@@ -0,0 +1,102 @@
+package alien4cloud.utils.services;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.google.common.collect.Lists;
+
+import alien4cloud.utils.FileUtil;
+
+public class FileHashServiceTest {
+    private Path tempDir;
+    private Path archiveDir;
+    private List<FileHashService> services = Lists.newArrayList();
+
+    @Before
+    public void before() throws IOException {
+        tempDir = Files.createTempDirectory("file-hash");
+        archiveDir = Files.createDirectories(tempDir.resolve("archive"));
+        Files.write(archiveDir.resolve("types.yml"), "tosca_definitions_version: alien_dsl_1_3_0".getBytes(StandardCharsets.UTF_8));
+        Files.createDirectories(archiveDir.resolve("scripts"));
+        Files.write(archiveDir.resolve("scripts/create.sh"), "echo create".getBytes(StandardCharsets.UTF_8));
+    }
+
+    @After
+    public void after() throws IOException {
+        services.forEach(FileHashService::destroy);
+        FileUtil.delete(tempDir);
+    }
+
+    private FileHashService newService() {
+        FileHashService fileHashService = new FileHashService();
+        ReflectionTestUtils.setField(fileHashService, "cacheDirectory", tempDir.resolve("hash_cache").toString());
+        ReflectionTestUtils.setField(fileHashService, "maxEntries", 10L);
+        ReflectionTestUtils.setField(fileHashService, "saveIntervalMs", 60000L);
+        fileHashService.load();
+        services.add(fileHashService);
+        return fileHashService;
+    }
+
+    @Test
+    public void hashShouldBeTheArchiveHash() throws IOException {
+        Path zip = tempDir.resolve("archive.zip");
+        FileUtil.zip(archiveDir, zip);
+        FileHashService fileHashService = newService();
+        assertEquals(FileUtil.deepSHA1(archiveDir), fileHashService.deepSHA1(archiveDir));
+        assertEquals(FileUtil.deepSHA1(zip), fileHashService.deepSHA1(zip));
+        // cached hashes
+        assertEquals(FileUtil.deepSHA1(archiveDir), fileHashService.deepSHA1(archiveDir));
+        assertEquals(FileUtil.deepSHA1(zip), fileHashService.deepSHA1(zip));
+    }
+
+    @Test
+    public void hashesShouldBeReloadedFromDisk() {
+        FileHashService fileHashService = newService();
+        String hash = fileHashService.deepSHA1(archiveDir);
+        // hashes are not written on the caller thread
+        assertFalse(Files.exists(tempDir.resolve("hash_cache").resolve("archive_hashes")));
+        fileHashService.destroy();
+        assertTrue(Files.isRegularFile(tempDir.resolve("hash_cache").resolve("archive_hashes")));
+        assertEquals(hash, newService().deepSHA1(archiveDir));
+    }
+
+    @Test
+    public void modifiedZipShouldBeHashedAgain() throws IOException {
+        Path zip = tempDir.resolve("archive.zip");
+        FileUtil.zip(archiveDir, zip);
+        FileHashService fileHashService = newService();
+        String hash = fileHashService.deepSHA1(zip);
+        Files.write(archiveDir.resolve("scripts/create.sh"), "echo created".getBytes(StandardCharsets.UTF_8));
+        FileUtil.zip(archiveDir, zip);
+        Files.setLastModifiedTime(zip, FileTime.fromMillis(Files.getLastModifiedTime(zip).toMillis() + 10000));
+        String newHash = fileHashService.deepSHA1(zip);
+        assertNotEquals(hash, newHash);
+        assertEquals(FileUtil.deepSHA1(zip), newHash);
+    }
+
+    @Test
+    public void modifiedArchiveShouldBeHashedAgain() throws IOException {
+        FileHashService fileHashService = newService();
+        String hash = fileHashService.deepSHA1(archiveDir);
+        Path script = archiveDir.resolve("scripts/create.sh");
+        Files.write(script, "echo created".getBytes(StandardCharsets.UTF_8));
+        Files.setLastModifiedTime(script, FileTime.fromMillis(Files.getLastModifiedTime(script).toMillis() + 10000));
+        String newHash = fileHashService.deepSHA1(archiveDir);
+        assertNotEquals(hash, newHash);
+        assertEquals(FileUtil.deepSHA1(archiveDir), newHash);
+    }
+}
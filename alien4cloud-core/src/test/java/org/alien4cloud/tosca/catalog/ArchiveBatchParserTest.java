@@ -0,0 +1,108 @@
+package org.alien4cloud.tosca.catalog;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+
+import org.alien4cloud.tosca.model.CSARDependency;
+import org.alien4cloud.tosca.model.CsarDependenciesBean;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Matchers;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+
+import alien4cloud.tosca.model.ArchiveRoot;
+import alien4cloud.tosca.parser.ParsingContext;
+import alien4cloud.tosca.parser.ParsingResult;
+
+public class ArchiveBatchParserTest {
+    private ArchiveBatchParser batchParser;
+    /** Archives handled, in handling order. */
+    private List<String> handled;
+
+    @Before
+    public void before() throws Exception {
+        ArchiveParser archiveParser = Mockito.mock(ArchiveParser.class);
+        Mockito.when(archiveParser.parseWithExistingContext(Matchers.any(Path.class), Matchers.anyString()))
+                .thenAnswer(invocation -> new ParsingResult<>(new ArchiveRoot(), new ParsingContext(invocation.getArguments()[0].toString())));
+        batchParser = new ArchiveBatchParser();
+        ReflectionTestUtils.setField(batchParser, "archiveParser", archiveParser);
+        ReflectionTestUtils.setField(batchParser, "parsingParallelism", 4);
+        batchParser.init();
+        handled = Lists.newArrayList();
+    }
+
+    @After
+    public void after() {
+        batchParser.destroy();
+    }
+
+    private CsarDependenciesBean archive(String name, String... dependencies) {
+        CsarDependenciesBean archive = new CsarDependenciesBean();
+        archive.setPath(Paths.get(name));
+        archive.setSelf(new CSARDependency(name, "1.0"));
+        archive.setDependencies(Sets.newHashSet());
+        for (String dependency : dependencies) {
+            archive.getDependencies().add(new CSARDependency(dependency, "1.0"));
+        }
+        return archive;
+    }
+
+    private void handle(Path path) {
+        synchronized (handled) {
+            handled.add(path.toString());
+        }
+    }
+
+    private void assertHandledBefore(String dependency, String dependent) {
+        assertTrue(dependency + " must be handled before " + dependent, handled.indexOf(dependency) < handled.indexOf(dependent));
+    }
+
+    @Test
+    public void archivesShouldBeHandledAfterTheirDependencies() throws ExecutionException {
+        // external dependencies (not in the batch) are ignored
+        List<CsarDependenciesBean> archives = Lists.newArrayList(archive("c", "b", "tosca-normative-types"), archive("b", "a"), archive("a"), archive("d"),
+                archive("e", "a", "c"));
+        batchParser.parseAll(archives, "ALIEN", (path, parsingResult) -> handle(path));
+        assertEquals(5, handled.size());
+        assertHandledBefore("a", "b");
+        assertHandledBefore("b", "c");
+        assertHandledBefore("a", "e");
+        assertHandledBefore("c", "e");
+    }
+
+    @Test
+    public void failureShouldStopTheParsingOfDependents() {
+        List<CsarDependenciesBean> archives = Lists.newArrayList(archive("a"), archive("b", "a"), archive("c", "b"));
+        IllegalStateException failure = new IllegalStateException("indexing failed");
+        try {
+            batchParser.parseAll(archives, "ALIEN", (path, parsingResult) -> {
+                handle(path);
+                if ("a".equals(path.toString())) {
+                    throw failure;
+                }
+            });
+            fail("Failure of a dependency must be reported.");
+        } catch (ExecutionException e) {
+            assertEquals(failure, e.getCause());
+        }
+        assertEquals(Lists.newArrayList("a"), handled);
+    }
+
+    @Test
+    public void archivesWithCyclicDependenciesShouldNotBeParsed() throws ExecutionException {
+        List<CsarDependenciesBean> archives = Lists.newArrayList(archive("a", "b"), archive("b", "a"), archive("c", "b"), archive("d"));
+        batchParser.parseAll(archives, "ALIEN", (path, parsingResult) -> handle(path));
+        assertEquals(Lists.newArrayList("d"), handled);
+    }
+}
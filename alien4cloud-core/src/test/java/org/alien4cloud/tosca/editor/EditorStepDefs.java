@@ -13,6 +13,7 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 import javax.annotation.Resource;
 import javax.inject.Inject;
@@ -318,6 +319,32 @@ public class EditorStepDefs {
         topologyIdToLastOperationId.put(topologyIds.getLast(), null);
     }
 
+    @When("^I undo or redo the topology to operation (-?\\d+)$")
+    public void i_undo_or_redo_the_topology_to_operation(int at) throws Throwable {
+        thrownException = null;
+        try {
+            TopologyDTO dto = editorService.undoRedo(topologyIds.getLast(), at, topologyIdToLastOperationId.get(topologyIds.getLast()));
+            topologyIdToLastOperationId.put(topologyIds.getLast(), at < 0 ? null : dto.getOperations().get(at).getId());
+            dtoEvaluationContext = new StandardEvaluationContext(dto);
+            topologyEvaluationContext = new StandardEvaluationContext(dto.getTopology());
+        } catch (Exception e) {
+            log.error("Error occurred when undoing or redoing operations on the topology", e);
+            thrownException = e;
+            exceptionEvaluationContext = new StandardEvaluationContext(e);
+        }
+    }
+
+    @Then("^The edition context should have snapshots at operations \"([^\"]*)\"$")
+    public void the_edition_context_should_have_snapshots_at_operations(String expectedIndexes) {
+        try {
+            editionContextManager.init(topologyIds.getLast());
+            String indexes = EditionContextManager.get().getSnapshots().keySet().stream().map(String::valueOf).collect(Collectors.joining(","));
+            Assert.assertEquals(expectedIndexes, indexes);
+        } finally {
+            editionContextManager.destroy();
+        }
+    }
+
     @Given("^I upload a file located at \"(.*?)\" to the archive path \"(.*?)\"$")
     public void i_upload_a_file_located_at_to_the_archive_path(String filePath, String archiveTargetPath) throws Throwable {
         UpdateFileOperation updateFileOperation = new UpdateFileOperation(archiveTargetPath, Files.newInputStream(Paths.get(filePath)));
@@ -0,0 +1,77 @@
+package org.alien4cloud.tosca.exporter;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+import org.alien4cloud.tosca.model.Csar;
+import org.alien4cloud.tosca.model.templates.NodeTemplate;
+import org.alien4cloud.tosca.model.templates.Topology;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import alien4cloud.utils.FileUtil;
+
+public class ArchiveExportServiceTest {
+    private ArchiveExportService exportService = new ArchiveExportService();
+    private Path tempDir;
+    private Path targetPath;
+    private Csar csar;
+
+    @Before
+    public void before() throws IOException {
+        tempDir = Files.createTempDirectory("archive-export");
+        targetPath = tempDir.resolve("topology.yml");
+        csar = new Csar("my-topology", "1.0.0-SNAPSHOT");
+        csar.setTemplateAuthor("alien4cloud");
+    }
+
+    @After
+    public void after() throws IOException {
+        FileUtil.delete(tempDir);
+    }
+
+    private void assertOnlyTargetFile() {
+        assertArrayEquals(new String[] { targetPath.getFileName().toString() }, tempDir.toFile().list());
+    }
+
+    @Test
+    public void yamlShouldReplaceTheTargetFile() throws IOException {
+        Files.write(targetPath, "previous content".getBytes(StandardCharsets.UTF_8));
+        Topology topology = new Topology();
+        exportService.writeYaml(csar, topology, targetPath);
+        String yaml = new String(Files.readAllBytes(targetPath), StandardCharsets.UTF_8);
+        assertEquals(exportService.getYaml(csar, topology), yaml);
+        assertTrue(yaml.contains("template_name: my-topology"));
+        // the temporary file has been moved
+        assertOnlyTargetFile();
+    }
+
+    @Test
+    public void failedGenerationShouldLeaveTheTargetFileUnchanged() throws IOException {
+        Files.write(targetPath, "previous content".getBytes(StandardCharsets.UTF_8));
+        Topology topology = new Topology() {
+            @Override
+            public Map<String, NodeTemplate> getNodeTemplates() {
+                throw new IllegalStateException("generation failure");
+            }
+        };
+        try {
+            exportService.writeYaml(csar, topology, targetPath);
+            fail("The generation should have failed");
+        } catch (RuntimeException e) {
+            // velocity wraps the failure
+        }
+        assertEquals("previous content", new String(Files.readAllBytes(targetPath), StandardCharsets.UTF_8));
+        // the temporary file has been removed
+        assertOnlyTargetFile();
+    }
+}
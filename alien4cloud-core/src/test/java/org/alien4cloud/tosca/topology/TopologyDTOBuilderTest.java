@@ -0,0 +1,212 @@
+package org.alien4cloud.tosca.topology;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.alien4cloud.tosca.editor.EditionContext;
+import org.alien4cloud.tosca.editor.operations.AbstractEditorOperation;
+import org.alien4cloud.tosca.model.Csar;
+import org.alien4cloud.tosca.model.definitions.ScalarPropertyValue;
+import org.alien4cloud.tosca.model.templates.NodeTemplate;
+import org.alien4cloud.tosca.model.templates.Topology;
+import org.alien4cloud.tosca.model.types.NodeType;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+
+import alien4cloud.paas.wf.Workflow;
+import alien4cloud.topology.TopologyDeltaDTO;
+import alien4cloud.tosca.context.ToscaContext;
+import alien4cloud.tosca.model.ArchiveRoot;
+
+public class TopologyDTOBuilderTest {
+    private static final String COMPUTE_TYPE = "tosca.nodes.Compute";
+
+    private TopologyDTOBuilder topologyDTOBuilder = new TopologyDTOBuilder();
+    private EditionContext context;
+
+    @Before
+    public void before() {
+        Csar csar = new Csar("topology", "1.0.0-SNAPSHOT");
+        Topology topology = new Topology();
+        topology.setArchiveName(csar.getName());
+        topology.setArchiveVersion(csar.getVersion());
+        topology.setDependencies(Sets.newHashSet());
+        topology.setNodeTemplates(Maps.newLinkedHashMap());
+        topology.getNodeTemplates().put("Compute", nodeTemplate());
+        topology.setWorkflows(Maps.newLinkedHashMap());
+        topology.getWorkflows().put("install", workflow("install"));
+
+        context = new EditionContext();
+        context.setCsar(csar);
+        context.setTopology(topology);
+        context.setToscaContext(new ToscaContext.Context(topology.getDependencies()));
+        // types are provided by the context so that no catalog is required
+        ArchiveRoot typesArchive = new ArchiveRoot();
+        typesArchive.setArchive(new Csar("tosca-normative-types", "1.0.0"));
+        NodeType computeType = new NodeType();
+        computeType.setElementId(COMPUTE_TYPE);
+        computeType.setArchiveName("tosca-normative-types");
+        computeType.setArchiveVersion("1.0.0");
+        computeType.setCapabilities(Lists.newArrayList());
+        computeType.setRequirements(Lists.newArrayList());
+        typesArchive.getNodeTypes().put(COMPUTE_TYPE, computeType);
+        context.getToscaContext().register(typesArchive);
+        ToscaContext.set(context.getToscaContext());
+    }
+
+    @After
+    public void after() {
+        ToscaContext.destroy();
+    }
+
+    private NodeTemplate nodeTemplate() {
+        NodeTemplate nodeTemplate = new NodeTemplate();
+        nodeTemplate.setType(COMPUTE_TYPE);
+        nodeTemplate.setProperties(Maps.newLinkedHashMap());
+        nodeTemplate.getProperties().put("os_type", new ScalarPropertyValue("linux"));
+        return nodeTemplate;
+    }
+
+    private Workflow workflow(String name) {
+        Workflow workflow = new Workflow();
+        workflow.setName(name);
+        return workflow;
+    }
+
+    /** Record a new operation as if it was executed on the context and get the changes since the previous one. */
+    private TopologyDeltaDTO execute(String operationId) {
+        String previousOperationId = context.getLastOperationIndex() < 0 ? null : context.getOperations().get(context.getLastOperationIndex()).getId();
+        AbstractEditorOperation operation = new AbstractEditorOperation() {
+            @Override
+            public String commitMessage() {
+                return "test operation";
+            }
+        };
+        operation.setId(operationId);
+        operation.setPreviousOperationId(previousOperationId);
+        context.getOperations().add(operation);
+        context.setLastOperationIndex(context.getOperations().size() - 1);
+        return topologyDTOBuilder.buildTopologyDeltaDTO(context, previousOperationId);
+    }
+
+    private List<String> getOperationIds(TopologyDeltaDTO deltaDTO) {
+        return deltaDTO.getOperations().stream().map(AbstractEditorOperation::getId).collect(Collectors.toList());
+    }
+
+    private void assertNoChanges(TopologyDeltaDTO deltaDTO) {
+        assertFalse(deltaDTO.isFullResync());
+        assertTrue(deltaDTO.getNodeTemplates().isEmpty());
+        assertTrue(deltaDTO.getRemovedNodeTemplates().isEmpty());
+        assertTrue(deltaDTO.getWorkflows().isEmpty());
+        assertTrue(deltaDTO.getRemovedWorkflows().isEmpty());
+    }
+
+    @Test
+    public void unknownOperationShouldTriggerFullResync() {
+        TopologyDeltaDTO deltaDTO = execute("op1");
+        assertTrue(deltaDTO.isFullResync());
+        assertNotNull(deltaDTO.getTopologyDTO());
+        assertEquals(context.getTopology(), deltaDTO.getTopologyDTO().getTopology());
+        // operations are provided by the topology dto
+        assertNull(deltaDTO.getOperations());
+
+        deltaDTO = topologyDTOBuilder.buildTopologyDeltaDTO(context, "unknown");
+        assertTrue(deltaDTO.isFullResync());
+    }
+
+    @Test
+    public void notModifiedTopologyShouldHaveNoChanges() {
+        execute("op1");
+        TopologyDeltaDTO deltaDTO = execute("op2");
+        assertNoChanges(deltaDTO);
+        assertEquals("op1", deltaDTO.getFromOperationId());
+        assertEquals(1, deltaDTO.getLastOperationIndex());
+        assertEquals(Lists.newArrayList("op2"), getOperationIds(deltaDTO));
+        assertTrue(deltaDTO.getNodeTypes().isEmpty());
+    }
+
+    @Test
+    public void addedElementsShouldBeProvided() {
+        execute("op1");
+        context.getTopology().getNodeTemplates().put("Compute2", nodeTemplate());
+        context.getTopology().getWorkflows().put("uninstall", workflow("uninstall"));
+        TopologyDeltaDTO deltaDTO = execute("op2");
+        assertFalse(deltaDTO.isFullResync());
+        assertEquals(Sets.newHashSet("Compute2"), deltaDTO.getNodeTemplates().keySet());
+        assertEquals(Sets.newHashSet("uninstall"), deltaDTO.getWorkflows().keySet());
+        assertTrue(deltaDTO.getRemovedNodeTemplates().isEmpty());
+        assertTrue(deltaDTO.getRemovedWorkflows().isEmpty());
+        // types of the changed node templates are provided
+        assertEquals(Sets.newHashSet(COMPUTE_TYPE), deltaDTO.getNodeTypes().keySet());
+    }
+
+    @Test
+    public void removedElementsShouldBeProvided() {
+        execute("op1");
+        context.getTopology().getNodeTemplates().remove("Compute");
+        context.getTopology().getWorkflows().remove("install");
+        TopologyDeltaDTO deltaDTO = execute("op2");
+        assertFalse(deltaDTO.isFullResync());
+        assertTrue(deltaDTO.getNodeTemplates().isEmpty());
+        assertTrue(deltaDTO.getWorkflows().isEmpty());
+        assertEquals(Sets.newHashSet("Compute"), deltaDTO.getRemovedNodeTemplates());
+        assertEquals(Sets.newHashSet("install"), deltaDTO.getRemovedWorkflows());
+    }
+
+    @Test
+    public void changedElementsShouldBeProvided() {
+        context.getTopology().getNodeTemplates().put("Compute2", nodeTemplate());
+        execute("op1");
+        // operations modify the templates in place
+        context.getTopology().getNodeTemplates().get("Compute").getProperties().put("os_type", new ScalarPropertyValue("windows"));
+        context.getTopology().getWorkflows().get("install").setDescription("updated");
+        TopologyDeltaDTO deltaDTO = execute("op2");
+        assertFalse(deltaDTO.isFullResync());
+        Map<String, NodeTemplate> nodeTemplates = deltaDTO.getNodeTemplates();
+        assertEquals(Sets.newHashSet("Compute"), nodeTemplates.keySet());
+        assertEquals("windows", ((ScalarPropertyValue) nodeTemplates.get("Compute").getProperties().get("os_type")).getValue());
+        assertEquals(Sets.newHashSet("install"), deltaDTO.getWorkflows().keySet());
+        assertTrue(deltaDTO.getRemovedNodeTemplates().isEmpty());
+        assertTrue(deltaDTO.getRemovedWorkflows().isEmpty());
+    }
+
+    @Test
+    public void changesOutsideOfTemplatesAndWorkflowsShouldTriggerFullResync() {
+        execute("op1");
+        context.getTopology().setDescription("updated description");
+        TopologyDeltaDTO deltaDTO = execute("op2");
+        assertTrue(deltaDTO.isFullResync());
+    }
+
+    @Test
+    public void deltaShouldBeComputedFromAnyKnownOperation() {
+        execute("op1");
+        context.getTopology().getNodeTemplates().put("Compute2", nodeTemplate());
+        execute("op2");
+        context.getTopology().getNodeTemplates().remove("Compute");
+        execute("op3");
+
+        TopologyDeltaDTO deltaDTO = topologyDTOBuilder.buildTopologyDeltaDTO(context, "op1");
+        assertFalse(deltaDTO.isFullResync());
+        assertEquals(Sets.newHashSet("Compute2"), deltaDTO.getNodeTemplates().keySet());
+        assertEquals(Sets.newHashSet("Compute"), deltaDTO.getRemovedNodeTemplates());
+        // only the operations applied since the client's last known operation are sent
+        assertEquals(Lists.newArrayList("op2", "op3"), getOperationIds(deltaDTO));
+        // the current state has not changed since op3
+        deltaDTO = topologyDTOBuilder.buildTopologyDeltaDTO(context, "op3");
+        assertNoChanges(deltaDTO);
+        assertTrue(deltaDTO.getOperations().isEmpty());
+    }
+}
@@ -0,0 +1,130 @@
+Feature: Topology editor: undo and redo operations from snapshots
+
+  Background:
+    Given I am authenticated with "ADMIN" role
+    And I create an empty topology
+
+  # snapshots are taken every 2 operations in the tests configuration
+
+  Scenario: Undo and redo should restore the edition state from snapshots
+    Given I execute the operation
+      | type              | org.alien4cloud.tosca.editor.operations.nodetemplate.AddNodeOperation |
+      | nodeName          | software_component                                                    |
+      | indexedNodeTypeId | tosca.nodes.SoftwareComponent:1.0.0-SNAPSHOT                          |
+    And I execute the operation
+      | type          | org.alien4cloud.tosca.editor.operations.nodetemplate.UpdateNodePropertyValueOperation |
+      | nodeName      | software_component                                                                    |
+      | propertyName  | component_version                                                                     |
+      | propertyValue | 1.2.0                                                                                 |
+    And I execute the operation
+      | type              | org.alien4cloud.tosca.editor.operations.nodetemplate.AddNodeOperation |
+      | nodeName          | Compute1                                                              |
+      | indexedNodeTypeId | tosca.nodes.Compute:1.0                                               |
+    And I execute the operation
+      | type          | org.alien4cloud.tosca.editor.operations.nodetemplate.UpdateNodePropertyValueOperation |
+      | nodeName      | software_component                                                                    |
+      | propertyName  | component_version                                                                     |
+      | propertyValue | 1.3.0                                                                                 |
+    And I execute the operation
+      | type              | org.alien4cloud.tosca.editor.operations.nodetemplate.AddNodeOperation |
+      | nodeName          | Compute2                                                              |
+      | indexedNodeTypeId | tosca.nodes.Compute:1.0                                               |
+    Then No exception should be thrown
+    And The edition context should have snapshots at operations "1,3"
+    When I undo or redo the topology to operation 1
+    Then No exception should be thrown
+    And The SPEL expression "nodeTemplates.size()" should return 1
+    And The SPEL expression "nodeTemplates['software_component'].properties['component_version'].value" should return "1.2.0"
+    When I undo or redo the topology to operation 4
+    Then No exception should be thrown
+    And The SPEL expression "nodeTemplates.size()" should return 3
+    And The SPEL expression "nodeTemplates['software_component'].properties['component_version'].value" should return "1.3.0"
+    When I undo or redo the topology to operation 2
+    Then No exception should be thrown
+    And The SPEL expression "nodeTemplates.size()" should return 2
+    And The SPEL expression "nodeTemplates['Compute1'].type" should return "tosca.nodes.Compute"
+    And The SPEL expression "nodeTemplates['software_component'].properties['component_version'].value" should return "1.2.0"
+    When I undo or redo the topology to operation -1
+    Then No exception should be thrown
+    And The SPEL expression "nodeTemplates == null || nodeTemplates.isEmpty()" should return true
+    When I undo or redo the topology to operation 3
+    Then No exception should be thrown
+    And The SPEL expression "nodeTemplates.size()" should return 2
+    And The SPEL expression "nodeTemplates['software_component'].properties['component_version'].value" should return "1.3.0"
+    And The edition context should have snapshots at operations "1,3"
+
+  Scenario: Executing an operation after an undo should drop the snapshots of the discarded operations
+    Given I execute the operation
+      | type              | org.alien4cloud.tosca.editor.operations.nodetemplate.AddNodeOperation |
+      | nodeName          | software_component                                                    |
+      | indexedNodeTypeId | tosca.nodes.SoftwareComponent:1.0.0-SNAPSHOT                          |
+    And I execute the operation
+      | type          | org.alien4cloud.tosca.editor.operations.nodetemplate.UpdateNodePropertyValueOperation |
+      | nodeName      | software_component                                                                    |
+      | propertyName  | component_version                                                                     |
+      | propertyValue | 1.2.0                                                                                 |
+    And I execute the operation
+      | type              | org.alien4cloud.tosca.editor.operations.nodetemplate.AddNodeOperation |
+      | nodeName          | Compute1                                                              |
+      | indexedNodeTypeId | tosca.nodes.Compute:1.0                                               |
+    And I execute the operation
+      | type          | org.alien4cloud.tosca.editor.operations.nodetemplate.UpdateNodePropertyValueOperation |
+      | nodeName      | software_component                                                                    |
+      | propertyName  | component_version                                                                     |
+      | propertyValue | 1.3.0                                                                                 |
+    And I execute the operation
+      | type              | org.alien4cloud.tosca.editor.operations.nodetemplate.AddNodeOperation |
+      | nodeName          | Compute2                                                              |
+      | indexedNodeTypeId | tosca.nodes.Compute:1.0                                               |
+    When I undo or redo the topology to operation 2
+    Then No exception should be thrown
+    And The edition context should have snapshots at operations "1,3"
+    When I execute the operation
+      | type              | org.alien4cloud.tosca.editor.operations.nodetemplate.AddNodeOperation |
+      | nodeName          | Compute3                                                              |
+      | indexedNodeTypeId | tosca.nodes.Compute:1.0                                               |
+    And I execute the operation
+      | type              | org.alien4cloud.tosca.editor.operations.nodetemplate.AddNodeOperation |
+      | nodeName          | Compute4                                                              |
+      | indexedNodeTypeId | tosca.nodes.Compute:1.0                                               |
+    Then No exception should be thrown
+    And The edition context should have snapshots at operations "1,3"
+    When I undo or redo the topology to operation 3
+    Then No exception should be thrown
+    And The SPEL expression "nodeTemplates.size()" should return 3
+    And The SPEL expression "nodeTemplates['Compute3'].type" should return "tosca.nodes.Compute"
+    And The SPEL expression "nodeTemplates['Compute2']" should return "null"
+    And The SPEL expression "nodeTemplates['software_component'].properties['component_version'].value" should return "1.2.0"
+
+  Scenario: Saving the topology should drop the snapshots
+    Given I execute the operation
+      | type              | org.alien4cloud.tosca.editor.operations.nodetemplate.AddNodeOperation |
+      | nodeName          | software_component                                                    |
+      | indexedNodeTypeId | tosca.nodes.SoftwareComponent:1.0.0-SNAPSHOT                          |
+    And I execute the operation
+      | type          | org.alien4cloud.tosca.editor.operations.nodetemplate.UpdateNodePropertyValueOperation |
+      | nodeName      | software_component                                                                    |
+      | propertyName  | component_version                                                                     |
+      | propertyValue | 1.2.0                                                                                 |
+    And I execute the operation
+      | type              | org.alien4cloud.tosca.editor.operations.nodetemplate.AddNodeOperation |
+      | nodeName          | Compute1                                                              |
+      | indexedNodeTypeId | tosca.nodes.Compute:1.0                                               |
+    And I execute the operation
+      | type          | org.alien4cloud.tosca.editor.operations.nodetemplate.UpdateNodePropertyValueOperation |
+      | nodeName      | software_component                                                                    |
+      | propertyName  | component_version                                                                     |
+      | propertyValue | 1.3.0                                                                                 |
+    Then The edition context should have snapshots at operations "1,3"
+    When I save the topology
+    Then The edition context should have snapshots at operations ""
+    When I execute the operation
+      | type              | org.alien4cloud.tosca.editor.operations.nodetemplate.AddNodeOperation |
+      | nodeName          | Compute2                                                              |
+      | indexedNodeTypeId | tosca.nodes.Compute:1.0                                               |
+    And I undo or redo the topology to operation -1
+    Then No exception should be thrown
+    And The SPEL expression "nodeTemplates.size()" should return 2
+    And The SPEL expression "nodeTemplates['Compute2']" should return "null"
+    And The SPEL expression "nodeTemplates['software_component'].properties['component_version'].value" should return "1.3.0"
+    And The edition context should have snapshots at operations ""
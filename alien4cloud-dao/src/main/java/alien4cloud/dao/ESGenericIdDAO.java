@@ -6,8 +6,14 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
+import org.elasticsearch.action.ActionListener;
+import org.elasticsearch.action.ActionResponse;
+import org.elasticsearch.action.ListenableActionFuture;
 import org.elasticsearch.action.bulk.BulkRequestBuilder;
+import org.elasticsearch.action.bulk.BulkResponse;
 import org.elasticsearch.action.get.GetResponse;
 import org.elasticsearch.action.get.MultiGetItemResponse;
 import org.elasticsearch.action.get.MultiGetResponse;
@@ -25,6 +31,64 @@ import lombok.SneakyThrows;
  */
 public abstract class ESGenericIdDAO extends ESIndexMapper implements IGenericIdDAO {
 
+    /** Write policies to use for types when none is specified on the write operation. */
+    private final Map<Class<?>, WritePolicy> writePolicies = new ConcurrentHashMap<>();
+
+    /**
+     * Define the write policy to use when saving or deleting data of the given type (or sub-types) without explicit write policy.
+     *
+     * @param clazz The type of data.
+     * @param writePolicy The write policy to use by default for this type.
+     */
+    protected void setWritePolicy(Class<?> clazz, WritePolicy writePolicy) {
+        writePolicies.put(clazz, writePolicy);
+    }
+
+    /**
+     * Get the default write policy for a given type.
+     *
+     * @param clazz The type of data.
+     * @return The write policy defined for the type or it's closest parent type, {@link WritePolicy#IMMEDIATE} if none is defined.
+     */
+    protected WritePolicy getWritePolicy(Class<?> clazz) {
+        for (Class<?> current = clazz; current != null; current = current.getSuperclass()) {
+            WritePolicy writePolicy = writePolicies.get(current);
+            if (writePolicy != null) {
+                return writePolicy;
+            }
+        }
+        return WritePolicy.IMMEDIATE;
+    }
+
+    /**
+     * Wait for the write operation to complete or register a listener to log failures based on the write policy.
+     *
+     * @param future The future of the write operation.
+     * @param writePolicy The write policy.
+     */
+    private <R extends ActionResponse> void complete(ListenableActionFuture<R> future, WritePolicy writePolicy) {
+        if (WritePolicy.FIRE_AND_FORGET.equals(writePolicy)) {
+            future.addListener(new ActionListener<R>() {
+                @Override
+                public void onResponse(R response) {
+                    if (response instanceof BulkResponse && ((BulkResponse) response).hasFailures()) {
+                        ESIndexMapper.getLog().error("Failures in asynchronous bulk write: {}", ((BulkResponse) response).buildFailureMessage());
+                    }
+                }
+
+                @Override
+                public void onFailure(Throwable e) {
+                    ESIndexMapper.getLog().error("Asynchronous write failed.", e);
+                }
+            });
+        } else {
+            R response = future.actionGet();
+            if (response instanceof BulkResponse && ((BulkResponse) response).hasFailures()) {
+                throw new IndexingServiceException("Failures in bulk write: " + ((BulkResponse) response).buildFailureMessage());
+            }
+        }
+    }
+
     @Override
     public <T> boolean exist(Class<T> clazz, String id) {
         return getClient().prepareGet(getIndexForType(clazz), MappingBuilder.indexTypeFromClass(clazz), id).setFields(new String[0]).execute().actionGet()
@@ -48,23 +112,37 @@ public abstract class ESGenericIdDAO extends ESIndexMapper implements IGenericId
     }
 
     @Override
-    @SneakyThrows({ IOException.class })
     public <T> void save(T data) {
+        save(data, getWritePolicy(data.getClass()));
+    }
+
+    @Override
+    @SneakyThrows({ IOException.class })
+    public <T> void save(T data, WritePolicy writePolicy) {
         String indexName = getIndexForType(data.getClass());
         String typeName = MappingBuilder.indexTypeFromClass(data.getClass());
 
         updateDate(data);
         String json = getJsonMapper().writeValueAsString(data);
-        getClient().prepareIndex(indexName, typeName).setOperationThreaded(false).setSource(json).setRefresh(true).execute().actionGet();
+        complete(getClient().prepareIndex(indexName, typeName).setOperationThreaded(false).setSource(json)
+                .setRefresh(WritePolicy.IMMEDIATE.equals(writePolicy)).execute(), writePolicy);
     }
 
     @Override
-    @SneakyThrows({ IOException.class })
     public <T> void save(T[] entities) {
         if (entities == null || entities.length == 0) {
             return;
         }
-        BulkRequestBuilder bulkRequestBuilder = getClient().prepareBulk().setRefresh(true);
+        save(entities, getWritePolicy(entities.getClass().getComponentType()));
+    }
+
+    @Override
+    @SneakyThrows({ IOException.class })
+    public <T> void save(T[] entities, WritePolicy writePolicy) {
+        if (entities == null || entities.length == 0) {
+            return;
+        }
+        BulkRequestBuilder bulkRequestBuilder = getClient().prepareBulk().setRefresh(WritePolicy.IMMEDIATE.equals(writePolicy));
         for (T data : entities) {
             String indexName = getIndexForType(data.getClass());
             String typeName = MappingBuilder.indexTypeFromClass(data.getClass());
@@ -73,7 +151,7 @@ public abstract class ESGenericIdDAO extends ESIndexMapper implements IGenericId
             String json = getJsonMapper().writeValueAsString(data);
             bulkRequestBuilder.add(getClient().prepareIndex(indexName, typeName).setSource(json));
         }
-        bulkRequestBuilder.execute().actionGet();
+        complete(bulkRequestBuilder.execute(), writePolicy);
     }
 
     @SuppressWarnings("unchecked")
@@ -102,9 +180,11 @@ public abstract class ESGenericIdDAO extends ESIndexMapper implements IGenericId
 
     @Override
     @SneakyThrows({ IOException.class })
+    @SuppressWarnings("unchecked")
     public <T> List<T> findByIds(Class<T> clazz, String... ids) {
+        boolean abstractType = Modifier.isAbstract(clazz.getModifiers());
         String indexName = getIndexForType(clazz);
-        String typeName = MappingBuilder.indexTypeFromClass(clazz);
+        String typeName = abstractType ? null : MappingBuilder.indexTypeFromClass(clazz);
         MultiGetResponse response = getClient().prepareMultiGet().add(indexName, typeName, ids).execute().actionGet();
 
         if (response == null || response.getResponses() == null || response.getResponses().length == 0) {
@@ -114,7 +194,13 @@ public abstract class ESGenericIdDAO extends ESIndexMapper implements IGenericId
 
         List<T> result = new ArrayList<>();
         for (MultiGetItemResponse getItemResponse : response.getResponses()) {
-            if (getItemResponse.getResponse().isExists()) {
+            if (getItemResponse.isFailed() || !getItemResponse.getResponse().isExists()) {
+                continue;
+            }
+            if (abstractType) {
+                result.add((T) getJsonMapper().readValue(getItemResponse.getResponse().getSourceAsString(),
+                        getTypesToClasses().get(getItemResponse.getResponse().getType())));
+            } else {
                 result.add(getJsonMapper().readValue(getItemResponse.getResponse().getSourceAsString(), clazz));
             }
         }
@@ -124,10 +210,15 @@ public abstract class ESGenericIdDAO extends ESIndexMapper implements IGenericId
 
     @Override
     public void delete(Class<?> clazz, String id) {
+        delete(clazz, id, getWritePolicy(clazz));
+    }
+
+    @Override
+    public void delete(Class<?> clazz, String id, WritePolicy writePolicy) {
         assertIdNotNullFor(id, "delete");
         String indexName = getIndexForType(clazz);
         String typeName = MappingBuilder.indexTypeFromClass(clazz);
-        getClient().prepareDelete(indexName, typeName, id).setRefresh(true).execute().actionGet();
+        complete(getClient().prepareDelete(indexName, typeName, id).setRefresh(WritePolicy.IMMEDIATE.equals(writePolicy)).execute(), writePolicy);
     }
 
     private void assertIdNotNullFor(String id, String operation) {
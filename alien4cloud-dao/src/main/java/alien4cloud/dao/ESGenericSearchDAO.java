@@ -4,19 +4,32 @@ import java.io.IOException;
 import java.lang.reflect.Array;
 import java.lang.reflect.Field;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
 import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import javax.annotation.Resource;
 
+import org.elasticsearch.action.bulk.BulkItemResponse;
 import org.elasticsearch.action.bulk.BulkRequestBuilder;
+import org.elasticsearch.action.bulk.BulkResponse;
 import org.elasticsearch.action.count.CountRequestBuilder;
+import org.elasticsearch.action.search.MultiSearchRequestBuilder;
+import org.elasticsearch.action.search.MultiSearchResponse;
 import org.elasticsearch.action.search.SearchRequestBuilder;
 import org.elasticsearch.action.search.SearchResponse;
 import org.elasticsearch.action.search.SearchType;
 import org.elasticsearch.common.lucene.search.function.CombineFunction;
+import org.elasticsearch.common.unit.TimeValue;
 import org.elasticsearch.index.query.FilterBuilder;
 import org.elasticsearch.index.query.QueryBuilder;
 import org.elasticsearch.index.query.QueryBuilders;
@@ -44,6 +57,8 @@ import com.google.common.collect.Maps;
 import alien4cloud.dao.model.FacetedSearchFacet;
 import alien4cloud.dao.model.FacetedSearchResult;
 import alien4cloud.dao.model.GetMultipleDataResult;
+import alien4cloud.dao.model.SearchQuery;
+import alien4cloud.exception.IndexingServiceException;
 import alien4cloud.rest.utils.JsonUtil;
 import alien4cloud.utils.ElasticSearchUtil;
 import alien4cloud.utils.MapUtil;
@@ -57,6 +72,9 @@ import lombok.extern.slf4j.Slf4j;
  */
 @Slf4j
 public abstract class ESGenericSearchDAO extends ESGenericIdDAO implements IGenericSearchDAO {
+    private static final TimeValue SCROLL_KEEP_ALIVE = TimeValue.timeValueMinutes(1);
+    private static final int DELETE_BATCH_SIZE = 1000;
+
     @Resource
     private ElasticSearchClient esClient;
     @Resource
@@ -83,32 +101,53 @@ public abstract class ESGenericSearchDAO extends ESGenericIdDAO implements IGene
         String indexName = getIndexForType(clazz);
         String typeName = MappingBuilder.indexTypeFromClass(clazz);
 
-        // get all elements and then use a bulk delete to remove data.
+        // scroll over the ids of the elements to delete and remove them using bulk requests, the index is refreshed only once all elements are deleted.
         SearchRequestBuilder searchRequestBuilder = getClient().prepareSearch(indexName).setTypes(getTypesFromClass(clazz)).setQuery(query).setNoFields()
-                .setFetchSource(false);
-        searchRequestBuilder.setFrom(0).setSize(1000);
+                .setFetchSource(false).setSearchType(SearchType.SCAN).setScroll(SCROLL_KEEP_ALIVE).setSize(DELETE_BATCH_SIZE);
         SearchResponse response = searchRequestBuilder.execute().actionGet();
-
-        while (somethingFound(response)) {
-            BulkRequestBuilder bulkRequestBuilder = getClient().prepareBulk().setRefresh(true);
-
-            for (int i = 0; i < response.getHits().hits().length; i++) {
-                String id = response.getHits().hits()[i].getId();
-                bulkRequestBuilder.add(getClient().prepareDelete(indexName, typeName, id));
+        long total = response.getHits().getTotalHits();
+        long deleted = 0;
+        long failed = 0;
+        String failureMessage = null;
+        try (Stream<SearchHit> hits = scroll(response)) {
+            if (total == 0) {
+                return;
             }
-
-            bulkRequestBuilder.execute().actionGet();
-
-            if (response.getHits().totalHits() == response.getHits().hits().length) {
-                response = null;
-            } else {
-                response = searchRequestBuilder.execute().actionGet();
+            log.debug("Deleting {} elements of type {} from index {}", total, typeName, indexName);
+            Iterator<SearchHit> hitIterator = hits.iterator();
+            while (hitIterator.hasNext()) {
+                BulkRequestBuilder bulkRequestBuilder = getClient().prepareBulk();
+                while (hitIterator.hasNext() && bulkRequestBuilder.numberOfActions() < DELETE_BATCH_SIZE) {
+                    bulkRequestBuilder.add(getClient().prepareDelete(indexName, typeName, hitIterator.next().getId()));
+                }
+                BulkResponse bulkResponse = bulkRequestBuilder.execute().actionGet();
+                for (BulkItemResponse itemResponse : bulkResponse.getItems()) {
+                    if (itemResponse.isFailed()) {
+                        failed++;
+                    } else {
+                        deleted++;
+                    }
+                }
+                if (bulkResponse.hasFailures()) {
+                    failureMessage = bulkResponse.buildFailureMessage();
+                    log.warn("Failed to delete some elements of type {} from index {}: {}", typeName, indexName, failureMessage);
+                }
+                log.debug("Deleted {}/{} elements of type {} from index {}", deleted, total, typeName, indexName);
             }
         }
+        getClient().admin().indices().prepareRefresh(indexName).execute().actionGet();
+        log.info("Deleted {} elements of type {} from index {}", deleted, typeName, indexName);
+        if (failed > 0) {
+            throw new IndexingServiceException(
+                    "Failed to delete " + failed + " of " + total + " elements of type " + typeName + " from index " + indexName + ": " + failureMessage);
+        }
     }
 
-    @SneakyThrows({ IOException.class })
     private <T> List<T> doCustomFind(Class<T> clazz, QueryBuilder query, SortBuilder sortBuilder, int size) {
+        return toObjects(doCustomSearch(clazz, query, sortBuilder, size));
+    }
+
+    private SearchResponse doCustomSearch(Class<?> clazz, QueryBuilder query, SortBuilder sortBuilder, int size) {
         String indexName = getIndexForType(clazz);
         SearchRequestBuilder searchRequestBuilder = getClient().prepareSearch(indexName).setTypes(getTypesFromClass(clazz)).setSize(size);
         if (query != null) {
@@ -117,7 +156,11 @@ public abstract class ESGenericSearchDAO extends ESGenericIdDAO implements IGene
         if (sortBuilder != null) {
             searchRequestBuilder.addSort(sortBuilder);
         }
-        SearchResponse response = searchRequestBuilder.execute().actionGet();
+        return searchRequestBuilder.execute().actionGet();
+    }
+
+    @SneakyThrows({ IOException.class })
+    private <T> List<T> toObjects(SearchResponse response) {
         if (!somethingFound(response)) {
             return null;
         } else {
@@ -151,7 +194,108 @@ public abstract class ESGenericSearchDAO extends ESGenericIdDAO implements IGene
 
     @Override
     public <T> List<T> customFindAll(Class<T> clazz, QueryBuilder query, SortBuilder sortBuilder) {
-        return doCustomFind(clazz, query, sortBuilder, Integer.MAX_VALUE);
+        // most queries match less than a batch of elements, a single search is then enough and the scroll is used only for larger results.
+        SearchResponse response = doCustomSearch(clazz, query, sortBuilder, DEFAULT_SCROLL_BATCH_SIZE);
+        if (response.getHits().getTotalHits() <= response.getHits().getHits().length) {
+            return toObjects(response);
+        }
+        try (Stream<T> stream = stream(clazz, query, sortBuilder, DEFAULT_SCROLL_BATCH_SIZE)) {
+            List<T> hits = stream.collect(Collectors.toList());
+            return hits.isEmpty() ? null : hits;
+        }
+    }
+
+    @Override
+    public <T> Stream<T> stream(Class<T> clazz, QueryBuilder query, int batchSize) {
+        return stream(clazz, query, null, batchSize);
+    }
+
+    @Override
+    public <T> Stream<T> stream(Class<T> clazz, QueryBuilder query, SortBuilder sortBuilder, int batchSize) {
+        String indexName = getIndexForType(clazz);
+        SearchRequestBuilder searchRequestBuilder = getClient().prepareSearch(indexName).setTypes(getTypesFromClass(clazz)).setSize(batchSize)
+                .setScroll(SCROLL_KEEP_ALIVE);
+        if (query != null) {
+            searchRequestBuilder.setQuery(query);
+        }
+        if (sortBuilder == null) {
+            // scan is the most efficient way to scroll when there is no need for sorting.
+            searchRequestBuilder.setSearchType(SearchType.SCAN);
+        } else {
+            searchRequestBuilder.addSort(sortBuilder);
+        }
+        return scroll(searchRequestBuilder.execute().actionGet()).map(this::readHit);
+    }
+
+    @SneakyThrows({ IOException.class })
+    private <T> T readHit(SearchHit hit) {
+        return hitToObject(hit);
+    }
+
+    /**
+     * Stream the hits of a scroll, starting from the response of the initial scroll search request.
+     */
+    private Stream<SearchHit> scroll(SearchResponse response) {
+        ScrollIterator iterator = new ScrollIterator(response);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL), false).onClose(iterator::close);
+    }
+
+    /**
+     * Iterates over the hits of a scroll, fetching the next batch of hits only when the current one has been consumed. The scroll is released once all hits
+     * have been consumed or when the iterator is closed.
+     */
+    private class ScrollIterator implements Iterator<SearchHit> {
+        private String scrollId;
+        private SearchHit[] hits;
+        private int index;
+
+        private ScrollIterator(SearchResponse response) {
+            consume(response);
+            if (response.getHits().getTotalHits() == 0) {
+                close();
+            }
+        }
+
+        private void consume(SearchResponse response) {
+            scrollId = response.getScrollId();
+            hits = response.getHits().getHits();
+            index = 0;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (index >= hits.length) {
+                if (scrollId == null) {
+                    return false;
+                }
+                consume(getClient().prepareSearchScroll(scrollId).setScroll(SCROLL_KEEP_ALIVE).execute().actionGet());
+                if (hits.length == 0) {
+                    close();
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public SearchHit next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return hits[index++];
+        }
+
+        private void close() {
+            if (scrollId == null) {
+                return;
+            }
+            try {
+                getClient().prepareClearScroll().addScrollId(scrollId).execute().actionGet();
+            } catch (Exception e) {
+                log.warn("Failed to clear elastic search scroll, it will be released on timeout.", e);
+            }
+            scrollId = null;
+        }
     }
 
     @Override
@@ -214,6 +358,28 @@ public abstract class ESGenericSearchDAO extends ESGenericIdDAO implements IGene
         return toGetMultipleDataResult(Object.class, searchResponse, from);
     }
 
+    @Override
+    public List<GetMultipleDataResult<Object>> multiSearch(List<SearchQuery> queries) {
+        if (queries.isEmpty()) {
+            return Lists.newArrayList();
+        }
+        MultiSearchRequestBuilder multiSearchRequestBuilder = getClient().prepareMultiSearch();
+        for (SearchQuery query : queries) {
+            multiSearchRequestBuilder.add(new MultiSearchQueryBuilderHelper((QueryHelper.QueryBuilderHelper) queryHelper.buildQuery(query.getSearchText()))
+                    .prepare(query));
+        }
+        MultiSearchResponse.Item[] items = multiSearchRequestBuilder.execute().actionGet().getResponses();
+        List<GetMultipleDataResult<Object>> results = Lists.newArrayListWithCapacity(items.length);
+        for (int i = 0; i < items.length; i++) {
+            if (items[i].isFailure()) {
+                throw new IndexingServiceException("Failed to execute search on indices " + Arrays.toString(queries.get(i).getIndices()) + ": "
+                        + items[i].getFailureMessage());
+            }
+            results.add(toGetMultipleDataResult(Object.class, items[i].getResponse(), queries.get(i).getFrom()));
+        }
+        return results;
+    }
+
     @Override
     public <T> FacetedSearchResult facetedSearch(Class<T> clazz, String searchText, Map<String, String[]> filters, int maxElements) {
         return facetedSearch(clazz, searchText, filters, null, 0, maxElements);
@@ -515,6 +681,26 @@ public abstract class ESGenericSearchDAO extends ESGenericIdDAO implements IGene
         return new EsQueryBuilderHelper((QueryHelper.QueryBuilderHelper) queryHelper.buildQuery(prefixField, searchQuery), clazz);
     }
 
+    /**
+     * Extends the QueryBuilderHelper to build the search request of a {@link SearchQuery} without executing it so it can be added to a multi-search request.
+     */
+    private class MultiSearchQueryBuilderHelper extends QueryHelper.QueryBuilderHelper {
+        private MultiSearchQueryBuilderHelper(QueryHelper.QueryBuilderHelper from) {
+            super(from);
+        }
+
+        private SearchRequestBuilder prepare(SearchQuery query) {
+            super.types(query.getClasses());
+            super.filters(query.getFilters(), query.getCustomFilter());
+            super.prepareSearch(query.getIndices());
+            super.fetchContext(query.getFetchContext());
+            // as done by execute for a single search, the request must get the types and the (filtered) query
+            searchRequestBuilder.setTypes(getTypes());
+            searchRequestBuilder.setQuery(queryBuilder);
+            return searchRequestBuilder.setFrom(query.getFrom()).setSize(query.getSize());
+        }
+    }
+
     /**
      * Extends the QueryBuilderHelper to provide class based indices and types.
      */
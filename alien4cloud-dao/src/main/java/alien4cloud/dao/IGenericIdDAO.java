@@ -15,6 +15,14 @@ public interface IGenericIdDAO {
      */
     <T> void save(T entity);
 
+    /**
+     * Saves an entity into the repository using the given write policy.
+     *
+     * @param entity the entity to save
+     * @param writePolicy The policy that defines if the call should wait for the write and refresh the index.
+     */
+    <T> void save(T entity, WritePolicy writePolicy);
+
     /**
      * Bulk save multiple entities into the repository
      * 
@@ -22,6 +30,14 @@ public interface IGenericIdDAO {
      */
     <T> void save(T[] entities);
 
+    /**
+     * Bulk save multiple entities into the repository using the given write policy.
+     *
+     * @param entities The entities to save.
+     * @param writePolicy The policy that defines if the call should wait for the write and refresh the index.
+     */
+    <T> void save(T[] entities, WritePolicy writePolicy);
+
     /**
      * Find an instance from the given class.
      * 
@@ -57,4 +73,13 @@ public interface IGenericIdDAO {
      * @param id The id of the object to delete.
      */
     void delete(Class<?> clazz, String id);
+
+    /**
+     * Delete an instance from the given class using the given write policy.
+     *
+     * @param clazz The class of the object to delete.
+     * @param id The id of the object to delete.
+     * @param writePolicy The policy that defines if the call should wait for the delete and refresh the index.
+     */
+    void delete(Class<?> clazz, String id, WritePolicy writePolicy);
 }
\ No newline at end of file
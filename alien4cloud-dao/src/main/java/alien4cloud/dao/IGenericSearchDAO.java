@@ -2,6 +2,7 @@ package alien4cloud.dao;
 
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Stream;
 
 import org.elasticsearch.client.Client;
 import org.elasticsearch.index.query.FilterBuilder;
@@ -13,11 +14,14 @@ import org.elasticsearch.search.sort.SortOrder;
 
 import alien4cloud.dao.model.FacetedSearchResult;
 import alien4cloud.dao.model.GetMultipleDataResult;
+import alien4cloud.dao.model.SearchQuery;
 
 /**
  * A Dao that supports search and/or filter based queries.
  */
 public interface IGenericSearchDAO extends IGenericIdDAO {
+    /** Default number of hits fetched by every scroll request when streaming data. */
+    int DEFAULT_SCROLL_BATCH_SIZE = 500;
 
     /**
      * Get the elasticsearch client. Note use directly the elasticsearch client only for specific queries.
@@ -66,6 +70,7 @@ public interface IGenericSearchDAO extends IGenericIdDAO {
      *
      * @param clazz
      * @param query
+     * @throws alien4cloud.exception.IndexingServiceException If some of the matching elements cannot be deleted (the other elements are deleted).
      */
     void delete(Class<?> clazz, QueryBuilder query);
 
@@ -107,6 +112,29 @@ public interface IGenericSearchDAO extends IGenericIdDAO {
      */
     <T> List<T> customFindAll(Class<T> clazz, QueryBuilder query, SortBuilder sortBuilder);
 
+    /**
+     * Stream all the data matching a query. Data is fetched from elastic search by batches using a scroll and de-serialized lazily while the stream is
+     * consumed. The stream should be closed (try-with-resources) if it is not fully consumed in order to release the scroll.
+     *
+     * @param clazz The type of data to query.
+     * @param query The query to execute, null to match all data of the given type.
+     * @param batchSize The number of hits to fetch for every scroll request.
+     * @return A stream of all the data matching the query.
+     */
+    <T> Stream<T> stream(Class<T> clazz, QueryBuilder query, int batchSize);
+
+    /**
+     * Stream all the data matching a query. Data is fetched from elastic search by batches using a scroll and de-serialized lazily while the stream is
+     * consumed. The stream should be closed (try-with-resources) if it is not fully consumed in order to release the scroll.
+     *
+     * @param clazz The type of data to query.
+     * @param query The query to execute, null to match all data of the given type.
+     * @param sortBuilder the sort configuration, null if the order of the data doesn't matter (faster).
+     * @param batchSize The number of hits to fetch for every scroll request.
+     * @return A stream of all the data matching the query.
+     */
+    <T> Stream<T> stream(Class<T> clazz, QueryBuilder query, SortBuilder sortBuilder, int batchSize);
+
     /**
      * Run a query build from a {@link QueryHelper.ISearchQueryBuilderHelper}.
      *
@@ -219,6 +247,14 @@ public interface IGenericSearchDAO extends IGenericIdDAO {
     GetMultipleDataResult<Object> search(String[] searchIndices, Class<?>[] classes, String searchText, Map<String, String[]> filters,
             FilterBuilder customFilter, String fetchContext, int from, int maxElements);
 
+    /**
+     * Performs several searches in a single multi-search request, the searches being executed in parallel by elastic search.
+     *
+     * @param queries The searches to perform.
+     * @return A {@link GetMultipleDataResult} for each query, in the order of the queries.
+     */
+    List<GetMultipleDataResult<Object>> multiSearch(List<SearchQuery> queries);
+
     /**
      * Search for data and get a list of facets if any are configured.
      *
@@ -0,0 +1,16 @@
+package alien4cloud.dao;
+
+/**
+ * Defines how the DAO waits for a write (index or delete) operation and when the written data becomes visible to searches.
+ */
+public enum WritePolicy {
+    /** Wait for the write and refresh the index so that the data is immediately visible to searches. This is the default policy. */
+    IMMEDIATE,
+    /**
+     * Wait for the write but do not refresh the index, the data is visible to searches after the next periodic refresh of the index. Get by id operations
+     * are not impacted as they are realtime.
+     */
+    NEXT_REFRESH,
+    /** Do not wait for the write nor refresh the index, failures are only logged. */
+    FIRE_AND_FORGET
+}
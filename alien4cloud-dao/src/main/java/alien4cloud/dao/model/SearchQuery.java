@@ -0,0 +1,36 @@
+package alien4cloud.dao.model;
+
+import java.util.Map;
+
+import org.elasticsearch.index.query.FilterBuilder;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Definition of a single search on a set of indices, used to execute several searches in a single multi-search request.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor(suppressConstructorProperties = true)
+public class SearchQuery {
+    /** Indices in which to search. */
+    private String[] indices;
+    /** Classes to search. */
+    private Class<?>[] classes;
+    /** The text to search for. */
+    private String searchText;
+    /** The filters for the search or null if no filters. */
+    private Map<String, String[]> filters;
+    /** The custom defined filter or null. */
+    private FilterBuilder customFilter;
+    /** A fetch context to define a partial response. */
+    private String fetchContext;
+    /** Offset from the first result to fetch. */
+    private int from;
+    /** Maximum number of elements to get. */
+    private int size;
+}
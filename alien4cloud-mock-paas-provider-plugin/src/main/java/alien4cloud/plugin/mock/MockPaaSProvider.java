@@ -34,7 +34,9 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 
 import alien4cloud.dao.MonitorESDAO;
 import alien4cloud.model.deployment.Deployment;
+import alien4cloud.orchestrators.plugin.IOrchestratorEventPublisher;
 import alien4cloud.paas.IPaaSCallback;
+import alien4cloud.paas.IPaaSEventSink;
 import alien4cloud.paas.exception.PluginConfigurationException;
 import alien4cloud.paas.model.AbstractMonitorEvent;
 import alien4cloud.paas.model.DeploymentStatus;
@@ -58,7 +60,7 @@ import alien4cloud.tosca.normative.NormativeRelationshipConstants;
 import lombok.extern.slf4j.Slf4j;
 
 @Slf4j
-public abstract class MockPaaSProvider extends AbstractPaaSProvider {
+public abstract class MockPaaSProvider extends AbstractPaaSProvider implements IOrchestratorEventPublisher {
     public static final String PUBLIC_IP = "ip_address";
     public static final String TOSCA_ID = "tosca_id";
     public static final String TOSCA_NAME = "tosca_name";
@@ -73,6 +75,11 @@ public abstract class MockPaaSProvider extends AbstractPaaSProvider {
 
     private final List<AbstractMonitorEvent> toBeDeliveredEvents = Collections.synchronizedList(new ArrayList<AbstractMonitorEvent>());
 
+    /** Sink to which to push the events, null when events are polled. */
+    private volatile IPaaSEventSink eventSink;
+    /** Lock held while publishing to the sink so that events are published in order, publishing may block (back-pressure). */
+    private final Object publishLock = new Object();
+
     @Inject
     private IToscaTypeSearchService toscaTypeSearchService;
 
@@ -242,12 +249,12 @@ public abstract class MockPaaSProvider extends AbstractPaaSProvider {
                 event.setDeploymentStatus(status);
                 event.setDate((new Date()).getTime());
                 event.setDeploymentId(paaSDeploymentIdToAlienDeploymentIdMap.get(deploymentPaaSId));
-                toBeDeliveredEvents.add(event);
+                deliver(event);
                 PaaSMessageMonitorEvent messageMonitorEvent = new PaaSMessageMonitorEvent();
                 messageMonitorEvent.setDate((new Date()).getTime());
                 messageMonitorEvent.setDeploymentId(paaSDeploymentIdToAlienDeploymentIdMap.get(deploymentPaaSId));
                 messageMonitorEvent.setMessage("APPLICATIONS.RUNTIME.EVENTS.MESSAGE_EVENT.STATUS_DEPLOYMENT_CHANGED");
-                toBeDeliveredEvents.add(messageMonitorEvent);
+                deliver(messageMonitorEvent);
             }
         }, 2, TimeUnit.SECONDS);
         return oldDeploymentStatus;
@@ -277,20 +284,20 @@ public abstract class MockPaaSProvider extends AbstractPaaSProvider {
                 event.setDeploymentId(paaSDeploymentIdToAlienDeploymentIdMap.get(deploymentPaaSId));
                 event.setRuntimeProperties(cloned.getRuntimeProperties());
                 event.setAttributes(cloned.getAttributes());
-                toBeDeliveredEvents.add(event);
+                deliver(event);
 
                 if (deployment.getSourceName().equals(BLOCKSTORAGE_APPLICATION) && cloned.getState().equalsIgnoreCase("created")) {
                     PaaSInstancePersistentResourceMonitorEvent prme = new PaaSInstancePersistentResourceMonitorEvent(nodeId, instanceId.toString(),
                             MapUtil.newHashMap(new String[] { NormativeBlockStorageConstants.VOLUME_ID }, new Object[] { UUID.randomUUID().toString() }));
                     prme.setDeploymentId(deployment.getId());
-                    toBeDeliveredEvents.add(prme);
+                    deliver(prme);
                 }
 
                 PaaSMessageMonitorEvent messageMonitorEvent = new PaaSMessageMonitorEvent();
                 messageMonitorEvent.setDate((new Date()).getTime());
                 messageMonitorEvent.setDeploymentId(paaSDeploymentIdToAlienDeploymentIdMap.get(deploymentPaaSId));
                 messageMonitorEvent.setMessage("APPLICATIONS.RUNTIME.EVENTS.MESSAGE_EVENT.INSTANCE_STATE_CHANGED");
-                toBeDeliveredEvents.add(messageMonitorEvent);
+                deliver(messageMonitorEvent);
             }
         }, delay, TimeUnit.SECONDS);
     }
@@ -305,7 +312,7 @@ public abstract class MockPaaSProvider extends AbstractPaaSProvider {
                 event.setNodeTemplateId(nodeId);
                 event.setDate((new Date()).getTime());
                 event.setDeploymentId(paaSDeploymentIdToAlienDeploymentIdMap.get(deploymentPaaSId));
-                toBeDeliveredEvents.add(event);
+                deliver(event);
             }
         }, delay, TimeUnit.SECONDS);
     }
@@ -480,11 +487,64 @@ public abstract class MockPaaSProvider extends AbstractPaaSProvider {
 
     @Override
     public void getEventsSince(Date date, int maxEvents, IPaaSCallback<AbstractMonitorEvent[]> eventsCallback) {
-        AbstractMonitorEvent[] events = toBeDeliveredEvents.toArray(new AbstractMonitorEvent[toBeDeliveredEvents.size()]);
-        toBeDeliveredEvents.clear();
+        AbstractMonitorEvent[] events;
+        synchronized (toBeDeliveredEvents) {
+            events = toBeDeliveredEvents.toArray(new AbstractMonitorEvent[toBeDeliveredEvents.size()]);
+            toBeDeliveredEvents.clear();
+        }
         eventsCallback.onSuccess(events);
     }
 
+    @Override
+    public void startPublishing(IPaaSEventSink sink) {
+        synchronized (publishLock) {
+            eventSink = sink;
+        }
+        // publish the events that occurred before alien started to listen
+        publishEvents();
+    }
+
+    @Override
+    public void stopPublishing() {
+        synchronized (publishLock) {
+            eventSink = null;
+        }
+    }
+
+    private void deliver(AbstractMonitorEvent event) {
+        toBeDeliveredEvents.add(event);
+        publishEvents();
+    }
+
+    /**
+     * Publish the events to be delivered if alien listens to the events, the events list is not locked while publishing so that the events can still be
+     * added (or polled) when the sink blocks.
+     */
+    private void publishEvents() {
+        synchronized (publishLock) {
+            if (eventSink == null) {
+                return;
+            }
+            AbstractMonitorEvent[] events;
+            synchronized (toBeDeliveredEvents) {
+                events = toBeDeliveredEvents.toArray(new AbstractMonitorEvent[toBeDeliveredEvents.size()]);
+                toBeDeliveredEvents.clear();
+            }
+            for (AbstractMonitorEvent event : events) {
+                publish(event);
+            }
+        }
+    }
+
+    private void publish(AbstractMonitorEvent event) {
+        try {
+            eventSink.publish(event);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Interrupted while publishing event {}", event);
+        }
+    }
+
     @Override
     protected String doExecuteOperation(NodeOperationExecRequest request) {
         List<String> allowedOperation = Arrays.asList("success", "success_param");
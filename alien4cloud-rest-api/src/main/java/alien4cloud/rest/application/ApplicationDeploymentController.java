@@ -27,6 +27,8 @@ import org.springframework.web.context.request.async.DeferredResult;
 
 import com.google.common.collect.Maps;
 
+import alien4cloud.application.ApplicationDashboardService;
+import alien4cloud.application.ApplicationDashboardService.EnvironmentDeployment;
 import alien4cloud.application.ApplicationEnvironmentService;
 import alien4cloud.application.ApplicationService;
 import alien4cloud.audit.annotation.Audit;
@@ -77,6 +79,8 @@ public class ApplicationDeploymentController {
     private ApplicationService applicationService;
     @Resource
     private ApplicationEnvironmentService applicationEnvironmentService;
+    @Inject
+    private ApplicationDashboardService applicationDashboardService;
     @Resource
     private DeploymentService deploymentService;
     @Inject
@@ -226,26 +230,21 @@ public class ApplicationDeploymentController {
     @Deprecated
     public RestResponse<Map<String, Map<String, EnvironmentStatusDTO>>> getApplicationsStatuses(@RequestBody List<String> applicationIds) {
         Map<String, Map<String, EnvironmentStatusDTO>> statuses = Maps.newHashMap();
-
-        for (String applicationId : applicationIds) {
+        for (Map.Entry<String, List<EnvironmentDeployment>> applicationEnvironments : applicationDashboardService.getEnvironments(applicationIds).entrySet()) {
             Map<String, EnvironmentStatusDTO> environmentStatuses = Maps.newHashMap();
-            Application application = applicationService.checkAndGetApplication(applicationId);
-            // get all environments status for the current application
-            ApplicationEnvironment[] environments = applicationEnvironmentService.getByApplicationId(application.getId());
-            for (ApplicationEnvironment env : environments) {
-                if (AuthorizationUtil.hasAuthorizationForEnvironment(application, env, ApplicationEnvironmentRole.values())) {
-                    DeploymentStatus status = DeploymentStatus.UNKNOWN;
-                    try {
-                        status = applicationEnvironmentService.getStatus(env);
-                    } catch (Exception e) {
-                        log.debug("Getting status for the environment <" + env.getId()
-                                + "> failed because the associated orchestrator seems disabled. Returned status is UNKNOWN.", e);
-                    }
-                    // TODO: include environment roles in the DTO to help display on ui
-                    environmentStatuses.put(env.getId(), new EnvironmentStatusDTO(env.getName(), status));
+            for (EnvironmentDeployment environmentDeployment : applicationEnvironments.getValue()) {
+                ApplicationEnvironment env = environmentDeployment.getEnvironment();
+                DeploymentStatus status = DeploymentStatus.UNKNOWN;
+                try {
+                    status = applicationEnvironmentService.getStatus(environmentDeployment.getDeployment());
+                } catch (Exception e) {
+                    log.debug("Getting status for the environment <" + env.getId()
+                            + "> failed because the associated orchestrator seems disabled. Returned status is UNKNOWN.", e);
                 }
+                // TODO: include environment roles in the DTO to help display on ui
+                environmentStatuses.put(env.getId(), new EnvironmentStatusDTO(env.getName(), status));
             }
-            statuses.put(applicationId, environmentStatuses);
+            statuses.put(applicationEnvironments.getKey(), environmentStatuses);
         }
         return RestResponseBuilder.<Map<String, Map<String, EnvironmentStatusDTO>>> builder().data(statuses).build();
     }
@@ -256,17 +255,12 @@ public class ApplicationDeploymentController {
     @Deprecated
     public RestResponse<Map<String, ApplicationEnvironmentDTO[]>> getApplicationsEnvironments(@RequestBody List<String> applicationIds) {
         Map<String, ApplicationEnvironmentDTO[]> envsByApplicationId = Maps.newHashMap();
-        for (String applicationId : applicationIds) {
-            Application application = applicationService.checkAndGetApplication(applicationId);
-            // get all environments status for the current application
-            ApplicationEnvironment[] environments = applicationEnvironmentService.getByApplicationId(application.getId());
-            List<ApplicationEnvironmentDTO> userEnvironmentList = new ArrayList<>(environments.length);
-            for (ApplicationEnvironment env : environments) {
-                if (AuthorizationUtil.hasAuthorizationForEnvironment(application, env, ApplicationEnvironmentRole.values())) {
-                    userEnvironmentList.add(dtoBuilder.getApplicationEnvironmentDTO(env));
-                }
+        for (Map.Entry<String, List<EnvironmentDeployment>> applicationEnvironments : applicationDashboardService.getEnvironments(applicationIds).entrySet()) {
+            List<ApplicationEnvironmentDTO> userEnvironmentList = new ArrayList<>(applicationEnvironments.getValue().size());
+            for (EnvironmentDeployment environmentDeployment : applicationEnvironments.getValue()) {
+                userEnvironmentList.add(dtoBuilder.getApplicationEnvironmentDTO(environmentDeployment.getEnvironment(), environmentDeployment.getDeployment()));
             }
-            envsByApplicationId.put(applicationId, userEnvironmentList.toArray(new ApplicationEnvironmentDTO[userEnvironmentList.size()]));
+            envsByApplicationId.put(applicationEnvironments.getKey(), userEnvironmentList.toArray(new ApplicationEnvironmentDTO[userEnvironmentList.size()]));
         }
         return RestResponseBuilder.<Map<String, ApplicationEnvironmentDTO[]>> builder().data(envsByApplicationId).build();
     }
@@ -42,6 +42,26 @@ public class ApplicationEnvironmentDTOBuilder {
      * @return The application environement DTO matching the given application environement.
      */
     public ApplicationEnvironmentDTO getApplicationEnvironmentDTO(ApplicationEnvironment env) {
+        Deployment deployment;
+        try {
+            deployment = applicationEnvironmentService.getActiveDeployment(env.getId());
+        } catch (Exception e) {
+            log.debug("Getting deployment for the environment <" + env.getId() + "> failed. Returned status is UNKNOWN.", e);
+            ApplicationEnvironmentDTO tempEnvDTO = getApplicationEnvironmentDTO(env, null);
+            tempEnvDTO.setStatus(DeploymentStatus.UNKNOWN);
+            return tempEnvDTO;
+        }
+        return getApplicationEnvironmentDTO(env, deployment);
+    }
+
+    /**
+     * Creates an ApplicationEnvironmentDTO from an ApplicationEnvironment and its already loaded active deployment adding the deployment status informations.
+     *
+     * @param env The environment for which to create DTO
+     * @param deployment The active deployment of the environment, null if the environment is not deployed.
+     * @return The application environement DTO matching the given application environement.
+     */
+    public ApplicationEnvironmentDTO getApplicationEnvironmentDTO(ApplicationEnvironment env, Deployment deployment) {
         ApplicationEnvironmentDTO tempEnvDTO = new ApplicationEnvironmentDTO();
         tempEnvDTO.setApplicationId(env.getApplicationId());
         tempEnvDTO.setDescription(env.getDescription());
@@ -52,7 +72,6 @@ public class ApplicationEnvironmentDTOBuilder {
         tempEnvDTO.setGroupRoles(env.getGroupRoles());
         tempEnvDTO.setCurrentVersionName(env.getTopologyVersion());
         try {
-            Deployment deployment = applicationEnvironmentService.getActiveDeployment(env.getId());
             tempEnvDTO.setStatus(applicationEnvironmentService.getStatus(deployment));
             if (!DeploymentStatus.UNDEPLOYED.equals(tempEnvDTO.getStatus())) {
                 tempEnvDTO.setDeployedVersion(deployment.getVersionId());
@@ -1,13 +1,15 @@
 package alien4cloud.rest.quicksearch;
 
-import java.util.Map;
-import java.util.Set;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
 
+import javax.annotation.PostConstruct;
 import javax.annotation.Resource;
 
 import io.swagger.annotations.Api;
 import org.apache.commons.lang3.ArrayUtils;
 import org.elasticsearch.index.query.FilterBuilder;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.MediaType;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.RequestBody;
@@ -19,6 +21,7 @@ import alien4cloud.dao.ElasticSearchDAO;
 import alien4cloud.dao.IGenericSearchDAO;
 import alien4cloud.dao.model.FetchContext;
 import alien4cloud.dao.model.GetMultipleDataResult;
+import alien4cloud.dao.model.SearchQuery;
 import alien4cloud.model.application.Application;
 import org.alien4cloud.tosca.model.types.NodeType;
 import alien4cloud.rest.model.BasicSearchRequest;
@@ -26,9 +29,14 @@ import alien4cloud.rest.model.RestResponse;
 import alien4cloud.rest.model.RestResponseBuilder;
 import alien4cloud.security.AuthorizationUtil;
 import alien4cloud.security.model.Role;
+import alien4cloud.security.model.User;
 
-import com.google.common.collect.Sets;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.Lists;
 import io.swagger.annotations.ApiOperation;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
 
 /**
  * Handle Quick Search requests.
@@ -42,56 +50,75 @@ public class QuickSearchController {
     @Resource(name = "alien-es-dao")
     private IGenericSearchDAO alienDAO;
 
+    @Value("${quicksearch.cache.ttl_ms:0}")
+    private long cacheTtl;
+    @Value("${quicksearch.cache.max_size:1000}")
+    private long cacheMaxSize;
+
+    /** Short lived cache of the results of the quick searches by user, null if disabled. */
+    private Cache<QuickSearchKey, GetMultipleDataResult> resultsCache;
+
+    @PostConstruct
+    public void init() {
+        if (cacheTtl > 0) {
+            resultsCache = CacheBuilder.newBuilder().expireAfterWrite(cacheTtl, TimeUnit.MILLISECONDS).maximumSize(cacheMaxSize).build();
+        }
+    }
+
     @ApiOperation(value = "Search for applications or tosca elements in ALIEN's repository.")
     @RequestMapping(method = RequestMethod.POST, consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
     @PreAuthorize("isAuthenticated()")
     public RestResponse<GetMultipleDataResult> search(@RequestBody BasicSearchRequest requestObject) {
-
-        Set<String> authoIndexes = Sets.newHashSet();
-        Set<Class<?>> classes = Sets.newHashSet();
-
-        // First phase : COMPONENTS search, needed role Role.COMPONENTS_BROWSER or Role.ADMIN
-        if (AuthorizationUtil.hasOneRoleIn(Role.COMPONENTS_BROWSER)) {
-            authoIndexes.add(ElasticSearchDAO.TOSCA_ELEMENT_INDEX);
-            classes.add(NodeType.class);
+        boolean componentsBrowser = AuthorizationUtil.hasOneRoleIn(Role.COMPONENTS_BROWSER);
+        GetMultipleDataResult searchResult;
+        if (resultsCache == null) {
+            searchResult = doSearch(requestObject, componentsBrowser);
+        } else {
+            User user = AuthorizationUtil.getCurrentUser();
+            QuickSearchKey key = new QuickSearchKey(user == null ? null : user.getUsername(), componentsBrowser, requestObject.getQuery(),
+                    requestObject.getFrom(), requestObject.getSize());
+            searchResult = resultsCache.getIfPresent(key);
+            if (searchResult == null) {
+                searchResult = doSearch(requestObject, componentsBrowser);
+                resultsCache.put(key, searchResult);
+            }
         }
-
-        GetMultipleDataResult searchResultComponents = searchByType(requestObject, authoIndexes, classes, null, null);
-
-        // Second phase : APPLICATION search (with rights filter) or with the Role.ADMIN
-        authoIndexes.clear();
-        classes.clear();
-        authoIndexes.add(Application.class.getSimpleName().toLowerCase());
-        classes.add(Application.class);
-
-        // Adding filters to get only authorized applications
-        // only filter on users roles on the application if the current user is not an ADMIN
-        FilterBuilder authorizationFilter = AuthorizationUtil.getResourceAuthorizationFilters();
-
-        GetMultipleDataResult<?> searchResultApplications = searchByType(requestObject, authoIndexes, classes, null, authorizationFilter);
-
-        // Final merge result : COMPONENTS + APPLICATIONS
-        GetMultipleDataResult searchResult = new GetMultipleDataResult();
-        searchResult.setQueryDuration(searchResultComponents.getQueryDuration() + searchResultApplications.getQueryDuration());
-        searchResult.setTypes(ArrayUtils.addAll(searchResultComponents.getTypes(), searchResultApplications.getTypes()));
-        searchResult.setData(ArrayUtils.addAll(searchResultComponents.getData(), searchResultApplications.getData()));
-        searchResult.setTotalResults(searchResultComponents.getTotalResults() + searchResultApplications.getTotalResults());
-
         return RestResponseBuilder.<GetMultipleDataResult> builder().data(searchResult).build();
     }
 
-    private GetMultipleDataResult searchByType(BasicSearchRequest requestObject, Set<String> authoIndexes, Set<Class<?>> classes,
-            Map<String, String[]> filters, FilterBuilder filterBuilder) {
-
-        String[] indices = authoIndexes.toArray(new String[authoIndexes.size()]);
-        if (indices.length == 0) {
-            return new GetMultipleDataResult();
+    private GetMultipleDataResult doSearch(BasicSearchRequest requestObject, boolean componentsBrowser) {
+        List<SearchQuery> queries = Lists.newArrayList();
+        // COMPONENTS search, needed role Role.COMPONENTS_BROWSER or Role.ADMIN
+        if (componentsBrowser) {
+            queries.add(new SearchQuery(new String[] { ElasticSearchDAO.TOSCA_ELEMENT_INDEX }, new Class<?>[] { NodeType.class }, requestObject.getQuery(),
+                    null, null, FetchContext.QUICK_SEARCH, requestObject.getFrom(), requestObject.getSize()));
         }
-        Class<?>[] classesArray = classes.toArray(new Class<?>[classes.size()]);
-
-        GetMultipleDataResult searchResult = alienDAO.search(indices, classesArray, requestObject.getQuery(), filters, filterBuilder,
-                FetchContext.QUICK_SEARCH, requestObject.getFrom(), requestObject.getSize());
+        // APPLICATION search, adding filters to get only authorized applications (only filter on users roles on the application if the current user is not
+        // an ADMIN)
+        FilterBuilder authorizationFilter = AuthorizationUtil.getResourceAuthorizationFilters();
+        queries.add(new SearchQuery(new String[] { Application.class.getSimpleName().toLowerCase() }, new Class<?>[] { Application.class },
+                requestObject.getQuery(), null, authorizationFilter, FetchContext.QUICK_SEARCH, requestObject.getFrom(), requestObject.getSize()));
 
+        // Both searches are executed in a single multi-search request, final merge result : COMPONENTS + APPLICATIONS
+        GetMultipleDataResult searchResult = new GetMultipleDataResult();
+        searchResult.setTypes(new String[0]);
+        searchResult.setData(new Object[0]);
+        for (GetMultipleDataResult<Object> result : alienDAO.multiSearch(queries)) {
+            searchResult.setQueryDuration(Math.max(searchResult.getQueryDuration(), result.getQueryDuration()));
+            searchResult.setTypes(ArrayUtils.addAll(searchResult.getTypes(), result.getTypes()));
+            searchResult.setData(ArrayUtils.addAll(searchResult.getData(), result.getData()));
+            searchResult.setTotalResults(searchResult.getTotalResults() + result.getTotalResults());
+        }
         return searchResult;
     }
+
+    @EqualsAndHashCode
+    @AllArgsConstructor(suppressConstructorProperties = true)
+    private static class QuickSearchKey {
+        private final String username;
+        private final boolean componentsBrowser;
+        private final String query;
+        private final int from;
+        private final int size;
+    }
 }
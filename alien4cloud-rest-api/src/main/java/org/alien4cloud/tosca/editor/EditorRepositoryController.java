@@ -55,8 +55,13 @@ public class EditorRepositoryController {
     public RestResponse<AvailableTopologyRepositories> getAvailableRepositories(
             @ApiParam(value = "The topology id.", required = true) @NotBlank @PathVariable final String topologyId) {
 
-        editionContextManager.init(topologyId);
-        Topology topology = EditionContextManager.getTopology();
+        Topology topology;
+        try {
+            editionContextManager.init(topologyId);
+            topology = EditionContextManager.getTopology();
+        } finally {
+            editionContextManager.destroy();
+        }
 
         List<AvailableTopologyRepository> archiveRepositories = Lists.newArrayList();
         List<AvailableTopologyRepository> alienRepositories = Lists.newArrayList();
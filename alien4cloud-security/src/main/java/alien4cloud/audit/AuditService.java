@@ -32,6 +32,8 @@ public class AuditService {
 
     @Resource(name = "alien-audit-dao")
     private IGenericSearchDAO alienDAO;
+    @Resource
+    private AuditTraceWriter auditTraceWriter;
 
     /**
      * Cache the instance of audit configuration bad idea ?
@@ -55,8 +57,14 @@ public class AuditService {
         this.auditConfiguration = auditConfiguration;
     }
 
+    /**
+     * Save an audit trace. The trace is buffered and written asynchronously in bulk so that auditing does not add an elastic search request to the audited
+     * call.
+     *
+     * @param auditTrace The audit trace to save.
+     */
     public void saveAuditTrace(AuditTrace auditTrace) {
-        alienDAO.save(auditTrace);
+        auditTraceWriter.write(auditTrace);
     }
 
     public AuditConfiguration getMandatoryAuditConfiguration() {
@@ -68,6 +76,8 @@ public class AuditService {
     }
 
     public FacetedSearchResult searchAuditTrace(String query, Map<String, String[]> filters, int from, int size) {
+        // make sure that buffered traces are part of the search
+        auditTraceWriter.awaitFlush();
         FilterBuilder authorizationFilter = AuthorizationUtil.getResourceAuthorizationFilters();
         return alienDAO.facetedSearch(AuditTrace.class, query, filters, authorizationFilter, null, from, size, "timestamp", true);
     }
@@ -0,0 +1,169 @@
+package alien4cloud.audit;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.annotation.Resource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.endpoint.PublicMetrics;
+import org.springframework.boot.actuate.metrics.Metric;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import com.google.common.collect.Lists;
+
+import alien4cloud.audit.model.AuditTrace;
+import alien4cloud.dao.IGenericSearchDAO;
+import alien4cloud.dao.WritePolicy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Buffers audit traces in a bounded in-memory queue and writes them to elastic search in bulk requests from a background thread.
+ *
+ * Traces are flushed when the queue reaches the batch size or at least every flush interval. When the queue is full new traces are dropped (and counted)
+ * rather than slowing down the audited requests, the number of dropped traces is logged at most once per flush interval.
+ */
+@Slf4j
+@Component
+public class AuditTraceWriter implements PublicMetrics {
+    @Resource(name = "alien-audit-dao")
+    private IGenericSearchDAO alienDAO;
+
+    @Value("${audit.buffer.capacity:10000}")
+    private int capacity;
+    @Value("${audit.buffer.batch_size:500}")
+    private int batchSize;
+    @Value("${audit.buffer.flush_interval_ms:1000}")
+    private long flushIntervalMs;
+
+    private BlockingQueue<AuditTrace> queue;
+    private ScheduledExecutorService flushExecutor;
+    private final AtomicBoolean flushRequested = new AtomicBoolean(false);
+
+    private final AtomicLong droppedTraces = new AtomicLong();
+    /** Traces dropped since the last time dropped traces have been logged. */
+    private final AtomicLong unreportedDroppedTraces = new AtomicLong();
+    private final AtomicLong writtenTraces = new AtomicLong();
+    private final AtomicLong failedTraces = new AtomicLong();
+    private volatile long lastFlushLatencyMs;
+    private volatile long maxFlushLatencyMs;
+
+    @PostConstruct
+    public void init() {
+        queue = new ArrayBlockingQueue<>(capacity);
+        flushExecutor = new ScheduledThreadPoolExecutor(1, new CustomizableThreadFactory("audit-writer-"));
+        flushExecutor.scheduleWithFixedDelay(() -> {
+            reportDroppedTraces();
+            flush();
+        }, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Add an audit trace to the buffer of traces to write.
+     *
+     * @param auditTrace The audit trace to write.
+     */
+    public void write(AuditTrace auditTrace) {
+        if (!queue.offer(auditTrace)) {
+            droppedTraces.incrementAndGet();
+            unreportedDroppedTraces.incrementAndGet();
+            return;
+        }
+        if (flushExecutor.isShutdown()) {
+            // the writer has been stopped, nothing will flush the trace later.
+            flush();
+            return;
+        }
+        if (queue.size() >= batchSize && flushRequested.compareAndSet(false, true)) {
+            try {
+                flushExecutor.execute(this::flush);
+            } catch (RejectedExecutionException e) {
+                // stopped in the meantime
+                flush();
+            }
+        }
+    }
+
+    /**
+     * Write all the buffered traces in bulk requests of at most batch size traces. Each bulk request refreshes the index once so that written traces are
+     * visible to searches as soon as this method returns.
+     */
+    public synchronized void flush() {
+        flushRequested.set(false);
+        List<AuditTrace> batch = Lists.newArrayListWithCapacity(batchSize);
+        while (queue.drainTo(batch, batchSize) > 0) {
+            long start = System.currentTimeMillis();
+            try {
+                alienDAO.save(batch.toArray(new AuditTrace[batch.size()]), WritePolicy.IMMEDIATE);
+                writtenTraces.addAndGet(batch.size());
+            } catch (Exception e) {
+                failedTraces.addAndGet(batch.size());
+                log.warn("Unable to save " + batch.size() + " audit traces", e);
+            }
+            lastFlushLatencyMs = System.currentTimeMillis() - start;
+            maxFlushLatencyMs = Math.max(maxFlushLatencyMs, lastFlushLatencyMs);
+            batch.clear();
+        }
+    }
+
+    /**
+     * Ask the writer thread to write the buffered traces and wait for it, at most for the flush interval, so that a search sees the traces audited before
+     * it without competing with the writer thread for the buffer.
+     */
+    public void awaitFlush() {
+        try {
+            flushExecutor.submit(this::flush).get(flushIntervalMs, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            // the writer has been stopped, traces are flushed as soon as written.
+        } catch (TimeoutException e) {
+            log.debug("Audit traces have not been written within {} ms", flushIntervalMs);
+        } catch (ExecutionException e) {
+            log.warn("Unable to write the buffered audit traces", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void reportDroppedTraces() {
+        long dropped = unreportedDroppedTraces.getAndSet(0);
+        if (dropped > 0) {
+            log.warn("Audit trace buffer is full, {} traces have been dropped ({} since startup)", dropped, droppedTraces.get());
+        }
+    }
+
+    @PreDestroy
+    public void destroy() throws InterruptedException {
+        flushExecutor.shutdown();
+        if (!flushExecutor.awaitTermination(flushIntervalMs * 2, TimeUnit.MILLISECONDS)) {
+            log.warn("Audit trace writer did not stop in time.");
+        }
+        // write traces that are still in the buffer
+        flush();
+        reportDroppedTraces();
+    }
+
+    @Override
+    public Collection<Metric<?>> metrics() {
+        List<Metric<?>> metrics = Lists.newArrayList();
+        metrics.add(new Metric<Integer>("audit.buffer.depth", queue.size()));
+        metrics.add(new Metric<Long>("audit.buffer.dropped", droppedTraces.get()));
+        metrics.add(new Metric<Long>("audit.buffer.written", writtenTraces.get()));
+        metrics.add(new Metric<Long>("audit.buffer.failed", failedTraces.get()));
+        metrics.add(new Metric<Long>("audit.buffer.flush.latency.last", lastFlushLatencyMs));
+        metrics.add(new Metric<Long>("audit.buffer.flush.latency.max", maxFlushLatencyMs));
+        return metrics;
+    }
+}
@@ -220,13 +220,6 @@ public final class AuthorizationUtil {
      * @return all roles on the resource if any, empty set otherwise
      */
     public static Set<String> getRolesForResource(User user, ISecuredResource resource) {
-        Set<String> allRoles = Sets.newHashSet();
-        if (resource.getUserRoles() != null) {
-            Set<String> userRoles = resource.getUserRoles().get(user.getUsername());
-            if (userRoles != null && !userRoles.isEmpty()) {
-                allRoles.addAll(userRoles);
-            }
-        }
         Set<String> groups = user.getGroups();
         if (groups == null) {
             groups = Sets.newHashSet();
@@ -235,6 +228,25 @@ public final class AuthorizationUtil {
         if (allUserGroup != null) {
             groups.add(allUserGroup.getId());
         }
+        return getRolesForResource(user, groups, resource);
+    }
+
+    /**
+     * Return the role that an user member of the given groups has over the given resource
+     *
+     * @param user the user to check for
+     * @param groups the groups of the user (including the all users group)
+     * @param resource the resource to check for
+     * @return all roles on the resource if any, empty set otherwise
+     */
+    static Set<String> getRolesForResource(User user, Set<String> groups, ISecuredResource resource) {
+        Set<String> allRoles = Sets.newHashSet();
+        if (resource.getUserRoles() != null) {
+            Set<String> userRoles = resource.getUserRoles().get(user.getUsername());
+            if (userRoles != null && !userRoles.isEmpty()) {
+                allRoles.addAll(userRoles);
+            }
+        }
         Map<String, Set<String>> groupRolesMap = resource.getGroupRoles();
         if (groupRolesMap != null && !groupRolesMap.isEmpty()) {
             for (String group : groups) {
@@ -255,7 +267,7 @@ public final class AuthorizationUtil {
      * @param user
      * @return all user's A4C roles
      */
-    private static Set<String> getRoles(User user) {
+    static Set<String> getRoles(User user) {
         Set<String> allRoles = Sets.newHashSet();
         String[] userRoles = user.getRoles();
         Set<String> groupRoles = user.getGroupRoles();
@@ -268,7 +280,7 @@ public final class AuthorizationUtil {
         return allRoles;
     }
 
-    private static boolean hasAtLeastOneRole(Set<String> actualRoles, IResourceRoles adminRole, IResourceRoles... expectedRoles) {
+    static boolean hasAtLeastOneRole(Set<String> actualRoles, IResourceRoles adminRole, IResourceRoles... expectedRoles) {
         if (actualRoles == null || actualRoles.isEmpty()) {
             return false;
         }
@@ -334,6 +346,16 @@ public final class AuthorizationUtil {
         return hasAuthorization(getCurrentUser(), resource, resourceAdminRole, expectedRoles);
     }
 
+    /**
+     * Get the authorizations of the current user to check many resources at once, the roles and groups of the user are resolved only once.
+     *
+     * @return The authorizations of the current user.
+     */
+    public static UserAuthorizations getCurrentUserAuthorizations() {
+        User user = getCurrentUser();
+        return new UserAuthorizations(user, getRoles(user), getUserGroups(user));
+    }
+
     /**
      * Recover the alien's default all user group
      *
@@ -0,0 +1,61 @@
+package alien4cloud.security;
+
+import java.util.Set;
+
+import org.springframework.security.access.AccessDeniedException;
+
+import alien4cloud.security.model.ApplicationEnvironmentRole;
+import alien4cloud.security.model.ApplicationRole;
+import alien4cloud.security.model.Role;
+import alien4cloud.security.model.User;
+
+/**
+ * Roles and groups of an user resolved once to check the authorizations of the user on many resources in memory.
+ *
+ * See {@link AuthorizationUtil#getCurrentUserAuthorizations()}.
+ */
+public class UserAuthorizations {
+    private final User user;
+    private final boolean admin;
+    private final Set<String> groups;
+
+    UserAuthorizations(User user, Set<String> roles, Set<String> groups) {
+        this.user = user;
+        this.admin = roles.contains(Role.ADMIN.toString());
+        this.groups = groups;
+    }
+
+    /**
+     * Same as {@link AuthorizationUtil#hasAuthorization(User, ISecuredResource, IResourceRoles, IResourceRoles...)} for the user.
+     */
+    public boolean hasAuthorization(ISecuredResource resource, IResourceRoles resourceAdminRole, IResourceRoles... expectedRoles) {
+        if (resource == null || admin) {
+            return true;
+        }
+        return AuthorizationUtil.hasAtLeastOneRole(AuthorizationUtil.getRolesForResource(user, groups, resource), resourceAdminRole, expectedRoles);
+    }
+
+    /**
+     * Same as {@link AuthorizationUtil#hasAuthorizationForApplication(ISecuredResource, IResourceRoles...)} for the user.
+     */
+    public boolean hasAuthorizationForApplication(ISecuredResource resource, IResourceRoles... expectedRoles) {
+        return hasAuthorization(resource, ApplicationRole.APPLICATION_MANAGER, expectedRoles);
+    }
+
+    /**
+     * Same as {@link AuthorizationUtil#checkAuthorizationForApplication(ISecuredResource, IResourceRoles...)} for the user.
+     */
+    public void checkAuthorizationForApplication(ISecuredResource resource, IResourceRoles... expectedRoles) {
+        if (!hasAuthorizationForApplication(resource, expectedRoles)) {
+            throw new AccessDeniedException(
+                    "user <" + user.getUsername() + "> has no authorization to perform the requested operation on this application.");
+        }
+    }
+
+    /**
+     * Same as {@link AuthorizationUtil#hasAuthorizationForEnvironment(ISecuredResource, ISecuredResource, IResourceRoles...)} for the user.
+     */
+    public boolean hasAuthorizationForEnvironment(ISecuredResource application, ISecuredResource resource, IResourceRoles... expectedRoles) {
+        return hasAuthorizationForApplication(application) || hasAuthorization(resource, ApplicationEnvironmentRole.DEPLOYMENT_MANAGER, expectedRoles);
+    }
+}
@@ -0,0 +1,112 @@
+package alien4cloud.audit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Matchers;
+import org.mockito.Mockito;
+import org.springframework.boot.actuate.metrics.Metric;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.google.common.collect.Sets;
+
+import alien4cloud.audit.model.AuditTrace;
+import alien4cloud.dao.IGenericSearchDAO;
+import alien4cloud.dao.WritePolicy;
+
+public class AuditTraceWriterTest {
+    private IGenericSearchDAO alienDAO;
+    private AuditTraceWriter writer;
+
+    @Before
+    public void before() {
+        alienDAO = Mockito.mock(IGenericSearchDAO.class);
+        writer = createWriter(100, 2);
+    }
+
+    private AuditTraceWriter createWriter(int capacity, int batchSize) {
+        AuditTraceWriter writer = new AuditTraceWriter();
+        ReflectionTestUtils.setField(writer, "alienDAO", alienDAO);
+        ReflectionTestUtils.setField(writer, "capacity", capacity);
+        ReflectionTestUtils.setField(writer, "batchSize", batchSize);
+        ReflectionTestUtils.setField(writer, "flushIntervalMs", 60000L);
+        writer.init();
+        return writer;
+    }
+
+    @After
+    public void after() throws InterruptedException {
+        writer.destroy();
+    }
+
+    private void verifySaves(int times) {
+        Mockito.verify(alienDAO, Mockito.timeout(5000).times(times)).save(Matchers.any(AuditTrace[].class), Matchers.eq(WritePolicy.IMMEDIATE));
+    }
+
+    @Test
+    public void fullBatchShouldBeFlushed() {
+        writer.write(new AuditTrace());
+        writer.write(new AuditTrace());
+        verifySaves(1);
+    }
+
+    @Test
+    public void remainingTracesShouldBeFlushedOnDestroy() throws InterruptedException {
+        writer.write(new AuditTrace());
+        writer.destroy();
+        verifySaves(1);
+    }
+
+    @Test
+    public void traceWrittenOnceStoppedShouldBeFlushed() throws InterruptedException {
+        writer.destroy();
+        writer.write(new AuditTrace());
+        verifySaves(1);
+        writer.write(new AuditTrace());
+        writer.write(new AuditTrace());
+        verifySaves(3);
+    }
+
+    @Test
+    public void awaitFlushShouldWriteBufferedTracesFromTheWriterThread() {
+        Set<String> savingThreads = Sets.newConcurrentHashSet();
+        Mockito.doAnswer(invocation -> savingThreads.add(Thread.currentThread().getName())).when(alienDAO).save(Matchers.any(AuditTrace[].class),
+                Matchers.eq(WritePolicy.IMMEDIATE));
+        writer.write(new AuditTrace());
+        writer.awaitFlush();
+        // written before returning
+        Mockito.verify(alienDAO).save(Matchers.any(AuditTrace[].class), Matchers.eq(WritePolicy.IMMEDIATE));
+        assertEquals(1, savingThreads.size());
+        assertTrue(savingThreads.iterator().next().startsWith("audit-writer-"));
+    }
+
+    @Test
+    public void droppedTracesShouldBeCounted() throws InterruptedException {
+        writer.destroy();
+        writer = createWriter(1, 10);
+        for (int i = 0; i < 3; i++) {
+            writer.write(new AuditTrace());
+        }
+        assertEquals(2L, getMetric("audit.buffer.dropped"));
+        assertEquals(2L, ((AtomicLong) ReflectionTestUtils.getField(writer, "unreportedDroppedTraces")).get());
+        // dropped traces are reported once
+        writer.destroy();
+        assertEquals(0L, ((AtomicLong) ReflectionTestUtils.getField(writer, "unreportedDroppedTraces")).get());
+        assertEquals(2L, getMetric("audit.buffer.dropped"));
+    }
+
+    private Number getMetric(String name) {
+        for (Metric<?> metric : writer.metrics()) {
+            if (name.equals(metric.getName())) {
+                return metric.getValue();
+            }
+        }
+        return null;
+    }
+}
@@ -1,5 +1,7 @@
 package alien4cloud.component;
 
+import java.util.Collection;
+import java.util.Map;
 import java.util.Set;
 
 import org.alien4cloud.tosca.model.CSARDependency;
@@ -52,6 +54,17 @@ public interface ICSARRepositorySearchService {
      */
     <T extends AbstractToscaType> T getElementInDependencies(Class<T> elementClass, String elementId, Set<CSARDependency> dependencies);
 
+    /**
+     * Get a batch of elements from defined dependencies using a single request.
+     *
+     * @param elementClass The element class.
+     * @param elementIds The TOSCA element ids of the elements (without archive version).
+     * @param dependencies A list of CSAR in which the elements may be defined.
+     * @return A map of the found elements by element id, elements that cannot be found are not part of the map.
+     */
+    <T extends AbstractToscaType> Map<String, T> getElementsInDependencies(Class<T> elementClass, Collection<String> elementIds,
+            Set<CSARDependency> dependencies);
+
     /**
      * Get an element from defined dependencies.
      *
@@ -1,5 +1,6 @@
 package alien4cloud.paas.wf;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 
@@ -363,10 +364,24 @@ public class WorkflowsBuilderService {
     }
 
     public List<WorkflowTask> validateWorkflows(Topology topology) {
+        if (topology.getWorkflows() == null) {
+            return Lists.newArrayList();
+        }
+        return validateWorkflows(topology, topology.getWorkflows().values());
+    }
+
+    /**
+     * Validate some of the workflows of a topology.
+     *
+     * @param topology The topology that contains the workflows.
+     * @param workflows The workflows to validate.
+     * @return A task for every invalid workflow.
+     */
+    public List<WorkflowTask> validateWorkflows(Topology topology, Collection<Workflow> workflows) {
         List<WorkflowTask> tasks = Lists.newArrayList();
-        if (topology.getWorkflows() != null) {
+        if (!workflows.isEmpty()) {
             TopologyContext topologyContext = buildTopologyContext(topology);
-            for (Workflow workflow : topology.getWorkflows().values()) {
+            for (Workflow workflow : workflows) {
                 int errorCount = validateWorkflow(topologyContext, workflow);
                 if (errorCount > 0) {
                     WorkflowTask workflowTask = new WorkflowTask();
@@ -0,0 +1,264 @@
+package alien4cloud.paas.wf.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.google.common.collect.Maps;
+
+import alien4cloud.paas.wf.AbstractStep;
+import alien4cloud.paas.wf.Workflow;
+import alien4cloud.paas.wf.exception.InconsistentWorkflowException;
+
+/**
+ * Indexed, read-only view of the steps of a workflow.
+ * <p>
+ * Steps are indexed once and the strongly connected components of the graph are computed using Tarjan's algorithm so that cycle detection, topological
+ * ordering and reachability queries are linear in the number of steps and links (unlike the enumeration of all the paths of the graph done by
+ * {@link WorkflowGraphUtils#getWorkflowGraphPaths(Workflow)} which is exponential with the number of branches).
+ * <p>
+ * The graph is a snapshot of the workflow at build time and must be built again if the workflow is modified.
+ */
+public class WorkflowGraph {
+    private static final int[] NO_SUCCESSORS = new int[0];
+
+    private final AbstractStep[] steps;
+    private final Map<String, Integer> indexes;
+    private final int[][] successors;
+    /** The strongly connected components of the graph (step indexes), in topological order. */
+    private final List<int[]> components;
+    /** For each step, the index of its strongly connected component. */
+    private final int[] componentOf;
+    /** For each step, its position in the topological order. */
+    private final int[] order;
+
+    public WorkflowGraph(Workflow workflow) {
+        Collection<AbstractStep> workflowSteps = workflow.getSteps() == null ? Collections.<AbstractStep> emptyList() : workflow.getSteps().values();
+        steps = workflowSteps.toArray(new AbstractStep[workflowSteps.size()]);
+        indexes = Maps.newHashMapWithExpectedSize(steps.length);
+        for (int i = 0; i < steps.length; i++) {
+            indexes.put(steps[i].getName(), i);
+        }
+        successors = new int[steps.length][];
+        for (int i = 0; i < steps.length; i++) {
+            Set<String> followingSteps = steps[i].getFollowingSteps();
+            if (followingSteps == null || followingSteps.isEmpty()) {
+                successors[i] = NO_SUCCESSORS;
+                continue;
+            }
+            successors[i] = new int[followingSteps.size()];
+            int j = 0;
+            for (String followingId : followingSteps) {
+                successors[i][j++] = indexes.get(WorkflowGraphUtils.getRequiredStep(workflow, followingId).getName());
+            }
+        }
+        components = computeComponents();
+        componentOf = new int[steps.length];
+        order = new int[steps.length];
+        int position = 0;
+        for (int c = 0; c < components.size(); c++) {
+            for (int step : components.get(c)) {
+                componentOf[step] = c;
+                order[step] = position++;
+            }
+        }
+    }
+
+    /**
+     * Iterative version of Tarjan's strongly connected components algorithm (workflows may be deep enough to overflow the stack with a recursive
+     * implementation).
+     *
+     * @return The strongly connected components in topological order, the steps of each component being sorted by their order in the workflow.
+     */
+    private List<int[]> computeComponents() {
+        int size = steps.length;
+        int[] index = new int[size];
+        Arrays.fill(index, -1);
+        int[] lowLink = new int[size];
+        boolean[] onStack = new boolean[size];
+        int[] stack = new int[size];
+        int stackSize = 0;
+        int[] callStack = new int[size];
+        int[] edgeCursor = new int[size];
+        int counter = 0;
+        List<int[]> reversedComponents = new ArrayList<>();
+        for (int root = 0; root < size; root++) {
+            if (index[root] != -1) {
+                continue;
+            }
+            int callSize = 0;
+            index[root] = lowLink[root] = counter++;
+            stack[stackSize++] = root;
+            onStack[root] = true;
+            callStack[callSize++] = root;
+            while (callSize > 0) {
+                int current = callStack[callSize - 1];
+                if (edgeCursor[current] < successors[current].length) {
+                    int next = successors[current][edgeCursor[current]++];
+                    if (index[next] == -1) {
+                        index[next] = lowLink[next] = counter++;
+                        stack[stackSize++] = next;
+                        onStack[next] = true;
+                        callStack[callSize++] = next;
+                    } else if (onStack[next]) {
+                        lowLink[current] = Math.min(lowLink[current], index[next]);
+                    }
+                    continue;
+                }
+                callSize--;
+                if (callSize > 0) {
+                    int parent = callStack[callSize - 1];
+                    lowLink[parent] = Math.min(lowLink[parent], lowLink[current]);
+                }
+                if (lowLink[current] == index[current]) {
+                    int componentStart = stackSize;
+                    do {
+                        componentStart--;
+                        onStack[stack[componentStart]] = false;
+                    } while (stack[componentStart] != current);
+                    int[] component = Arrays.copyOfRange(stack, componentStart, stackSize);
+                    Arrays.sort(component);
+                    reversedComponents.add(component);
+                    stackSize = componentStart;
+                }
+            }
+        }
+        // Tarjan's algorithm emits the components in reverse topological order.
+        Collections.reverse(reversedComponents);
+        return reversedComponents;
+    }
+
+    /**
+     * @return true if the workflow contains at least one cycle.
+     */
+    public boolean hasCycle() {
+        for (int[] component : components) {
+            if (isCycle(component)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Get one cycle for each strongly connected component of the graph that contains a cycle.
+     *
+     * @return The cycles, each described as a succession of ordered step names in which the first step is repeated at the end (for example [A, B, C, A]).
+     */
+    public List<List<String>> getCycles() {
+        List<List<String>> cycles = new ArrayList<>();
+        for (int c = 0; c < components.size(); c++) {
+            if (isCycle(components.get(c))) {
+                cycles.add(extractCycle(c));
+            }
+        }
+        return cycles;
+    }
+
+    private boolean isCycle(int[] component) {
+        if (component.length > 1) {
+            return true;
+        }
+        for (int next : successors[component[0]]) {
+            if (next == component[0]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Find a cycle going through the first step of the given component using a breadth first search restricted to the component.
+     */
+    private List<String> extractCycle(int component) {
+        int start = components.get(component)[0];
+        Map<Integer, Integer> parents = Maps.newHashMap();
+        Deque<Integer> queue = new ArrayDeque<>();
+        queue.add(start);
+        int last = -1;
+        while (last == -1 && !queue.isEmpty()) {
+            int current = queue.poll();
+            for (int next : successors[current]) {
+                if (next == start) {
+                    last = current;
+                    break;
+                }
+                if (componentOf[next] == component && !parents.containsKey(next)) {
+                    parents.put(next, current);
+                    queue.add(next);
+                }
+            }
+        }
+        List<String> cycle = new ArrayList<>();
+        cycle.add(steps[start].getName());
+        for (int step = last; step != start; step = parents.get(step)) {
+            cycle.add(1, steps[step].getName());
+        }
+        cycle.add(steps[start].getName());
+        return cycle;
+    }
+
+    /**
+     * Get the steps of the workflow in topological order: a step is always placed after the steps from which it can be reached, except for steps that belong
+     * to the same cycle which are placed in their workflow order.
+     *
+     * @return The ordered steps.
+     */
+    public List<AbstractStep> getTopologicalOrder() {
+        AbstractStep[] ordered = new AbstractStep[steps.length];
+        for (int i = 0; i < steps.length; i++) {
+            ordered[order[i]] = steps[i];
+        }
+        return Arrays.asList(ordered);
+    }
+
+    /**
+     * Check if there is a path from a step to another step.
+     *
+     * @param from The step from which to start.
+     * @param to The step to reach.
+     * @return true if to can be reached from from (a step can always reach itself).
+     */
+    public boolean isReachable(AbstractStep from, AbstractStep to) {
+        int source = indexOf(from);
+        int target = indexOf(to);
+        if (source == target) {
+            return true;
+        }
+        if (componentOf[source] > componentOf[target]) {
+            // steps of a component can only reach steps of the same or following components.
+            return false;
+        }
+        boolean[] visited = new boolean[steps.length];
+        Deque<Integer> queue = new ArrayDeque<>();
+        visited[source] = true;
+        queue.add(source);
+        while (!queue.isEmpty()) {
+            int current = queue.poll();
+            for (int next : successors[current]) {
+                if (next == target) {
+                    return true;
+                }
+                if (!visited[next] && componentOf[next] <= componentOf[target]) {
+                    visited[next] = true;
+                    queue.add(next);
+                }
+            }
+        }
+        return false;
+    }
+
+    private int indexOf(AbstractStep step) {
+        Integer index = indexes.get(step.getName());
+        if (index == null) {
+            throw new InconsistentWorkflowException(String.format("The workflow graph doesn't contains the expected step <%s> !", step.getName()));
+        }
+        return index;
+    }
+}
@@ -29,6 +29,8 @@ public class WorkflowGraphUtils {
      * Build the paths of the graph starting from the entry points (steps without predecessors, so connected to 'start').
      * <p>
      * Will also detect orphans brothers in the entire graph (cycles not connected to start).
+     * <p>
+     * Note that the number of paths grows exponentially with the number of branches of the workflow, use {@link WorkflowGraph} to validate workflows.
      */
     public static List<Path> getWorkflowGraphPaths(Workflow workflow) {
         // the result
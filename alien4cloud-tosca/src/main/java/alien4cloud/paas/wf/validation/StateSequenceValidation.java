@@ -1,27 +1,23 @@
 package alien4cloud.paas.wf.validation;
 
 import java.util.HashMap;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
-import java.util.Set;
 
 import lombok.extern.slf4j.Slf4j;
 
 import org.elasticsearch.common.collect.Lists;
 import org.elasticsearch.common.collect.Maps;
-import org.elasticsearch.common.collect.Sets;
 
 import alien4cloud.paas.plan.ToscaNodeLifecycleConstants;
 import alien4cloud.paas.wf.AbstractStep;
 import alien4cloud.paas.wf.NodeActivityStep;
-import alien4cloud.paas.wf.Path;
 import alien4cloud.paas.wf.SetStateActivity;
 import alien4cloud.paas.wf.Workflow;
 import alien4cloud.paas.wf.WorkflowsBuilderService.TopologyContext;
 import alien4cloud.paas.wf.exception.WorkflowException;
-import alien4cloud.paas.wf.util.WorkflowGraphUtils;
+import alien4cloud.paas.wf.util.WorkflowGraph;
 
 /**
  * This rule will check that for a given node, the 'set state' operations are done in the
@@ -41,12 +37,11 @@ import alien4cloud.paas.wf.util.WorkflowGraphUtils;
  * <p>
  * To achieve such check, for each node we:
  * <ul>
- * <li>list the state step states and the paths they are found on (a step can be on several paths).
- * <li>get the intersection of all these path : this way we should have at least 1 path containing all steps.
- * <li>check the order on these paths.
+ * <li>list the set state steps in the topological order of the workflow graph.
+ * <li>check that each step can be reached from the previous one : this way all the steps are on a same path.
+ * <li>check the order of the states along this path.
  * </ul>
- * <p>
- * Maybe a more efficient algo can be found (1 pass ?) ... Feel free to have fun !
+ * This is linear with the size of the workflow graph for each set state step (see {@link WorkflowGraph}).
  */
 @Slf4j
 public class StateSequenceValidation implements Rule {
@@ -83,111 +78,74 @@ public class StateSequenceValidation implements Rule {
             return null;
         }
         List<AbstractWorkflowError> errors = Lists.newArrayList();
-        List<Path> paths = WorkflowGraphUtils.getWorkflowGraphPaths(workflow);
-        Map<String, Map<NodeActivityStep, Set<Path>>> pathsPerNodePerStepMap = getPathsPerNodePerStepMap(paths);
-        Map<String, Set<Path>> pathsPerNodeMap = getPathsPerNodeIntersectionMap(pathsPerNodePerStepMap);
-        // now we have to ensure that for the remaining paths, the order is correct between steps
-        for (Entry<String, Set<Path>> pathSetEntry : pathsPerNodeMap.entrySet()) {
-            String nodeId = pathSetEntry.getKey();
-            if (pathSetEntry.getValue().isEmpty()) {
-                // the intersection is empty : this means that step are in parallel
+        WorkflowGraph graph = new WorkflowGraph(workflow);
+        for (Entry<String, List<NodeActivityStep>> stepsEntry : getSetStateStepsPerNode(graph).entrySet()) {
+            String nodeId = stepsEntry.getKey();
+            if (!isOnSamePath(graph, stepsEntry.getValue())) {
+                // some steps are in parallel
                 // TODO: which one ?
                 errors.add(new ParallelSetStatesError(nodeId));
-            }
-            for (Path path : pathSetEntry.getValue()) {
-                ensureOrderIsCorrect(nodeId, path, stateSequence, errors);
+            } else {
+                ensureOrderIsCorrect(stepsEntry.getValue(), stateSequence, errors);
             }
         }
         return errors;
     }
 
-    private void ensureOrderIsCorrect(String nodeId, Path path, Map<String, Integer> stateSequence, List<AbstractWorkflowError> errors) {
-        Iterator<AbstractStep> steps = path.iterator();
-        NodeActivityStep lastDetectedStep = null;
-        while (steps.hasNext()) {
-            AbstractStep step = steps.next();
-            if (step instanceof NodeActivityStep && ((NodeActivityStep) step).getNodeId().equals(nodeId)
-                    && ((NodeActivityStep) step).getActivity() instanceof SetStateActivity) {
-                String stateName = ((SetStateActivity)((NodeActivityStep) step).getActivity()).getStateName();
-                Integer stateIdx = stateSequence.get(stateName);
-                if (stateIdx == null) {
-                 // if the state is null, it can be a custom state, we don't care about it
-                    continue;
-                }
-                if (lastDetectedStep == null) {
-                    lastDetectedStep = (NodeActivityStep) step;
-                } else {
-                    String lastDetectedState = ((SetStateActivity) ((NodeActivityStep) lastDetectedStep).getActivity()).getStateName();
-                    Integer lastDetectedStateIdx = stateSequence.get(lastDetectedState);
-                    Integer currentDetectedStateIdx = stateSequence.get(stateName);
-                    if (lastDetectedStateIdx.compareTo(currentDetectedStateIdx) > 0) {
-                        errors.add(new BadStateSequenceError(lastDetectedStep.getName(), step.getName()));
-                        // throw new BadStateOrderException(String.format("Issue in the state sequence for node '%s': '%s' can not be set after the state '%s'",
-                        // nodeId, stateName,
-                        // lastDetectedState));
-                    } else {
-                        lastDetectedStep = (NodeActivityStep) step;
-                    }
-                }
+    /**
+     * Steps ordered topologically are all on a same path if each step can be reached from the previous one.
+     */
+    private boolean isOnSamePath(WorkflowGraph graph, List<NodeActivityStep> orderedSteps) {
+        for (int i = 1; i < orderedSteps.size(); i++) {
+            if (!graph.isReachable(orderedSteps.get(i - 1), orderedSteps.get(i))) {
+                return false;
             }
         }
+        return true;
     }
 
-    /**
-     * Per node, just keep the intersection between all the {@link Path} sets.
-     */
-    private Map<String, Set<Path>> getPathsPerNodeIntersectionMap(Map<String, Map<NodeActivityStep, Set<Path>>> pathsPerNodePerStepMap) {
-        Map<String, Set<Path>> pathsPerNodeIntersectionMap = Maps.newHashMap();
-        for (Entry<String, Map<NodeActivityStep, Set<Path>>> entry : pathsPerNodePerStepMap.entrySet()) {
-            String nodeId = entry.getKey();
-            Map<NodeActivityStep, Set<Path>> pathsPerStep = entry.getValue();
-            Iterator<Set<Path>> paths = pathsPerStep.values().iterator();
-            if (pathsPerStep.size() == 1) {
-                pathsPerNodeIntersectionMap.put(nodeId, paths.next());
-                paths.remove();
+    private void ensureOrderIsCorrect(List<NodeActivityStep> orderedSteps, Map<String, Integer> stateSequence, List<AbstractWorkflowError> errors) {
+        NodeActivityStep lastDetectedStep = null;
+        for (NodeActivityStep step : orderedSteps) {
+            String stateName = ((SetStateActivity) step.getActivity()).getStateName();
+            Integer stateIdx = stateSequence.get(stateName);
+            if (stateIdx == null) {
+                // if the state is null, it can be a custom state, we don't care about it
+                continue;
+            }
+            if (lastDetectedStep == null) {
+                lastDetectedStep = step;
             } else {
-                Set<Path> lastPaths = paths.next();
-                paths.remove();
-                while (paths.hasNext()) {
-                    Set<Path> intersection = Sets.intersection(lastPaths, paths.next());
-                    paths.remove();
-                    lastPaths = intersection;
+                String lastDetectedState = ((SetStateActivity) lastDetectedStep.getActivity()).getStateName();
+                Integer lastDetectedStateIdx = stateSequence.get(lastDetectedState);
+                if (lastDetectedStateIdx.compareTo(stateIdx) > 0) {
+                    errors.add(new BadStateSequenceError(lastDetectedStep.getName(), step.getName()));
+                } else {
+                    lastDetectedStep = step;
                 }
-                pathsPerNodeIntersectionMap.put(nodeId, lastPaths);
             }
         }
-        return pathsPerNodeIntersectionMap;
     }
 
     /**
-     * For each node / step, constitute a set containing all the paths in which this node has steps of type 'set state'.
-     * 
-     * @return a map using nodeId as key and the list of concerned {@link Path}s as value.
+     * For each node, list the steps of type 'set state' in the topological order of the workflow graph.
+     *
+     * @return a map using nodeId as key and the ordered list of the node's set state steps as value.
      */
-    private Map<String, Map<NodeActivityStep, Set<Path>>> getPathsPerNodePerStepMap(List<Path> paths) {
-        Map<String, Map<NodeActivityStep, Set<Path>>> pathsPerNodePerStepMap = Maps.newHashMap();
-        for (Path path : paths) {
-            Iterator<AbstractStep> steps = path.iterator();
-            while (steps.hasNext()) {
-                AbstractStep step = steps.next();
-                if (step instanceof NodeActivityStep && ((NodeActivityStep) step).getActivity() instanceof SetStateActivity) {
-                    NodeActivityStep nodeActivityStep = (NodeActivityStep) step;
-                    String node = nodeActivityStep.getNodeId();
-                    Map<NodeActivityStep, Set<Path>> pathsPerStepMap = pathsPerNodePerStepMap.get(node);
-                    if (pathsPerStepMap == null) {
-                        pathsPerStepMap = Maps.newHashMap();
-                        pathsPerNodePerStepMap.put(node, pathsPerStepMap);
-                    }
-                    Set<Path> pathsPerStep = pathsPerStepMap.get(nodeActivityStep);
-                    if (pathsPerStep == null) {
-                        pathsPerStep = Sets.newHashSet();
-                        pathsPerStepMap.put(nodeActivityStep, pathsPerStep);
-                    }
-                    pathsPerStep.add(path);
+    private Map<String, List<NodeActivityStep>> getSetStateStepsPerNode(WorkflowGraph graph) {
+        Map<String, List<NodeActivityStep>> stepsPerNode = Maps.newHashMap();
+        for (AbstractStep step : graph.getTopologicalOrder()) {
+            if (step instanceof NodeActivityStep && ((NodeActivityStep) step).getActivity() instanceof SetStateActivity) {
+                NodeActivityStep nodeActivityStep = (NodeActivityStep) step;
+                List<NodeActivityStep> nodeSteps = stepsPerNode.get(nodeActivityStep.getNodeId());
+                if (nodeSteps == null) {
+                    nodeSteps = Lists.newArrayList();
+                    stepsPerNode.put(nodeActivityStep.getNodeId(), nodeSteps);
                 }
+                nodeSteps.add(nodeActivityStep);
             }
         }
-        return pathsPerNodePerStepMap;
+        return stepsPerNode;
     }
 
     private Map<String, Integer> getStateSequence(Workflow workflow) {
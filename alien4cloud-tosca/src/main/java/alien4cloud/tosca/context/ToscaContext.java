@@ -23,6 +23,8 @@ import static alien4cloud.utils.AlienUtils.safe;
 public class ToscaContext {
     @Setter
     private static ICSARRepositorySearchService csarRepositorySearchService;
+    @Setter
+    private static ToscaTypeCache toscaTypeCache;
     private final static ThreadLocal<Context> contextThreadLocal = new ThreadLocal<>();
 
     /**
@@ -77,6 +79,17 @@ public class ToscaContext {
         return contextThreadLocal.get().getElement(elementClass, elementId, true);
     }
 
+    /**
+     * Load in the local-cache all the given elements that are not already cached using a single request.
+     *
+     * @param elementClass The class of the elements to load.
+     * @param elementIds The ids of the elements to load.
+     * @param <T> The type of element.
+     */
+    public static <T extends AbstractToscaType> void preload(Class<T> elementClass, Collection<String> elementIds) {
+        contextThreadLocal.get().preloadElements(elementClass, elementIds);
+    }
+
     /**
      * Destroy the tosca context.
      */
@@ -255,7 +268,7 @@ public class ToscaContext {
         }
 
         /**
-         * Get an element from the local-cache or from ES.
+         * Get an element from the local-cache, the shared types cache or from ES.
          *
          * @param elementClass The class of the element to look for.
          * @param elementId The id of the element to look for.
@@ -276,8 +289,14 @@ public class ToscaContext {
                 }
             }
 
-            T element = required ? csarRepositorySearchService.getRequiredElementInDependencies(elementClass, elementId, dependencies)
-                    : csarRepositorySearchService.getElementInDependencies(elementClass, elementId, dependencies);
+            T element;
+            if (toscaTypeCache != null) {
+                // read through the process-wide types cache
+                element = toscaTypeCache.getElementInDependencies(elementClass, elementId, dependencies, required);
+            } else {
+                element = required ? csarRepositorySearchService.getRequiredElementInDependencies(elementClass, elementId, dependencies)
+                        : csarRepositorySearchService.getElementInDependencies(elementClass, elementId, dependencies);
+            }
             if (element != null) {
                 typeElements.put(elementId, element);
             }
@@ -285,6 +304,35 @@ public class ToscaContext {
             return element;
         }
 
+        /**
+         * Load in the local-cache all the given elements that are not already cached using a single request.
+         *
+         * @param elementClass The class of the elements to load.
+         * @param elementIds The ids of the elements to load.
+         * @param <T> The type of element.
+         */
+        public <T extends AbstractToscaType> void preloadElements(Class<T> elementClass, Collection<String> elementIds) {
+            String elementType = elementClass.getSimpleName();
+            Map<String, AbstractToscaType> typeElements = toscaTypesCache.get(elementType);
+            if (typeElements == null) {
+                typeElements = new HashMap<>();
+                toscaTypesCache.put(elementType, typeElements);
+            }
+            Set<String> missingIds = new HashSet<>();
+            for (String elementId : elementIds) {
+                if (elementId != null && !typeElements.containsKey(elementId)) {
+                    missingIds.add(elementId);
+                }
+            }
+            if (missingIds.isEmpty()) {
+                return;
+            }
+            Map<String, T> elements = toscaTypeCache != null ? toscaTypeCache.getElementsInDependencies(elementClass, missingIds, dependencies)
+                    : csarRepositorySearchService.getElementsInDependencies(elementClass, missingIds, dependencies);
+            typeElements.putAll(elements);
+            log.debug("Preloaded {} elements of type {} {}", elements.size(), elementType, dependencies);
+        }
+
         public <T extends AbstractToscaType> Optional<AbstractToscaType> getElement(Class<T> elementClass, Predicate<AbstractToscaType> filter) {
             String elementType = elementClass.getSimpleName();
             Map<String, AbstractToscaType> typeElements = toscaTypesCache.get(elementType);
@@ -15,4 +15,9 @@ public class ToscaContextInjector {
     public void setCsarRepositorySearchService(ICSARRepositorySearchService csarRepositorySearchService) {
         ToscaContext.setCsarRepositorySearchService(csarRepositorySearchService);
     }
+
+    @Resource
+    public void setToscaTypeCache(ToscaTypeCache toscaTypeCache) {
+        ToscaContext.setToscaTypeCache(toscaTypeCache);
+    }
 }
@@ -0,0 +1,218 @@
+package alien4cloud.tosca.context;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.Resource;
+
+import org.alien4cloud.tosca.model.CSARDependency;
+import org.alien4cloud.tosca.model.Csar;
+import org.alien4cloud.tosca.model.types.AbstractToscaType;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+
+import alien4cloud.component.ICSARRepositorySearchService;
+import alien4cloud.dao.ElasticSearchMapper;
+import alien4cloud.exception.NotFoundException;
+import alien4cloud.utils.VersionUtil;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Process-wide cache of the TOSCA types fetched from the catalog, shared by all the thread-local {@link ToscaContext}s.
+ *
+ * Entries are keyed by the type class, the element id and the archive (name, version and hash) in which the element has been looked up. As a TOSCA type
+ * can be defined in a single archive (see ArchiveIndexer), an element resolved in a set of dependencies can be cached as present in its own archive and
+ * absent from every other archive of the set.
+ *
+ * Types are cached in their serialized form and every read returns a new instance, so callers can modify the types they get as they did with the types
+ * fetched from the catalog. Entries expire after a configurable time to live so that an entry missed by an invalidation is not kept forever.
+ */
+@Slf4j
+@Component
+public class ToscaTypeCache {
+    @Resource
+    private ICSARRepositorySearchService csarRepositorySearchService;
+    @Value("${tosca.types_cache.max_size:10000}")
+    private long maxSize;
+    @Value("${tosca.types_cache.ttl_ms:3600000}")
+    private long ttlMs;
+    /** Types are stored in the cache as they are stored in the catalog. */
+    private final ObjectMapper typesMapper = ElasticSearchMapper.getInstance();
+
+    private Cache<TypeKey, Optional<CachedType>> typesCache;
+
+    @PostConstruct
+    public void setup() {
+        typesCache = CacheBuilder.newBuilder().maximumSize(maxSize).expireAfterWrite(ttlMs, TimeUnit.MILLISECONDS).build();
+    }
+
+    /**
+     * Get an element from defined dependencies, reading from the cache first and falling back to the catalog.
+     *
+     * @param elementClass The element class.
+     * @param elementId The TOSCA element id of the element (without archive version).
+     * @param dependencies A list of CSAR in which the element may be defined.
+     * @param required If true a {@link NotFoundException} is thrown when the element cannot be found.
+     * @return The requested element or null if the element is not found and not required.
+     */
+    public <T extends AbstractToscaType> T getElementInDependencies(Class<T> elementClass, String elementId, Set<CSARDependency> dependencies,
+            boolean required) {
+        if (dependencies == null || dependencies.isEmpty()) {
+            return getFromRepository(elementClass, elementId, dependencies, required);
+        }
+        Optional<T> cached = getCached(elementClass, elementId, dependencies);
+        T element;
+        if (cached == null) {
+            element = getFromRepository(elementClass, elementId, dependencies, false);
+            putCached(elementClass, elementId, dependencies, element);
+        } else {
+            element = cached.orElse(null);
+        }
+        if (element == null && required) {
+            throw new NotFoundException(
+                    "Element elementId: <" + elementId + "> of type <" + elementClass.getSimpleName() + "> cannot be found in dependencies " + dependencies);
+        }
+        return element;
+    }
+
+    /**
+     * Get a batch of elements from defined dependencies, reading from the cache first and fetching all the missing elements from the catalog in a single
+     * request.
+     *
+     * @param elementClass The element class.
+     * @param elementIds The TOSCA element ids of the elements (without archive version).
+     * @param dependencies A list of CSAR in which the elements may be defined.
+     * @return A map of the found elements by element id.
+     */
+    public <T extends AbstractToscaType> Map<String, T> getElementsInDependencies(Class<T> elementClass, Collection<String> elementIds,
+            Set<CSARDependency> dependencies) {
+        if (dependencies == null || dependencies.isEmpty()) {
+            return csarRepositorySearchService.getElementsInDependencies(elementClass, elementIds, dependencies);
+        }
+        Map<String, T> elements = Maps.newHashMap();
+        Set<String> missingIds = Sets.newHashSet();
+        for (String elementId : elementIds) {
+            Optional<T> cached = getCached(elementClass, elementId, dependencies);
+            if (cached == null) {
+                missingIds.add(elementId);
+            } else if (cached.isPresent()) {
+                elements.put(elementId, cached.get());
+            }
+        }
+        if (!missingIds.isEmpty()) {
+            log.debug("Types cache miss for {} elements of type {}", missingIds.size(), elementClass.getSimpleName());
+            Map<String, T> fetched = csarRepositorySearchService.getElementsInDependencies(elementClass, missingIds, dependencies);
+            for (String elementId : missingIds) {
+                putCached(elementClass, elementId, dependencies, fetched.get(elementId));
+            }
+            elements.putAll(fetched);
+        }
+        return elements;
+    }
+
+    /**
+     * Resolve an element from the cache.
+     *
+     * @return null if at least one of the dependencies has no cache entry for the element, an empty optional if the element is cached as absent from all
+     *         dependencies, a new instance of the element otherwise.
+     */
+    private <T extends AbstractToscaType> Optional<T> getCached(Class<T> elementClass, String elementId, Set<CSARDependency> dependencies) {
+        CachedType element = null;
+        for (CSARDependency dependency : dependencies) {
+            Optional<CachedType> cached = typesCache.getIfPresent(new TypeKey(elementClass, elementId, dependency));
+            if (cached == null) {
+                return null;
+            }
+            if (cached.isPresent() && (element == null || VersionUtil.compare(cached.get().archiveVersion, element.archiveVersion) > 0)) {
+                element = cached.get();
+            }
+        }
+        if (element == null) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(elementClass.cast(typesMapper.readValue(element.content, element.elementClass)));
+        } catch (IOException e) {
+            log.warn("Unable to read cached element " + elementId + " of type " + elementClass.getSimpleName(), e);
+            return null;
+        }
+    }
+
+    private void putCached(Class<?> elementClass, String elementId, Set<CSARDependency> dependencies, AbstractToscaType element) {
+        Optional<CachedType> cached = Optional.empty();
+        if (element != null) {
+            try {
+                cached = Optional.of(new CachedType(element.getClass(), element.getArchiveVersion(), typesMapper.writeValueAsBytes(element)));
+            } catch (IOException e) {
+                log.warn("Unable to cache element " + elementId + " of type " + elementClass.getSimpleName(), e);
+                return;
+            }
+        }
+        for (CSARDependency dependency : dependencies) {
+            boolean definedInDependency = element != null && dependency.getName().equals(element.getArchiveName())
+                    && dependency.getVersion().equals(element.getArchiveVersion());
+            typesCache.put(new TypeKey(elementClass, elementId, dependency), definedInDependency ? cached : Optional.empty());
+        }
+    }
+
+    private <T extends AbstractToscaType> T getFromRepository(Class<T> elementClass, String elementId, Set<CSARDependency> dependencies, boolean required) {
+        log.debug("Types cache miss for element {} of type {}", elementId, elementClass.getSimpleName());
+        return required ? csarRepositorySearchService.getRequiredElementInDependencies(elementClass, elementId, dependencies)
+                : csarRepositorySearchService.getElementInDependencies(elementClass, elementId, dependencies);
+    }
+
+    /**
+     * Remove from the cache all entries related to the given archive.
+     *
+     * @param archiveId The id of the archive (see {@link Csar#createId(String, String)}).
+     */
+    public void invalidateArchive(String archiveId) {
+        log.debug("Invalidating cached types for archive {}", archiveId);
+        typesCache.asMap().keySet().removeIf(key -> Csar.createId(key.archiveName, key.archiveVersion).equals(archiveId));
+    }
+
+    /**
+     * Invalidate all cached types.
+     */
+    public void clear() {
+        typesCache.invalidateAll();
+    }
+
+    /** Serialized form of a cached type. */
+    @AllArgsConstructor(suppressConstructorProperties = true)
+    private static class CachedType {
+        private final Class<? extends AbstractToscaType> elementClass;
+        private final String archiveVersion;
+        private final byte[] content;
+    }
+
+    @EqualsAndHashCode
+    private static class TypeKey {
+        private final Class<?> elementClass;
+        private final String elementId;
+        private final String archiveName;
+        private final String archiveVersion;
+        private final String archiveHash;
+
+        private TypeKey(Class<?> elementClass, String elementId, CSARDependency dependency) {
+            this.elementClass = elementClass;
+            this.elementId = elementId;
+            this.archiveName = dependency.getName();
+            this.archiveVersion = dependency.getVersion();
+            this.archiveHash = dependency.getHash();
+        }
+    }
+}
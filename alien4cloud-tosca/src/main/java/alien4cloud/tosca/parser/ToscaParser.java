@@ -2,12 +2,14 @@ package alien4cloud.tosca.parser;
 
 import java.io.InputStream;
 import java.nio.file.Path;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 
 import javax.annotation.PostConstruct;
 import javax.annotation.Resource;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.yaml.snakeyaml.error.Mark;
 import org.yaml.snakeyaml.nodes.MappingNode;
@@ -16,20 +18,26 @@ import org.yaml.snakeyaml.nodes.NodeTuple;
 import org.yaml.snakeyaml.nodes.ScalarNode;
 
 import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
 
 import alien4cloud.tosca.context.ToscaContextual;
 import alien4cloud.tosca.model.ArchiveRoot;
 import alien4cloud.tosca.parser.impl.ErrorCode;
 import alien4cloud.tosca.parser.mapping.generator.MappingGenerator;
 import alien4cloud.tosca.parser.postprocess.ArchiveRootPostProcessor;
+import lombok.extern.slf4j.Slf4j;
 
 /**
  * Main entry point for TOSCA template parsing.
+ *
+ * The parser is stateless and can be used to parse several archives concurrently: the state of a parsing is kept in the thread-bound
+ * {@link ParsingContextExecution} and the registries of parsers are immutable once generated.
  */
+@Slf4j
 @Component
 public class ToscaParser extends YamlParser<ArchiveRoot> {
     private static final String DEFINITION_TYPE = "definition";
-    private Map<String, Map<String, INodeParser>> parserRegistriesByVersion = Maps.newHashMap();
+    private Map<String, ParserRegistry> parserRegistriesByVersion = Maps.newHashMap();
 
     @Resource
     private MappingGenerator mappingGenerator;
@@ -37,21 +45,26 @@ public class ToscaParser extends YamlParser<ArchiveRoot> {
     @Resource
     private ArchiveRootPostProcessor archiveRootPostProcessor;
 
+    /** If true all the registries are generated at startup, else the registry of a definition version is generated when first used. */
+    @Value("${tosca.parser.preload_mappings:false}")
+    private boolean preloadMappings;
+
     @PostConstruct
     public void initialize() throws ParsingException {
         // initialize type registry for working draft 3.
-        Map<String, INodeParser> registry = mappingGenerator.process("classpath:tosca-simple-profile-wd03-mapping.yml");
-        parserRegistriesByVersion.put("tosca_simple_yaml_1_0_0_wd03", registry);
-        registry = mappingGenerator.process("classpath:alien-dsl-1.1.0-mapping.yml");
-        parserRegistriesByVersion.put("alien_dsl_1_1_0", registry);
-        registry = mappingGenerator.process("classpath:alien-dsl-1.2.0-mapping.yml");
-        parserRegistriesByVersion.put("alien_dsl_1_2_0", registry);
-        registry = mappingGenerator.process("classpath:alien-dsl-1.3.0-mapping.yml");
-        parserRegistriesByVersion.put("alien_dsl_1_3_0", registry);
+        parserRegistriesByVersion.put("tosca_simple_yaml_1_0_0_wd03", new ParserRegistry("classpath:tosca-simple-profile-wd03-mapping.yml"));
+        parserRegistriesByVersion.put("alien_dsl_1_1_0", new ParserRegistry("classpath:alien-dsl-1.1.0-mapping.yml"));
+        parserRegistriesByVersion.put("alien_dsl_1_2_0", new ParserRegistry("classpath:alien-dsl-1.2.0-mapping.yml"));
+        parserRegistriesByVersion.put("alien_dsl_1_3_0", new ParserRegistry("classpath:alien-dsl-1.3.0-mapping.yml"));
         // experimental
-        registry = mappingGenerator.process("classpath:tosca_simple_yaml_1_0.yml");
+        ParserRegistry registry = new ParserRegistry("classpath:tosca_simple_yaml_1_0.yml");
         parserRegistriesByVersion.put("tosca_simple_yaml_1_0", registry);
         parserRegistriesByVersion.put("http://docs.oasis-open.org/tosca/ns/simple/yaml/1.0", registry);
+        if (preloadMappings) {
+            for (ParserRegistry parserRegistry : Sets.newHashSet(parserRegistriesByVersion.values())) {
+                parserRegistry.get();
+            }
+        }
     }
 
     @Override
@@ -84,14 +97,15 @@ public class ToscaParser extends YamlParser<ArchiveRoot> {
             // try to find the tosca version
             DefinitionVersionInfo definitionVersionInfo = getToscaDefinitionVersion(((MappingNode) rootNode).getValue(), context);
             // call the parser for the given tosca version
-            Map<String, INodeParser> registry = parserRegistriesByVersion.get(definitionVersionInfo.definitionVersion);
-            if (registry == null) {
+            ParserRegistry parserRegistry = parserRegistriesByVersion.get(definitionVersionInfo.definitionVersion);
+            if (parserRegistry == null) {
                 throw new ParsingException(context.getFileName(),
                         new ParsingError(ErrorCode.UNKNOWN_TOSCA_VERSION, "Definition version is not supported",
                                 definitionVersionInfo.definitionVersionTuple.getKeyNode().getStartMark(), "Version is not supported by Alien4Cloud",
                                 definitionVersionInfo.definitionVersionTuple.getValueNode().getStartMark(), definitionVersionInfo.definitionVersion));
             }
 
+            Map<String, INodeParser> registry = parserRegistry.get();
             context.setRegistry(registry);
             context.setDefinitionVersion(definitionVersionInfo.definitionVersion);
             return registry.get(DEFINITION_TYPE);
@@ -126,6 +140,46 @@ public class ToscaParser extends YamlParser<ArchiveRoot> {
                 new Mark("root", 0, 0, 0, null, 0), "Unable to find the mandatory tosca_definitions_version.", new Mark("root", 0, 0, 0, null, 0), null));
     }
 
+    /**
+     * Registry of the parsers of a definition version, generated from its mapping definition when first used.
+     */
+    private class ParserRegistry {
+        private final String mappingLocation;
+        private volatile Map<String, INodeParser> registry;
+
+        private ParserRegistry(String mappingLocation) {
+            this.mappingLocation = mappingLocation;
+        }
+
+        private Map<String, INodeParser> get() throws ParsingException {
+            Map<String, INodeParser> result = registry;
+            if (result == null) {
+                synchronized (this) {
+                    result = registry;
+                    if (result == null) {
+                        result = generate();
+                        registry = result;
+                    }
+                }
+            }
+            return result;
+        }
+
+        private Map<String, INodeParser> generate() throws ParsingException {
+            long start = System.currentTimeMillis();
+            // the mapping is parsed using its own parsing context and must not reuse the one of the definition under parsing.
+            ParsingContextExecution.Context currentContext = ParsingContextExecution.get();
+            ParsingContextExecution.set(null);
+            try {
+                Map<String, INodeParser> generated = Collections.unmodifiableMap(mappingGenerator.process(mappingLocation));
+                log.debug("Generated parsers registry from <{}> in {} ms", mappingLocation, System.currentTimeMillis() - start);
+                return generated;
+            } finally {
+                ParsingContextExecution.set(currentContext);
+            }
+        }
+    }
+
     private class DefinitionVersionInfo {
         private final String definitionVersion;
         private final NodeTuple definitionVersionTuple;
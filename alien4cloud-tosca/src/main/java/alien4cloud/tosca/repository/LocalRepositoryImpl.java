@@ -2,6 +2,8 @@ package alien4cloud.tosca.repository;
 
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.Collection;
+import java.util.Map;
 import java.util.Set;
 
 import javax.annotation.Resource;
@@ -10,6 +12,8 @@ import org.springframework.expression.EvaluationContext;
 import org.springframework.expression.spel.support.StandardEvaluationContext;
 import org.springframework.stereotype.Component;
 
+import com.google.common.collect.Maps;
+
 import alien4cloud.component.ICSARRepositorySearchService;
 import alien4cloud.exception.NotFoundException;
 import org.alien4cloud.tosca.model.CSARDependency;
@@ -104,6 +108,19 @@ public class LocalRepositoryImpl implements ICSARRepositorySearchService {
         return element;
     }
 
+    @Override
+    public <T extends AbstractToscaType> Map<String, T> getElementsInDependencies(Class<T> elementClass, Collection<String> elementIds,
+            Set<CSARDependency> dependencies) {
+        Map<String, T> elements = Maps.newHashMap();
+        for (String elementId : elementIds) {
+            T element = getElementInDependencies(elementClass, elementId, dependencies);
+            if (element != null) {
+                elements.put(elementId, element);
+            }
+        }
+        return elements;
+    }
+
     @SneakyThrows
     private void parseAndRegister(CSARDependency dependency) {
         // parse and load archive.
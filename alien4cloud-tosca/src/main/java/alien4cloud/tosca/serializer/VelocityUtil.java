@@ -34,15 +34,28 @@ public class VelocityUtil {
         VELOCITY_ENGINE.init();
     }
 
+    /** Serialization helpers are stateless and shared by all the generations. */
+    private static final ToscaSerializerUtils SERIALIZER_UTILS = new ToscaSerializerUtils();
+    private static final ToscaPropertySerializerUtils PROPERTY_SERIALIZER_UTILS = new ToscaPropertySerializerUtils();
+
+    /**
+     * Generate the given template in the output writer, the writer is closed once the generation is done.
+     *
+     * @param path The classpath location of the template.
+     * @param outputWriter The writer in which to generate the template.
+     * @param properties The properties to inject in the velocity context.
+     * @throws IOException In case of a failure while writing in the output writer.
+     */
     public static void generate(String path, Writer outputWriter, Map<String, ?> properties) throws IOException {
+        // parsed templates are cached by the resource loader
         Template template = VELOCITY_ENGINE.getTemplate(path, "UTF-8");
         VelocityContext context = new VelocityContext();
 
         for (Entry<String, ?> contextEntry : properties.entrySet()) {
             context.put(contextEntry.getKey(), contextEntry.getValue());
         }
-        context.put("utils", new ToscaSerializerUtils());
-        context.put("propertyUtils", new ToscaPropertySerializerUtils());
+        context.put("utils", SERIALIZER_UTILS);
+        context.put("propertyUtils", PROPERTY_SERIALIZER_UTILS);
 
         try {
             template.merge(context, outputWriter);
@@ -0,0 +1,131 @@
+package alien4cloud.tosca.context;
+
+import java.util.Map;
+import java.util.Set;
+
+import org.alien4cloud.tosca.model.CSARDependency;
+import org.alien4cloud.tosca.model.types.NodeType;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+
+import alien4cloud.component.ICSARRepositorySearchService;
+import alien4cloud.exception.NotFoundException;
+
+public class ToscaTypeCacheTest {
+    private ICSARRepositorySearchService searchService;
+    private ToscaTypeCache cache;
+    private Set<CSARDependency> dependencies;
+
+    @Before
+    public void before() {
+        searchService = Mockito.mock(ICSARRepositorySearchService.class);
+        cache = new ToscaTypeCache();
+        ReflectionTestUtils.setField(cache, "csarRepositorySearchService", searchService);
+        ReflectionTestUtils.setField(cache, "maxSize", 100L);
+        ReflectionTestUtils.setField(cache, "ttlMs", 60000L);
+        cache.setup();
+        dependencies = Sets.newHashSet(new CSARDependency("tosca-normative-types", "1.0.0", "hash"), new CSARDependency("my-types", "1.0.0", "hash"));
+    }
+
+    private NodeType nodeType(String elementId, String archiveName, String archiveVersion) {
+        NodeType nodeType = new NodeType();
+        nodeType.setElementId(elementId);
+        nodeType.setArchiveName(archiveName);
+        nodeType.setArchiveVersion(archiveVersion);
+        nodeType.setDerivedFrom(Lists.newArrayList("tosca.nodes.Root"));
+        return nodeType;
+    }
+
+    private void assertSameType(NodeType expected, NodeType actual) {
+        Assert.assertEquals(expected.getElementId(), actual.getElementId());
+        Assert.assertEquals(expected.getArchiveName(), actual.getArchiveName());
+        Assert.assertEquals(expected.getArchiveVersion(), actual.getArchiveVersion());
+        Assert.assertEquals(expected.getDerivedFrom(), actual.getDerivedFrom());
+    }
+
+    @Test
+    public void elementShouldBeFetchedOnlyOnce() {
+        NodeType compute = nodeType("tosca.nodes.Compute", "tosca-normative-types", "1.0.0");
+        Mockito.when(searchService.getElementInDependencies(NodeType.class, "tosca.nodes.Compute", dependencies)).thenReturn(compute);
+
+        Assert.assertSame(compute, cache.getElementInDependencies(NodeType.class, "tosca.nodes.Compute", dependencies, true));
+        assertSameType(compute, cache.getElementInDependencies(NodeType.class, "tosca.nodes.Compute", dependencies, true));
+        Mockito.verify(searchService, Mockito.times(1)).getElementInDependencies(NodeType.class, "tosca.nodes.Compute", dependencies);
+    }
+
+    @Test
+    public void cachedElementShouldNotBeSharedBetweenCallers() {
+        NodeType compute = nodeType("tosca.nodes.Compute", "tosca-normative-types", "1.0.0");
+        Mockito.when(searchService.getElementInDependencies(NodeType.class, "tosca.nodes.Compute", dependencies)).thenReturn(compute);
+
+        // callers modify the types they get (for example when building node templates)
+        cache.getElementInDependencies(NodeType.class, "tosca.nodes.Compute", dependencies, true).getDerivedFrom().add("modified");
+        NodeType first = cache.getElementInDependencies(NodeType.class, "tosca.nodes.Compute", dependencies, true);
+        first.getDerivedFrom().add("modified");
+        NodeType second = cache.getElementInDependencies(NodeType.class, "tosca.nodes.Compute", dependencies, true);
+        Assert.assertNotSame(first, second);
+        Assert.assertEquals(Lists.newArrayList("tosca.nodes.Root"), second.getDerivedFrom());
+    }
+
+    @Test
+    public void batchShouldFetchOnlyMissingElements() {
+        NodeType compute = nodeType("tosca.nodes.Compute", "tosca-normative-types", "1.0.0");
+        NodeType root = nodeType("tosca.nodes.Root", "tosca-normative-types", "1.0.0");
+        Mockito.when(searchService.getElementInDependencies(NodeType.class, "tosca.nodes.Compute", dependencies)).thenReturn(compute);
+        Mockito.when(searchService.getElementsInDependencies(NodeType.class, Sets.newHashSet("tosca.nodes.Root"), dependencies))
+                .thenReturn(Maps.newHashMap(ImmutableMap.of("tosca.nodes.Root", root)));
+
+        cache.getElementInDependencies(NodeType.class, "tosca.nodes.Compute", dependencies, true);
+        Map<String, NodeType> elements = cache.getElementsInDependencies(NodeType.class, Lists.newArrayList("tosca.nodes.Compute", "tosca.nodes.Root"),
+                dependencies);
+        Assert.assertEquals(2, elements.size());
+        assertSameType(compute, elements.get("tosca.nodes.Compute"));
+        Assert.assertSame(root, elements.get("tosca.nodes.Root"));
+        Mockito.verify(searchService, Mockito.times(1)).getElementsInDependencies(NodeType.class, Sets.newHashSet("tosca.nodes.Root"), dependencies);
+    }
+
+    @Test
+    public void expiredElementShouldBeFetchedAgain() throws InterruptedException {
+        ReflectionTestUtils.setField(cache, "ttlMs", 100L);
+        cache.setup();
+        NodeType compute = nodeType("tosca.nodes.Compute", "tosca-normative-types", "1.0.0");
+        Mockito.when(searchService.getElementInDependencies(NodeType.class, "tosca.nodes.Compute", dependencies)).thenReturn(compute);
+
+        cache.getElementInDependencies(NodeType.class, "tosca.nodes.Compute", dependencies, true);
+        Thread.sleep(200);
+        cache.getElementInDependencies(NodeType.class, "tosca.nodes.Compute", dependencies, true);
+        Mockito.verify(searchService, Mockito.times(2)).getElementInDependencies(NodeType.class, "tosca.nodes.Compute", dependencies);
+    }
+
+    @Test
+    public void missingElementShouldBeCached() {
+        Assert.assertNull(cache.getElementInDependencies(NodeType.class, "tosca.nodes.Missing", dependencies, false));
+        Assert.assertNull(cache.getElementInDependencies(NodeType.class, "tosca.nodes.Missing", dependencies, false));
+        Mockito.verify(searchService, Mockito.times(1)).getElementInDependencies(NodeType.class, "tosca.nodes.Missing", dependencies);
+    }
+
+    @Test(expected = NotFoundException.class)
+    public void missingRequiredElementShouldFail() {
+        cache.getElementInDependencies(NodeType.class, "tosca.nodes.Missing", dependencies, false);
+        cache.getElementInDependencies(NodeType.class, "tosca.nodes.Missing", dependencies, true);
+    }
+
+    @Test
+    public void archiveInvalidationShouldEvictElements() {
+        NodeType compute = nodeType("tosca.nodes.Compute", "tosca-normative-types", "1.0.0");
+        Mockito.when(searchService.getElementInDependencies(NodeType.class, "tosca.nodes.Compute", dependencies)).thenReturn(compute);
+
+        cache.getElementInDependencies(NodeType.class, "tosca.nodes.Compute", dependencies, true);
+        cache.invalidateArchive("tosca-normative-types:1.0.0");
+        cache.getElementInDependencies(NodeType.class, "tosca.nodes.Compute", dependencies, true);
+        Mockito.verify(searchService, Mockito.times(2)).getElementInDependencies(NodeType.class, "tosca.nodes.Compute", dependencies);
+    }
+}
@@ -0,0 +1,150 @@
+package alien4cloud.tosca.parser;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.StringReader;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Matchers;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.yaml.snakeyaml.Yaml;
+import org.yaml.snakeyaml.nodes.Node;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+
+import alien4cloud.tosca.parser.mapping.generator.MappingGenerator;
+
+/**
+ * Check the generation of the parsers registries of the {@link ToscaParser}, on first use or at startup when the mappings are preloaded.
+ */
+public class ToscaParserRegistryTest {
+    private static final int THREADS = 16;
+
+    private ToscaParser parser;
+    private ExecutorService executor;
+    /** Number of generations of the registry of each mapping location. */
+    private Map<String, AtomicInteger> generations = new ConcurrentHashMap<>();
+    /** Definition parser of the registry of each mapping location. */
+    private Map<String, INodeParser> definitionParsers = new ConcurrentHashMap<>();
+
+    @Before
+    public void before() throws ParsingException {
+        MappingGenerator mappingGenerator = Mockito.mock(MappingGenerator.class);
+        Mockito.when(mappingGenerator.process(Matchers.anyString())).thenAnswer(invocation -> {
+            String mappingLocation = (String) invocation.getArguments()[0];
+            // the mapping must not be parsed in the context of the definition under parsing
+            assertNull(ParsingContextExecution.get());
+            generations.computeIfAbsent(mappingLocation, location -> new AtomicInteger()).incrementAndGet();
+            // let the other threads reach the registry while it is being generated
+            Thread.sleep(50);
+            Map<String, INodeParser> registry = Maps.newHashMap();
+            registry.put("definition", definitionParsers.computeIfAbsent(mappingLocation, location -> Mockito.mock(INodeParser.class)));
+            return registry;
+        });
+        parser = new ToscaParser();
+        ReflectionTestUtils.setField(parser, "mappingGenerator", mappingGenerator);
+        executor = Executors.newFixedThreadPool(THREADS);
+    }
+
+    @After
+    public void after() {
+        executor.shutdownNow();
+    }
+
+    private INodeParser getParser(String definitionVersion) throws ParsingException {
+        Node rootNode = new Yaml().compose(new StringReader("tosca_definitions_version: " + definitionVersion + "\n"));
+        ParsingContextExecution.init();
+        try {
+            INodeParser nodeParser = parser.getParser(rootNode, new ParsingContextExecution());
+            assertEquals(definitionVersion, ParsingContextExecution.getDefinitionVersion());
+            assertSame(nodeParser, ParsingContextExecution.getRegistry().get("definition"));
+            return nodeParser;
+        } finally {
+            ParsingContextExecution.destroy();
+        }
+    }
+
+    @Test
+    public void registriesShouldBeGeneratedOnFirstUse() throws ParsingException {
+        parser.initialize();
+        assertTrue(generations.isEmpty());
+
+        INodeParser nodeParser = getParser("alien_dsl_1_3_0");
+        assertEquals(Sets.newHashSet("classpath:alien-dsl-1.3.0-mapping.yml"), generations.keySet());
+        assertSame(definitionParsers.get("classpath:alien-dsl-1.3.0-mapping.yml"), nodeParser);
+        // the registry is generated once and then reused
+        assertSame(nodeParser, getParser("alien_dsl_1_3_0"));
+        assertEquals(1, generations.get("classpath:alien-dsl-1.3.0-mapping.yml").get());
+        // both names of the tosca simple profile share the same registry
+        assertSame(getParser("tosca_simple_yaml_1_0"), getParser("http://docs.oasis-open.org/tosca/ns/simple/yaml/1.0"));
+        assertEquals(1, generations.get("classpath:tosca_simple_yaml_1_0.yml").get());
+        assertEquals(2, generations.size());
+    }
+
+    @Test
+    public void concurrentFirstUseShouldGenerateEachRegistryOnce() throws Exception {
+        parser.initialize();
+        Map<String, String> mappingLocations = Maps.newLinkedHashMap();
+        mappingLocations.put("alien_dsl_1_2_0", "classpath:alien-dsl-1.2.0-mapping.yml");
+        mappingLocations.put("alien_dsl_1_3_0", "classpath:alien-dsl-1.3.0-mapping.yml");
+        mappingLocations.put("tosca_simple_yaml_1_0", "classpath:tosca_simple_yaml_1_0.yml");
+        mappingLocations.put("http://docs.oasis-open.org/tosca/ns/simple/yaml/1.0", "classpath:tosca_simple_yaml_1_0.yml");
+        String[] definitionVersions = mappingLocations.keySet().toArray(new String[mappingLocations.size()]);
+        CountDownLatch startGate = new CountDownLatch(1);
+        List<Future<INodeParser>> futures = Lists.newArrayList();
+        for (int i = 0; i < THREADS; i++) {
+            String definitionVersion = definitionVersions[i % definitionVersions.length];
+            futures.add(executor.submit(() -> {
+                startGate.await();
+                return getParser(definitionVersion);
+            }));
+        }
+        startGate.countDown();
+
+        for (int i = 0; i < THREADS; i++) {
+            String mappingLocation = mappingLocations.get(definitionVersions[i % definitionVersions.length]);
+            // every thread gets the parser of the single generated registry
+            assertSame(definitionParsers.get(mappingLocation), futures.get(i).get(10, TimeUnit.SECONDS));
+        }
+        assertEquals(Sets.newHashSet(mappingLocations.values()), generations.keySet());
+        for (AtomicInteger generationCount : generations.values()) {
+            assertEquals(1, generationCount.get());
+        }
+    }
+
+    @Test
+    public void preloadedRegistriesShouldBeGeneratedAtStartup() throws ParsingException {
+        ReflectionTestUtils.setField(parser, "preloadMappings", true);
+        parser.initialize();
+        assertEquals(Sets.newHashSet("classpath:tosca-simple-profile-wd03-mapping.yml", "classpath:alien-dsl-1.1.0-mapping.yml",
+                "classpath:alien-dsl-1.2.0-mapping.yml", "classpath:alien-dsl-1.3.0-mapping.yml", "classpath:tosca_simple_yaml_1_0.yml"),
+                generations.keySet());
+        for (AtomicInteger generationCount : generations.values()) {
+            assertEquals(1, generationCount.get());
+        }
+
+        // using the preloaded registries does not generate them again
+        assertSame(definitionParsers.get("classpath:alien-dsl-1.1.0-mapping.yml"), getParser("alien_dsl_1_1_0"));
+        assertSame(definitionParsers.get("classpath:tosca_simple_yaml_1_0.yml"), getParser("http://docs.oasis-open.org/tosca/ns/simple/yaml/1.0"));
+        for (AtomicInteger generationCount : generations.values()) {
+            assertEquals(1, generationCount.get());
+        }
+    }
+}